@@ -2,9 +2,7 @@ package com.priceline.role;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.Bean;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
-import org.springframework.web.client.RestTemplate;
 
 @SpringBootApplication
 @EnableTransactionManagement
@@ -13,10 +11,5 @@ public class RoleApplication {
 	public static void main(String[] args) {
 		SpringApplication.run(RoleApplication.class, args);
 	}
-	
-	@Bean
-	public RestTemplate restTemplate() {
-	    return new RestTemplate();
-	}
 
 }
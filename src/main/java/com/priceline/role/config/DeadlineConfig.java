@@ -0,0 +1,36 @@
+package com.priceline.role.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.priceline.role.repository.support.DeadlineDataSource;
+
+@Configuration
+public class DeadlineConfig {
+
+	/**
+	 * Wraps the data source so queries honour the request deadline.
+	 * <br>
+	 * Declared static so the data source is post-processed without initializing this
+	 * configuration early.
+	 */
+	@Bean
+	public static BeanPostProcessor deadlineDataSourcePostProcessor() {
+		return new BeanPostProcessor() {
+
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if(bean instanceof DataSource dataSource && !(bean instanceof DeadlineDataSource)) {
+					return new DeadlineDataSource(dataSource);
+				}
+
+				return bean;
+			}
+
+		};
+	}
+
+}
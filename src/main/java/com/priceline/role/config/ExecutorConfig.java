@@ -0,0 +1,38 @@
+package com.priceline.role.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+	/**
+	 * Bounded executor used to run the lookups of a membership validation concurrently.
+	 * <br>
+	 * When the pool and its queue are saturated the caller runs the lookup itself, so
+	 * validation degrades to sequential execution instead of failing.
+	 * <br>
+	 * Replaced by {@link VirtualThreadConfig} when virtual threads are enabled.
+	 */
+	@Bean
+	@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "false", matchIfMissing = true)
+	public ThreadPoolTaskExecutor validationExecutor(
+			@Value("${membership.validation.executor.core-size}") final int coreSize,
+			@Value("${membership.validation.executor.max-size}") final int maxSize,
+			@Value("${membership.validation.executor.queue-capacity}") final int queueCapacity) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(coreSize);
+		executor.setMaxPoolSize(maxSize);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setThreadNamePrefix("validation-");
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+
+		return executor;
+	}
+
+}
@@ -0,0 +1,62 @@
+package com.priceline.role.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.priceline.role.dto.TeamDTO;
+import com.priceline.role.dto.UserDTO;
+import com.priceline.role.facade.cache.LookupCache;
+import com.priceline.role.facade.cache.RotatingBloomFilter;
+import com.priceline.role.facade.cache.TeamRosterIndex;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class FacadeCacheConfig {
+
+	@Bean
+	public LookupCache<UserDTO> userLookupCache(MeterRegistry meterRegistry,
+			@Value("${facade.cache.user.maximum-size}") final long maximumSize,
+			@Value("${facade.cache.user.ttl}") final Duration ttl,
+			@Value("${facade.cache.user.not-found-ttl}") final Duration notFoundTtl) {
+		return new LookupCache<>("facade.users", maximumSize, ttl, notFoundTtl, meterRegistry);
+	}
+
+	@Bean
+	public LookupCache<TeamDTO> teamLookupCache(MeterRegistry meterRegistry,
+			@Value("${facade.cache.team.maximum-size}") final long maximumSize,
+			@Value("${facade.cache.team.ttl}") final Duration ttl,
+			@Value("${facade.cache.team.not-found-ttl}") final Duration notFoundTtl) {
+		return new LookupCache<>("facade.teams", maximumSize, ttl, notFoundTtl, meterRegistry);
+	}
+
+	@Bean
+	public TeamRosterIndex teamRosterIndex(MeterRegistry meterRegistry,
+			@Value("${facade.cache.roster.maximum-size}") final long maximumSize,
+			@Value("${facade.cache.roster.ttl}") final Duration ttl) {
+		return new TeamRosterIndex("facade.rosters", maximumSize, ttl, meterRegistry);
+	}
+
+	/**
+	 * User ids recently answered as missing, rejected without calling the user API.
+	 */
+	@Bean
+	public RotatingBloomFilter missingUserFilter(MeterRegistry meterRegistry,
+			@Value("${facade.missing-filter.user.expected-ids}") final int expectedIds,
+			@Value("${facade.missing-filter.user.false-positive-rate}") final double falsePositiveRate,
+			@Value("${facade.missing-filter.user.rotation}") final Duration rotation) {
+		return new RotatingBloomFilter("facade.users", expectedIds, falsePositiveRate, rotation, meterRegistry);
+	}
+
+	@Bean
+	public RotatingBloomFilter missingTeamFilter(MeterRegistry meterRegistry,
+			@Value("${facade.missing-filter.team.expected-ids}") final int expectedIds,
+			@Value("${facade.missing-filter.team.false-positive-rate}") final double falsePositiveRate,
+			@Value("${facade.missing-filter.team.rotation}") final Duration rotation) {
+		return new RotatingBloomFilter("facade.teams", expectedIds, falsePositiveRate, rotation, meterRegistry);
+	}
+
+}
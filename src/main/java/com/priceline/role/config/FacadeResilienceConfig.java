@@ -0,0 +1,111 @@
+package com.priceline.role.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.client.HttpClientErrorException;
+
+import com.priceline.role.facade.breaker.CircuitBreaker;
+import com.priceline.role.facade.bulkhead.Bulkhead;
+import com.priceline.role.facade.hedging.Hedger;
+import com.priceline.role.model.exception.DeadlineExceededException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class FacadeResilienceConfig {
+
+	/**
+	 * Bulkhead shared by the calls to the user and team APIs, which are served by the same host.
+	 */
+	@Bean
+	public Bulkhead facadeBulkhead(MeterRegistry meterRegistry,
+			@Value("${facade.bulkhead.max-concurrent-calls}") final int maxConcurrentCalls,
+			@Value("${facade.bulkhead.max-queued-calls}") final int maxQueuedCalls,
+			@Value("${facade.bulkhead.max-wait}") final Duration maxWait,
+			@Value("${facade.bulkhead.retry-after}") final Duration retryAfter) {
+		return new Bulkhead("Priceline API", maxConcurrentCalls, maxQueuedCalls, maxWait, retryAfter, meterRegistry);
+	}
+
+	@Bean
+	public CircuitBreaker.Settings facadeCircuitBreakerSettings(
+			@Value("${facade.circuit-breaker.window-size}") final int windowSize,
+			@Value("${facade.circuit-breaker.minimum-calls}") final int minimumCalls,
+			@Value("${facade.circuit-breaker.failure-rate-threshold}") final int failureRateThreshold,
+			@Value("${facade.circuit-breaker.slow-call-rate-threshold}") final int slowCallRateThreshold,
+			@Value("${facade.circuit-breaker.slow-call-duration}") final Duration slowCallDuration,
+			@Value("${facade.circuit-breaker.open-duration}") final Duration openDuration,
+			@Value("${facade.circuit-breaker.half-open-calls}") final int halfOpenCalls) {
+		return new CircuitBreaker.Settings(windowSize, minimumCalls, failureRateThreshold, slowCallRateThreshold,
+				slowCallDuration, openDuration, halfOpenCalls);
+	}
+
+	/**
+	 * Circuit of the user API, opened independently of the team API.
+	 */
+	@Bean
+	public CircuitBreaker userCircuitBreaker(CircuitBreaker.Settings facadeCircuitBreakerSettings, MeterRegistry meterRegistry) {
+		return new CircuitBreaker("User API", facadeCircuitBreakerSettings, FacadeResilienceConfig::isUpstreamFailure, meterRegistry);
+	}
+
+	@Bean
+	public CircuitBreaker teamCircuitBreaker(CircuitBreaker.Settings facadeCircuitBreakerSettings, MeterRegistry meterRegistry) {
+		return new CircuitBreaker("Team API", facadeCircuitBreakerSettings, FacadeResilienceConfig::isUpstreamFailure, meterRegistry);
+	}
+
+	@Bean
+	public Hedger.Settings facadeHedgingSettings(
+			@Value("${facade.hedging.enabled}") final boolean enabled,
+			@Value("${facade.hedging.percentile}") final int percentile,
+			@Value("${facade.hedging.min-delay}") final Duration minDelay,
+			@Value("${facade.hedging.max-delay}") final Duration maxDelay,
+			@Value("${facade.hedging.window-size}") final int windowSize,
+			@Value("${facade.hedging.max-hedge-rate}") final int maxHedgeRate) {
+		return new Hedger.Settings(enabled, percentile, minDelay, maxDelay, windowSize, maxHedgeRate);
+	}
+
+	/**
+	 * Executor running hedged calls. Every call holds a slot of the bulkhead while it runs, first
+	 * calls and hedges alike, so twice the slots leaves room for threads still handing over an answer.
+	 * <br>
+	 * Nothing is queued: when every thread is busy, calls run on the caller thread unhedged.
+	 */
+	@Bean
+	public ThreadPoolTaskExecutor facadeHedgingExecutor(
+			@Value("${facade.bulkhead.max-concurrent-calls}") final int maxConcurrentCalls) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(2 * maxConcurrentCalls);
+		executor.setMaxPoolSize(2 * maxConcurrentCalls);
+		executor.setQueueCapacity(0);
+		executor.setAllowCoreThreadTimeOut(true);
+		executor.setThreadNamePrefix("hedging-");
+
+		return executor;
+	}
+
+	/**
+	 * Hedging of the user API, whose latencies are tracked apart from the team API.
+	 */
+	@Bean
+	public Hedger userHedger(Hedger.Settings facadeHedgingSettings, ThreadPoolTaskExecutor facadeHedgingExecutor, MeterRegistry meterRegistry) {
+		return new Hedger("User API", facadeHedgingSettings, facadeHedgingExecutor, meterRegistry);
+	}
+
+	@Bean
+	public Hedger teamHedger(Hedger.Settings facadeHedgingSettings, ThreadPoolTaskExecutor facadeHedgingExecutor, MeterRegistry meterRegistry) {
+		return new Hedger("Team API", facadeHedgingSettings, facadeHedgingExecutor, meterRegistry);
+	}
+
+	/*
+	 * A client error is an answer of a healthy API, and an exceeded deadline is the budget of
+	 * a single request running out. Anything else (server errors, timeouts, refused connections)
+	 * counts against the circuit.
+	 */
+	private static boolean isUpstreamFailure(RuntimeException exception) {
+		return !(exception instanceof HttpClientErrorException) && !(exception instanceof DeadlineExceededException);
+	}
+
+}
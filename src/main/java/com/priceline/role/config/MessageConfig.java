@@ -1,5 +1,6 @@
 package com.priceline.role.config;
 
+import java.util.List;
 import java.util.Locale;
 
 import org.springframework.context.annotation.Bean;
@@ -8,12 +9,19 @@ import org.springframework.context.support.ResourceBundleMessageSource;
 
 @Configuration
 public class MessageConfig {
+
+	public static final Locale DEFAULT_LOCALE = Locale.ENGLISH;
+
+	/*
+	 * One entry per messages file, messages.properties being the default
+	 */
+	public static final List<Locale> SUPPORTED_LOCALES = List.of(DEFAULT_LOCALE, Locale.forLanguageTag("pt"));
 	
 	@Bean
     public ResourceBundleMessageSource messageSource() {
         ResourceBundleMessageSource source = new ResourceBundleMessageSource();
         source.setBasename("internationalization/messages");
-        source.setDefaultLocale(Locale.ENGLISH);
+        source.setDefaultLocale(DEFAULT_LOCALE);
         source.setDefaultEncoding("UTF-8");
 
         return source;
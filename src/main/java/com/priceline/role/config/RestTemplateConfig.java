@@ -0,0 +1,126 @@
+package com.priceline.role.config;
+
+import java.time.Duration;
+
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import com.priceline.role.model.deadline.Deadline;
+import com.priceline.role.model.deadline.DeadlineContextHolder;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class RestTemplateConfig {
+
+	/**
+	 * Connection pool shared by all calls to the external APIs.
+	 * <br>
+	 * Pool usage is published as <code>facade.http.pool.*</code> gauges.
+	 */
+	@Bean(destroyMethod = "close")
+	public PoolingHttpClientConnectionManager facadeConnectionManager(MeterRegistry meterRegistry,
+			@Value("${facade.http.max-connections}") final int maxConnections,
+			@Value("${facade.http.max-connections-per-route}") final int maxConnectionsPerRoute,
+			@Value("${facade.http.read-timeout}") final Duration readTimeout) {
+		PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+				.setMaxConnTotal(maxConnections)
+				.setMaxConnPerRoute(maxConnectionsPerRoute)
+				.setDefaultSocketConfig(SocketConfig.custom().setSoTimeout(Timeout.ofMilliseconds(readTimeout.toMillis())).build())
+				.build();
+
+		Gauge.builder("facade.http.pool.leased", connectionManager, manager -> manager.getTotalStats().getLeased())
+			.description("Connections currently in use").register(meterRegistry);
+		Gauge.builder("facade.http.pool.available", connectionManager, manager -> manager.getTotalStats().getAvailable())
+			.description("Idle connections kept alive in the pool").register(meterRegistry);
+		Gauge.builder("facade.http.pool.pending", connectionManager, manager -> manager.getTotalStats().getPending())
+			.description("Requests waiting for a connection").register(meterRegistry);
+		Gauge.builder("facade.http.pool.max", connectionManager, manager -> manager.getTotalStats().getMax())
+			.description("Maximum number of connections").register(meterRegistry);
+
+		return connectionManager;
+	}
+
+	@Bean
+	public RequestConfig facadeRequestConfig(
+			@Value("${facade.http.connect-timeout}") final Duration connectTimeout,
+			@Value("${facade.http.connection-request-timeout}") final Duration connectionRequestTimeout,
+			@Value("${facade.http.response-timeout}") final Duration responseTimeout) {
+		return RequestConfig.custom()
+				.setConnectTimeout(Timeout.ofMilliseconds(connectTimeout.toMillis()))
+				.setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeout.toMillis()))
+				.setResponseTimeout(Timeout.ofMilliseconds(responseTimeout.toMillis()))
+				.build();
+	}
+
+	@Bean(destroyMethod = "close")
+	public CloseableHttpClient facadeHttpClient(PoolingHttpClientConnectionManager facadeConnectionManager, RequestConfig facadeRequestConfig,
+			@Value("${facade.http.keep-alive}") final Duration keepAlive,
+			@Value("${facade.http.idle-eviction}") final Duration idleEviction) {
+		// honour a shorter keep-alive announced by the server, but never keep connections longer than configured
+		final TimeValue maxKeepAlive = TimeValue.ofMilliseconds(keepAlive.toMillis());
+
+		return HttpClients.custom()
+				.setConnectionManager(facadeConnectionManager)
+				.setDefaultRequestConfig(facadeRequestConfig)
+				.setKeepAliveStrategy((response, context) -> {
+					TimeValue keepAliveDuration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+					return keepAliveDuration.compareTo(maxKeepAlive) < 0 ? keepAliveDuration : maxKeepAlive;
+				})
+				.evictExpiredConnections()
+				.evictIdleConnections(TimeValue.ofMilliseconds(idleEviction.toMillis()))
+				.build();
+	}
+
+	/**
+	 * Client of the external APIs.
+	 * <br>
+	 * Calls made under a request deadline never wait longer than the time left, so a client
+	 * giving up early does not leave a call running for the configured timeouts.
+	 */
+	@Bean
+	public RestTemplate restTemplate(CloseableHttpClient facadeHttpClient, RequestConfig facadeRequestConfig) {
+		HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(facadeHttpClient);
+		requestFactory.setHttpContextFactory((method, uri) -> {
+			Deadline deadline = DeadlineContextHolder.get();
+			if(deadline == null) {
+				// the default request config of the client applies
+				return null;
+			}
+
+			HttpClientContext context = HttpClientContext.create();
+			context.setRequestConfig(boundedBy(facadeRequestConfig, deadline));
+
+			return context;
+		});
+
+		return new RestTemplate(requestFactory);
+	}
+
+	private static RequestConfig boundedBy(RequestConfig requestConfig, Deadline deadline) {
+		return RequestConfig.copy(requestConfig)
+				.setConnectTimeout(bounded(requestConfig.getConnectTimeout(), deadline))
+				.setConnectionRequestTimeout(bounded(requestConfig.getConnectionRequestTimeout(), deadline))
+				.setResponseTimeout(bounded(requestConfig.getResponseTimeout(), deadline))
+				.build();
+	}
+
+	private static Timeout bounded(Timeout timeout, Deadline deadline) {
+		return Timeout.ofMilliseconds(deadline.boundMillis(Duration.ofMillis(timeout.toMilliseconds())));
+	}
+
+}
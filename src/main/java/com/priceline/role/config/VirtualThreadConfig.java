@@ -0,0 +1,68 @@
+package com.priceline.role.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Opt-in execution of requests and membership validation lookups on virtual threads,
+ * enabled by <code>spring.threads.virtual.enabled=true</code> on a Java 21 runtime.
+ * <br>
+ * The property mirrors the one of later Spring Boot versions. The code still compiles
+ * for Java 17, where the application keeps the platform thread pools, so the virtual
+ * thread executor is looked up at runtime and startup fails on an older JVM.
+ * <br>
+ * Virtual threads remove the thread pool as a bound on concurrency, so the other limits
+ * become the effective ones: the JDBC pool (<code>spring.datasource.hikari.*</code>) for
+ * MySQL, and the connection pool of the facade (<code>facade.http.*</code>) for the
+ * external APIs.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+	private static final int MIN_JAVA_VERSION = 21;
+
+	@Bean(destroyMethod = "close")
+	public ExecutorService virtualThreadExecutor() {
+		return newVirtualThreadPerTaskExecutor();
+	}
+
+	/**
+	 * Tomcat hands each request to a new virtual thread instead of its worker pool.
+	 */
+	@Bean
+	public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(ExecutorService virtualThreadExecutor) {
+		return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+	}
+
+	/**
+	 * Replaces the bounded pool of {@link ExecutorConfig}: lookups block on the facade,
+	 * whose connection pool already bounds the calls to the external APIs.
+	 */
+	@Bean
+	public ExecutorService validationExecutor(ExecutorService virtualThreadExecutor) {
+		return virtualThreadExecutor;
+	}
+
+	/**
+	 * @return an executor starting a new virtual thread for each task.
+	 * @throws IllegalStateException if the runtime does not support virtual threads.
+	 */
+	public static ExecutorService newVirtualThreadPerTaskExecutor() {
+		if(Runtime.version().feature() < MIN_JAVA_VERSION) {
+			throw new IllegalStateException("Virtual threads require Java " + MIN_JAVA_VERSION + " or later, running on Java " + Runtime.version());
+		}
+
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException exception) {
+			throw new IllegalStateException("Virtual thread executor is not available", exception);
+		}
+	}
+
+}
@@ -7,5 +7,17 @@ public class DatabaseConstants {
      */
     public static final String TABLE_ROLE = "role";
     public static final String TABLE_MEMBERSHIP = "membership";
+    public static final String TABLE_ID_GENERATOR = "id_generator";
+
+    /*
+    Unique keys
+     */
+    public static final String UK_MEMBERSHIP_USER_TEAM_ROLE = "UK_membership_userTeamRole";
+
+    /*
+    Fetch size of streaming queries, Integer.MIN_VALUE makes MySQL Connector/J read rows one
+    by one from the result set instead of buffering it, for that statement only
+     */
+    public static final String STREAM_FETCH_SIZE = "" + Integer.MIN_VALUE;
 
 }
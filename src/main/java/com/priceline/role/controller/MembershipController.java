@@ -1,8 +1,16 @@
 package com.priceline.role.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -12,16 +20,26 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.priceline.role.controller.restfull.annotation.ApiErrorResponses;
 import com.priceline.role.controller.restfull.assembler.MembershipModelAssembler;
 import com.priceline.role.controller.restfull.assembler.RoleModelAssembler;
+import com.priceline.role.dto.MembershipBatchResultDTO;
+import com.priceline.role.dto.MembershipCompactDTO;
 import com.priceline.role.dto.MembershipDTO;
 import com.priceline.role.model.Membership;
 import com.priceline.role.model.Role;
+import com.priceline.role.model.error.PricelineApiError;
 import com.priceline.role.model.exception.PricelineApiException;
+import com.priceline.role.model.page.KeysetPage;
 import com.priceline.role.service.MembershipService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -31,23 +49,34 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 @RequestMapping("/api/v1/membership")
 @Tag(name = "Membership", description = "Endpoints to work with memberships")
 public class MembershipController {
 	
+	public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+	
+	/**
+	 * Link-free representation of the bulk listings, negotiated through the <code>Accept</code> header.
+	 */
+	public static final String APPLICATION_COMPACT_JSON_VALUE = "application/vnd.priceline.compact+json";
+	
     private final MembershipService membershipService;
 
     private final MembershipModelAssembler assembler;
 
     private final RoleModelAssembler roleAssembler;
     
+    private final ObjectMapper objectMapper;
+    
     public MembershipController(MembershipService membershipService,
-    		MembershipModelAssembler assembler, RoleModelAssembler roleAssembler) {
+    		MembershipModelAssembler assembler, RoleModelAssembler roleAssembler, ObjectMapper objectMapper) {
     	this.membershipService = membershipService;
     	this.assembler = assembler;
     	this.roleAssembler = roleAssembler;
+    	this.objectMapper = objectMapper;
     }
 
     @Operation(summary = "Get membership by id")
@@ -62,17 +91,91 @@ public class MembershipController {
         return ResponseEntity.status(HttpStatus.OK).body(entityModel);
     }
 
-    @Operation(summary = "List all memberships")
+    @Operation(summary = "List memberships", description = "Lists memberships one page at a time, ordered by creation. "
+    		+ "Other pages are reached through the next and prev links. The unpaged listing loads every membership at once and should be avoided on large datasets")
     @ApiResponse(responseCode = "200", description = "Membership list retrieved", content = {
         @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = Membership.class)))})
     @ApiErrorResponses
     @GetMapping("/all")
-    public ResponseEntity<?> findAll() throws PricelineApiException {
-        CollectionModel<EntityModel<Membership>> collectionModel = assembler.toCollectionModel(membershipService.findAll());
+    public ResponseEntity<?> findAll(
+    		@Parameter(description = "The cursor of the page, taken from the next or prev link") @RequestParam(required = false) String cursor,
+    		@Parameter(description = "The page size") @RequestParam(required = false) Integer size,
+    		@Parameter(description = "Whether all memberships should be listed at once") @RequestParam(required = false) Boolean unpaged) throws PricelineApiException {
+        if(Boolean.TRUE.equals(unpaged)) {
+            return ResponseEntity.status(HttpStatus.OK).body(assembler.toCollectionModel(membershipService.findAll()));
+        }
+
+        CollectionModel<EntityModel<Membership>> collectionModel = assembler.toCollectionModel(membershipService.findPage(cursor, size), cursor, size);
 
         return ResponseEntity.status(HttpStatus.OK).body(collectionModel);
     }
     
+    @Operation(summary = "List memberships in compact form", description = "Lists memberships as a flat array, with the role reduced to its id and name. "
+    		+ "Other pages are reached through the next and prev links of the Link header")
+    @ApiResponse(responseCode = "200", description = "Membership list retrieved", content = {
+        @Content(mediaType = APPLICATION_COMPACT_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = MembershipCompactDTO.class)))})
+    @ApiErrorResponses
+    @GetMapping(value = "/all", produces = APPLICATION_COMPACT_JSON_VALUE)
+    public ResponseEntity<List<MembershipCompactDTO>> findAllCompact(
+    		@Parameter(description = "The cursor of the page, taken from the next or prev link") @RequestParam(required = false) String cursor,
+    		@Parameter(description = "The page size") @RequestParam(required = false) Integer size,
+    		@Parameter(description = "Whether all memberships should be listed at once") @RequestParam(required = false) Boolean unpaged) throws PricelineApiException {
+        if(Boolean.TRUE.equals(unpaged)) {
+            return ResponseEntity.status(HttpStatus.OK).body(toCompact(membershipService.findAll()));
+        }
+
+        KeysetPage<Membership> page = membershipService.findPage(cursor, size);
+
+        return ResponseEntity.status(HttpStatus.OK)
+        		.header(HttpHeaders.LINK, assembler.toPageLinks(page, cursor, size).toString())
+        		.body(toCompact(page.getContent()));
+    }
+    
+    @Operation(summary = "Export all memberships", description = "Streams every membership as newline-delimited JSON, one membership per line. "
+    		+ "An export failing once memberships were sent ends with a line holding only an error, instead of a membership")
+    @ApiResponse(responseCode = "200", description = "Memberships exported", content = {
+        @Content(mediaType = APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = Membership.class))})
+    @ApiErrorResponses
+    @GetMapping("/export")
+    public void export(WebRequest request, HttpServletResponse response) throws PricelineApiException, IOException {
+    	// write each membership as it is read, letting the servlet container flush its buffer when full
+    	ObjectWriter writer = objectMapper.writerFor(Membership.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    	
+    	// started with the first membership, so that an export failing before it gets its own status
+    	AtomicReference<JsonGenerator> generator = new AtomicReference<>();
+    	
+    	try {
+    		membershipService.exportAll(membership -> {
+    			try {
+    				if(generator.get() == null) {
+    					generator.set(startExport(response));
+    				}
+    				
+    				writer.writeValue(generator.get(), membership);
+    				generator.get().writeRaw('\n');
+    			} catch (IOException exception) {
+    				throw new UncheckedIOException(exception);
+    			}
+    		});
+    		
+    		if(generator.get() == null) {
+    			generator.set(startExport(response));
+    		}
+    	} catch (PricelineApiException exception) {
+    		if(generator.get() == null) {
+    			throw exception;
+    		}
+    		
+    		// the status was already sent, so the failure is reported as the last line for clients to detect an incomplete export
+    		objectMapper.writeValue(generator.get(), Map.of("error", new PricelineApiError(exception, request)));
+    		generator.get().writeRaw('\n');
+    	} finally {
+    		if(generator.get() != null) {
+    			generator.get().close();
+    		}
+    	}
+    }
+    
     @Operation(summary = "Get role by membership")
     @ApiResponse(responseCode = "200", description = "Role was found",
             content = { @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation =  Role.class)) })
@@ -85,18 +188,49 @@ public class MembershipController {
         return ResponseEntity.status(HttpStatus.OK).body(entityModel);
     }
     
-    @Operation(summary = "List memberships of role")
+    @Operation(summary = "List memberships of role", description = "Lists the memberships of a role one page at a time, ordered by creation. "
+    		+ "Other pages are reached through the next and prev links. The unpaged listing loads every membership of the role at once and should be avoided on large roles")
     @ApiResponse(responseCode = "200", description = "Membership list retrieved", content = {
         @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = Membership.class)))})
     @ApiErrorResponses
     @GetMapping("/by-role/{roleUid}")
     public ResponseEntity<?> findMembershipsOfRole(
-    		@Parameter(description = "The role id") @PathVariable String roleUid) throws PricelineApiException {
-        CollectionModel<EntityModel<Membership>> collectionModel = assembler.toCollectionModel(membershipService.findMembershipsOfRole(roleUid));
+    		@Parameter(description = "The role id") @PathVariable String roleUid,
+    		@Parameter(description = "The cursor of the page, taken from the next or prev link") @RequestParam(required = false) String cursor,
+    		@Parameter(description = "The page size") @RequestParam(required = false) Integer size,
+    		@Parameter(description = "Whether all memberships of the role should be listed at once") @RequestParam(required = false) Boolean unpaged) throws PricelineApiException {
+        if(Boolean.TRUE.equals(unpaged)) {
+            return ResponseEntity.status(HttpStatus.OK).body(assembler.toCollectionModel(membershipService.findMembershipsOfRole(roleUid)));
+        }
+
+        CollectionModel<EntityModel<Membership>> collectionModel = assembler.toCollectionModelOfRole(roleUid,
+        		membershipService.findMembershipsOfRole(roleUid, cursor, size), cursor, size);
 
         return ResponseEntity.status(HttpStatus.OK).body(collectionModel);
     }
 
+    @Operation(summary = "List memberships of role in compact form", description = "Lists the memberships of a role as a flat array, with the role reduced to its id and name. "
+    		+ "Other pages are reached through the next and prev links of the Link header")
+    @ApiResponse(responseCode = "200", description = "Membership list retrieved", content = {
+        @Content(mediaType = APPLICATION_COMPACT_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = MembershipCompactDTO.class)))})
+    @ApiErrorResponses
+    @GetMapping(value = "/by-role/{roleUid}", produces = APPLICATION_COMPACT_JSON_VALUE)
+    public ResponseEntity<List<MembershipCompactDTO>> findMembershipsOfRoleCompact(
+    		@Parameter(description = "The role id") @PathVariable String roleUid,
+    		@Parameter(description = "The cursor of the page, taken from the next or prev link") @RequestParam(required = false) String cursor,
+    		@Parameter(description = "The page size") @RequestParam(required = false) Integer size,
+    		@Parameter(description = "Whether all memberships of the role should be listed at once") @RequestParam(required = false) Boolean unpaged) throws PricelineApiException {
+        if(Boolean.TRUE.equals(unpaged)) {
+            return ResponseEntity.status(HttpStatus.OK).body(toCompact(membershipService.findMembershipsOfRole(roleUid)));
+        }
+
+        KeysetPage<Membership> page = membershipService.findMembershipsOfRole(roleUid, cursor, size);
+
+        return ResponseEntity.status(HttpStatus.OK)
+        		.header(HttpHeaders.LINK, assembler.toPageLinksOfRole(roleUid, page, cursor, size).toString())
+        		.body(toCompact(page.getContent()));
+    }
+
     @PostMapping
     @Operation(summary = "Add membership")
     @ApiResponse(responseCode = "201", description = "Created", content = {
@@ -111,6 +245,17 @@ public class MembershipController {
           .body(entityModel);
     }
     
+    @PostMapping("/batch")
+    @Operation(summary = "Add memberships in batch", description = "Each item is validated on its own, so valid items are created even when others are rejected")
+    @ApiResponse(responseCode = "200", description = "Batch processed, see the result of each item", content = {
+            @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = MembershipBatchResultDTO.class)))})
+    @ApiErrorResponses
+    public ResponseEntity<?> createAll(@RequestBody List<MembershipDTO> membershipDTOs) throws PricelineApiException {
+    	List<MembershipBatchResultDTO> results = membershipService.saveAll(membershipDTOs);
+
+    	return ResponseEntity.status(HttpStatus.OK).body(results);
+    }
+    
     @DeleteMapping("/{uid}")
     @Operation(summary = "Delete membership")
     @ApiResponse(responseCode = "204", description = "Deleted")
@@ -122,5 +267,22 @@ public class MembershipController {
       return ResponseEntity.noContent().build();
 
     }
+    
+    private JsonGenerator startExport(HttpServletResponse response) throws IOException {
+    	response.setStatus(HttpStatus.OK.value());
+    	response.setContentType(APPLICATION_NDJSON_VALUE);
+    	response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"memberships.ndjson\"");
+    	
+    	JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream());
+    	
+    	// lines are delimited explicitly, instead of the default space between root values
+    	generator.setRootValueSeparator(null);
+    	
+    	return generator;
+    }
+    
+    private List<MembershipCompactDTO> toCompact(List<Membership> memberships) {
+    	return memberships.stream().map(MembershipCompactDTO::of).collect(Collectors.toList());
+    }
 
 }
@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -57,13 +58,21 @@ public class RoleController {
         return ResponseEntity.status(HttpStatus.OK).body(entityModel);
     }
   
-    @Operation(summary = "List all roles")
+    @Operation(summary = "List roles", description = "Lists roles one page at a time, ordered by creation. "
+    		+ "Other pages are reached through the next and prev links. The unpaged listing loads every role at once and should be avoided on large datasets")
     @ApiResponse(responseCode = "200", description = "Role list retrieved", content = {
         @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = Role.class)))})
     @ApiErrorResponses
     @GetMapping("/all")
-    public ResponseEntity<?> findAll() throws PricelineApiException {
-        CollectionModel<EntityModel<Role>> collectionModel = assembler.toCollectionModel(roleService.findAll());
+    public ResponseEntity<?> findAll(
+    		@Parameter(description = "The cursor of the page, taken from the next or prev link") @RequestParam(required = false) String cursor,
+    		@Parameter(description = "The page size") @RequestParam(required = false) Integer size,
+    		@Parameter(description = "Whether all roles should be listed at once") @RequestParam(required = false) Boolean unpaged) throws PricelineApiException {
+        if(Boolean.TRUE.equals(unpaged)) {
+            return ResponseEntity.status(HttpStatus.OK).body(assembler.toCollectionModel(roleService.findAll()));
+        }
+
+        CollectionModel<EntityModel<Role>> collectionModel = assembler.toCollectionModel(roleService.findPage(cursor, size), cursor, size);
 
         return ResponseEntity.status(HttpStatus.OK).body(collectionModel);
     }
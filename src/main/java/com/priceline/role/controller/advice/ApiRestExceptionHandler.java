@@ -54,7 +54,13 @@ public class ApiRestExceptionHandler extends ResponseEntityExceptionHandler {
     public ResponseEntity<Object> handleRealStateApiException(final PricelineApiException ex, final WebRequest request) {
     	PricelineApiError error = new PricelineApiError(ex, request);
 
-        return new ResponseEntity<>(error, new HttpHeaders(), error.getStatus());
+    	HttpHeaders headers = new HttpHeaders();
+    	if(ex.getRetryAfter() != null) {
+    		// delay in whole seconds, rounded up
+    		headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000)));
+    	}
+
+        return new ResponseEntity<>(error, headers, error.getStatus());
     }
 
     // Exception
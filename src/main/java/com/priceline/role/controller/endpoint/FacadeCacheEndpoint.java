@@ -0,0 +1,52 @@
+package com.priceline.role.controller.endpoint;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import com.priceline.role.facade.PricelineFacade;
+
+/**
+ * Actuator endpoint clearing what the facade remembers about users and teams.
+ * <br>
+ * Ids answered as missing are cached and rejected without a lookup for a while, so a user or
+ * team created right after may be rejected until it expires. Whoever creates it can make it
+ * visible at once with <code>DELETE /actuator/facadecache/users/{id}</code> or
+ * <code>DELETE /actuator/facadecache/teams/{id}</code>, or clear everything with
+ * <code>DELETE /actuator/facadecache</code>.
+ */
+@Component
+@Endpoint(id = "facadecache")
+public class FacadeCacheEndpoint {
+
+	private static final String USERS = "users";
+
+	private static final String TEAMS = "teams";
+
+	private final PricelineFacade pricelineFacade;
+
+	public FacadeCacheEndpoint(PricelineFacade pricelineFacade) {
+		this.pricelineFacade = pricelineFacade;
+	}
+
+	@DeleteOperation
+	public void invalidateAll() {
+		pricelineFacade.invalidateAll();
+	}
+
+	/**
+	 * @param type <code>users</code> or <code>teams</code>.
+	 * @param id the id of the user or team.
+	 */
+	@DeleteOperation
+	public void invalidate(@Selector String type, @Selector String id) {
+		switch(type) {
+			case USERS -> pricelineFacade.invalidateUser(id);
+			case TEAMS -> pricelineFacade.invalidateTeam(id);
+			default -> throw new InvalidEndpointRequestException("Unknown cache '" + type + "'", "Unknown cache, expected users or teams");
+		}
+	}
+
+}
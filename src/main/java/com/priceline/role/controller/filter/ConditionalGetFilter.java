@@ -0,0 +1,191 @@
+package com.priceline.role.controller.filter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.priceline.role.service.catalog.ChangeVersions;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Strong ETags and conditional GET for the role and membership reads.
+ * <br>
+ * The ETag is built from the table versions of {@link ChangeVersions}, shared by every instance,
+ * and the requested representation, never from the body, so a matching <code>If-None-Match</code> is answered
+ * with 304 before the request reaches a controller: nothing is read from the database nor
+ * serialized. The version is taken before the request is handled, so a write racing with the
+ * read can only make the ETag older and cause a later refetch.
+ * <br>
+ * Tomcat does not compress responses carrying a strong ETag, so tagged bodies larger than
+ * <code>server.compression.min-response-size</code> are compressed here, under an ETag of their
+ * own as required for a different content coding. The streamed export is left untouched.
+ */
+@Component
+public class ConditionalGetFilter extends OncePerRequestFilter {
+
+	private static final String ROLE_PATH = "/api/v1/role";
+
+	private static final String MEMBERSHIP_PATH = "/api/v1/membership";
+
+	private static final String EXPORT_PATH = MEMBERSHIP_PATH + "/export";
+
+	private static final String GZIP = "gzip";
+
+	private final ChangeVersions changeVersions;
+
+	private final int minCompressionSize;
+
+	public ConditionalGetFilter(ChangeVersions changeVersions,
+			@Value("${server.compression.min-response-size}") final DataSize minCompressionSize) {
+		this.changeVersions = changeVersions;
+		this.minCompressionSize = (int) minCompressionSize.toBytes();
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		String method = request.getMethod();
+		if(!HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method)) {
+			return true;
+		}
+
+		String path = path(request);
+
+		return !(isUnder(path, MEMBERSHIP_PATH) || isUnder(path, ROLE_PATH)) || path.startsWith(EXPORT_PATH);
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		final String version = versionOf(path(request));
+		if(version == null) {
+			// not read from the database yet, served without ETag
+			filterChain.doFilter(request, response);
+			return;
+		}
+
+		final String tag = tag(request, version);
+		final boolean acceptsGzip = acceptsGzip(request);
+
+		// the representation depends on both headers
+		response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+
+		String matched = matchingTag(request, tag, acceptsGzip);
+		if(matched != null) {
+			response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			response.setHeader(HttpHeaders.ETAG, matched);
+			return;
+		}
+
+		ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+		filterChain.doFilter(request, wrapper);
+
+		if(wrapper.getStatus() != HttpServletResponse.SC_OK) {
+			wrapper.copyBodyToResponse();
+			return;
+		}
+
+		byte[] body = wrapper.getContentAsByteArray();
+		if(!acceptsGzip || body.length < minCompressionSize) {
+			response.setHeader(HttpHeaders.ETAG, quote(tag));
+			wrapper.copyBodyToResponse();
+			return;
+		}
+
+		byte[] compressed = gzip(body);
+		response.setHeader(HttpHeaders.ETAG, quote(tag + "-" + GZIP));
+		response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+		response.setContentLength(compressed.length);
+		response.getOutputStream().write(compressed);
+	}
+
+	private static String tag(HttpServletRequest request, String version) {
+		String accept = request.getHeader(HttpHeaders.ACCEPT);
+		String variant = accept == null ? "" : Integer.toHexString(accept.trim().toLowerCase(Locale.ROOT).hashCode());
+
+		return version + "." + variant;
+	}
+
+	private String versionOf(String path) {
+		if(isUnder(path, MEMBERSHIP_PATH)) {
+			return changeVersions.membershipToken();
+		}
+
+		return changeVersions.roleToken();
+	}
+
+	/*
+	 * With gzip accepted, the client holds whichever ETag it was given, and the same data is
+	 * always compressed or not alike, so both tags identify the current representation.
+	 */
+	private String matchingTag(HttpServletRequest request, String tag, boolean acceptsGzip) {
+		String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+		if(ifNoneMatch == null) {
+			return null;
+		}
+
+		for(String candidate : ifNoneMatch.split(",")) {
+			candidate = candidate.trim();
+			if(candidate.startsWith("W/")) {
+				// If-None-Match uses the weak comparison
+				candidate = candidate.substring(2);
+			}
+
+			if(candidate.equals(quote(tag))) {
+				return candidate;
+			}
+
+			if(acceptsGzip && candidate.equals(quote(tag + "-" + GZIP))) {
+				return candidate;
+			}
+		}
+
+		return null;
+	}
+
+	private static boolean acceptsGzip(HttpServletRequest request) {
+		String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+		if(acceptEncoding == null) {
+			return false;
+		}
+
+		return Arrays.stream(acceptEncoding.split(","))
+				.map(coding -> coding.trim().toLowerCase(Locale.ROOT))
+				.anyMatch(coding -> coding.equals(GZIP) || (coding.startsWith(GZIP + ";") && !coding.replace(" ", "").endsWith("q=0")));
+	}
+
+	private static boolean isUnder(String path, String basePath) {
+		return path.equals(basePath) || path.startsWith(basePath + "/");
+	}
+
+	private static String path(HttpServletRequest request) {
+		return request.getRequestURI().substring(request.getContextPath().length());
+	}
+
+	private static String quote(String tag) {
+		return "\"" + tag + "\"";
+	}
+
+	private static byte[] gzip(byte[] body) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream(body.length / 4);
+		try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+			gzip.write(body);
+		}
+
+		return output.toByteArray();
+	}
+
+}
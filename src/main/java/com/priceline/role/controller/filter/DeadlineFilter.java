@@ -0,0 +1,87 @@
+package com.priceline.role.controller.filter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.priceline.role.model.deadline.Deadline;
+import com.priceline.role.model.deadline.DeadlineContextHolder;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Starts the {@link Deadline} of each API request.
+ * <br>
+ * Clients that give up early announce their budget in milliseconds with the
+ * <code>X-Request-Timeout</code> header, bounded by <code>request.deadline.max-timeout</code>.
+ * Without it, or with an invalid value, <code>request.deadline.default-timeout</code> applies.
+ * The deadline is started before anything else runs, and the streamed export, which is
+ * expected to run for as long as the table requires, has none.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DeadlineFilter extends OncePerRequestFilter {
+
+	public static final String REQUEST_TIMEOUT_HEADER = "X-Request-Timeout";
+
+	private static final String API_PATH = "/api/";
+
+	private static final String EXPORT_PATH = "/api/v1/membership/export";
+
+	private final Duration defaultTimeout;
+
+	private final Duration maxTimeout;
+
+	public DeadlineFilter(@Value("${request.deadline.default-timeout}") final Duration defaultTimeout,
+			@Value("${request.deadline.max-timeout}") final Duration maxTimeout) {
+		this.defaultTimeout = defaultTimeout;
+		this.maxTimeout = maxTimeout;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		String path = request.getRequestURI().substring(request.getContextPath().length());
+
+		return !path.startsWith(API_PATH) || path.startsWith(EXPORT_PATH);
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		DeadlineContextHolder.set(Deadline.after(timeout(request)));
+
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			DeadlineContextHolder.reset();
+		}
+	}
+
+	private Duration timeout(HttpServletRequest request) {
+		String header = request.getHeader(REQUEST_TIMEOUT_HEADER);
+		if(header == null) {
+			return defaultTimeout;
+		}
+
+		try {
+			long millis = Long.parseLong(header.trim());
+			if(millis <= 0) {
+				return defaultTimeout;
+			}
+
+			Duration timeout = Duration.ofMillis(millis);
+			return timeout.compareTo(maxTimeout) > 0 ? maxTimeout : timeout;
+		} catch (NumberFormatException exception) {
+			return defaultTimeout;
+		}
+	}
+
+}
@@ -0,0 +1,45 @@
+package com.priceline.role.controller.restfull.assembler;
+
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+
+/**
+ * Link to an endpoint taking an entity uid, resolved once and expanded by plain string
+ * substitution.
+ * <br>
+ * Building a link with <code>linkTo(methodOn(...))</code> creates a proxy, records the
+ * invocation and rebuilds the URI from the current request, which is too costly to repeat
+ * for every element of a collection. The template is built with {@link #PLACEHOLDER} as
+ * uid and then split around it. Uids are generated as UUIDs, so they never need encoding.
+ */
+final class LinkTemplate {
+
+	static final String PLACEHOLDER = "uid-placeholder";
+
+	private final String prefix;
+
+	private final String suffix;
+
+	private final LinkRelation relation;
+
+	private LinkTemplate(String href, LinkRelation relation) {
+		int index = href.indexOf(PLACEHOLDER);
+		this.prefix = href.substring(0, index);
+		this.suffix = href.substring(index + PLACEHOLDER.length());
+		this.relation = relation;
+	}
+
+	/**
+	 * @param linkBuilder the link to the endpoint, invoked with {@link #PLACEHOLDER} as uid.
+	 * @param relation the relation of the expanded links.
+	 */
+	static LinkTemplate of(WebMvcLinkBuilder linkBuilder, LinkRelation relation) {
+		return new LinkTemplate(linkBuilder.toUri().toString(), relation);
+	}
+
+	Link expand(String uid) {
+		return Link.of(prefix + uid + suffix, relation);
+	}
+
+}
@@ -3,36 +3,102 @@ package com.priceline.role.controller.restfull.assembler;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.Links;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
 
 import com.priceline.role.controller.MembershipController;
 import com.priceline.role.model.Membership;
+import com.priceline.role.model.page.KeysetPage;
 
 import lombok.SneakyThrows;
 
 @Component
 public class MembershipModelAssembler implements RepresentationModelAssembler<Membership, EntityModel<Membership>> {
 
-    @SneakyThrows
     @Override
     public EntityModel<Membership> toModel(Membership membership) {
-        return EntityModel.of(membership,
-            linkTo(methodOn(MembershipController.class).findByUid(membership.getUid())).withSelfRel(),
-            linkTo(methodOn(MembershipController.class).findAll()).withRel("memberships")
-        );
+        return toModel(membership, resolveLinks());
     }
 
     @SneakyThrows
     public CollectionModel<EntityModel<Membership>> toCollectionModel(List<Membership> membershipList) {
-        List<EntityModel<Membership>> entityModelList = membershipList.stream()
-                .map(this::toModel).collect(Collectors.toList());
+        return CollectionModel.of(toModels(membershipList), linkTo(methodOn(MembershipController.class).findAll(null, null, true)).withSelfRel());
+    }
+
+    @SneakyThrows
+    public CollectionModel<EntityModel<Membership>> toCollectionModel(KeysetPage<Membership> page, String cursor, Integer size) {
+        return toCollectionModel(page, cursor, pageCursor -> methodOn(MembershipController.class).findAll(pageCursor, size, null));
+    }
 
-        return CollectionModel.of(entityModelList, linkTo(methodOn(MembershipController.class).findAll()).withSelfRel());
+    @SneakyThrows
+    public CollectionModel<EntityModel<Membership>> toCollectionModelOfRole(String roleUid, KeysetPage<Membership> page, String cursor, Integer size) {
+        return toCollectionModel(page, cursor,
+                pageCursor -> methodOn(MembershipController.class).findMembershipsOfRole(roleUid, pageCursor, size, null));
     }
+
+    /**
+     * Builds the self, next and prev links of a page, without wrapping its content.
+     */
+    public Links toPageLinks(KeysetPage<Membership> page, String cursor, Integer size) {
+        return toPageLinks(page, cursor, pageCursor -> methodOn(MembershipController.class).findAll(pageCursor, size, null));
+    }
+
+    public Links toPageLinksOfRole(String roleUid, KeysetPage<Membership> page, String cursor, Integer size) {
+        return toPageLinks(page, cursor, pageCursor -> methodOn(MembershipController.class).findMembershipsOfRole(roleUid, pageCursor, size, null));
+    }
+
+    /**
+     * Wraps a page with self, next and prev links, built by invoking the given endpoint with each cursor.
+     */
+    private CollectionModel<EntityModel<Membership>> toCollectionModel(KeysetPage<Membership> page, String cursor,
+            Function<String, Object> endpoint) {
+        return CollectionModel.of(toModels(page.getContent()), toPageLinks(page, cursor, endpoint));
+    }
+
+    @SneakyThrows
+    private Links toPageLinks(KeysetPage<Membership> page, String cursor, Function<String, Object> endpoint) {
+        List<Link> links = new ArrayList<>();
+        links.add(linkTo(endpoint.apply(cursor)).withSelfRel());
+
+        if(page.getNextCursor() != null) {
+            links.add(linkTo(endpoint.apply(page.getNextCursor())).withRel(IanaLinkRelations.NEXT));
+        }
+
+        if(page.getPreviousCursor() != null) {
+            links.add(linkTo(endpoint.apply(page.getPreviousCursor())).withRel(IanaLinkRelations.PREV));
+        }
+
+        return Links.of(links);
+    }
+
+    private List<EntityModel<Membership>> toModels(List<Membership> membershipList) {
+        // links are resolved once for the whole collection
+        MembershipLinks links = resolveLinks();
+
+        return membershipList.stream().map(membership -> toModel(membership, links)).collect(Collectors.toList());
+    }
+
+    private EntityModel<Membership> toModel(Membership membership, MembershipLinks links) {
+        return EntityModel.of(membership, links.self().expand(membership.getUid()), links.memberships());
+    }
+
+    @SneakyThrows
+    private MembershipLinks resolveLinks() {
+        return new MembershipLinks(
+            LinkTemplate.of(linkTo(methodOn(MembershipController.class).findByUid(LinkTemplate.PLACEHOLDER)), IanaLinkRelations.SELF),
+            linkTo(methodOn(MembershipController.class).findAll(null, null, null)).withRel("memberships")
+        );
+    }
+
+    private record MembershipLinks(LinkTemplate self, Link memberships) {}
 }
\ No newline at end of file
@@ -8,31 +8,64 @@ import java.util.stream.Collectors;
 
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
 
 import com.priceline.role.controller.RoleController;
 import com.priceline.role.model.Role;
+import com.priceline.role.model.page.KeysetPage;
 
 import lombok.SneakyThrows;
 
 @Component
 public class RoleModelAssembler implements RepresentationModelAssembler<Role, EntityModel<Role>> {
 
-    @SneakyThrows
     @Override
     public EntityModel<Role> toModel(Role role) {
-        return EntityModel.of(role,
-            linkTo(methodOn(RoleController.class).findByUid(role.getUid())).withSelfRel(),
-            linkTo(methodOn(RoleController.class).findAll()).withRel("roles")
-        );
+        return toModel(role, resolveLinks());
     }
 
     @SneakyThrows
     public CollectionModel<EntityModel<Role>> toCollectionModel(List<Role> roleList) {
-        List<EntityModel<Role>> entityModelList = roleList.stream()
-                .map(this::toModel).collect(Collectors.toList());
+        return CollectionModel.of(toModels(roleList), linkTo(methodOn(RoleController.class).findAll(null, null, true)).withSelfRel());
+    }
+
+    @SneakyThrows
+    public CollectionModel<EntityModel<Role>> toCollectionModel(KeysetPage<Role> page, String cursor, Integer size) {
+        CollectionModel<EntityModel<Role>> collectionModel = CollectionModel.of(toModels(page.getContent()),
+                linkTo(methodOn(RoleController.class).findAll(cursor, size, null)).withSelfRel());
 
-        return CollectionModel.of(entityModelList, linkTo(methodOn(RoleController.class).findAll()).withSelfRel());
+        if(page.getNextCursor() != null) {
+            collectionModel.add(linkTo(methodOn(RoleController.class).findAll(page.getNextCursor(), size, null)).withRel(IanaLinkRelations.NEXT));
+        }
+
+        if(page.getPreviousCursor() != null) {
+            collectionModel.add(linkTo(methodOn(RoleController.class).findAll(page.getPreviousCursor(), size, null)).withRel(IanaLinkRelations.PREV));
+        }
+
+        return collectionModel;
     }
+
+    private List<EntityModel<Role>> toModels(List<Role> roleList) {
+        // links are resolved once for the whole collection
+        RoleLinks links = resolveLinks();
+
+        return roleList.stream().map(role -> toModel(role, links)).collect(Collectors.toList());
+    }
+
+    private EntityModel<Role> toModel(Role role, RoleLinks links) {
+        return EntityModel.of(role, links.self().expand(role.getUid()), links.roles());
+    }
+
+    @SneakyThrows
+    private RoleLinks resolveLinks() {
+        return new RoleLinks(
+            LinkTemplate.of(linkTo(methodOn(RoleController.class).findByUid(LinkTemplate.PLACEHOLDER)), IanaLinkRelations.SELF),
+            linkTo(methodOn(RoleController.class).findAll(null, null, null)).withRel("roles")
+        );
+    }
+
+    private record RoleLinks(LinkTemplate self, Link roles) {}
 }
\ No newline at end of file
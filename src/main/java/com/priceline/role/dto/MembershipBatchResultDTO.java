@@ -0,0 +1,43 @@
+package com.priceline.role.dto;
+
+import org.springframework.http.HttpStatus;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.priceline.role.model.Membership;
+import com.priceline.role.model.error.PricelineApiError;
+import com.priceline.role.model.exception.PricelineApiException;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a single item of a membership batch.
+ * <br>
+ * Results keep the position of the item in the request, and carry either the created
+ * membership or the error that prevented its creation.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class MembershipBatchResultDTO {
+
+	private int index;
+
+	private int status;
+
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private Membership membership;
+
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private PricelineApiError error;
+
+	public static MembershipBatchResultDTO created(int index, Membership membership) {
+		return new MembershipBatchResultDTO(index, HttpStatus.CREATED.value(), membership, null);
+	}
+
+	public static MembershipBatchResultDTO rejected(int index, PricelineApiException exception) {
+		return new MembershipBatchResultDTO(index, exception.getStatus().value(), null, new PricelineApiError(exception, null));
+	}
+
+}
@@ -0,0 +1,35 @@
+package com.priceline.role.dto;
+
+import com.priceline.role.model.Membership;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Flat, link-free representation of a membership for bulk reads by machine clients.
+ * <br>
+ * The role is reduced to its id and name, and pages are linked through the
+ * <code>Link</code> response header instead of <code>_links</code> blocks.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class MembershipCompactDTO {
+
+	private String id;
+
+	private String userId;
+
+	private String teamId;
+
+	private String roleId;
+
+	private String roleName;
+
+	public static MembershipCompactDTO of(Membership membership) {
+		return new MembershipCompactDTO(membership.getUid(), membership.getUserId(), membership.getTeamId(),
+				membership.getRole().getUid(), membership.getRole().getName());
+	}
+
+}
@@ -0,0 +1,40 @@
+package com.priceline.role.dto;
+
+import com.priceline.role.model.Membership;
+import com.priceline.role.model.Role;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Membership columns read by projection queries, without the role.
+ * <br>
+ * Rows are never managed by the persistence context, so reading them keeps no snapshot
+ * for dirty checking.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class MembershipRowDTO {
+
+	private Long id;
+
+	private String uid;
+
+	private String userId;
+
+	private String teamId;
+
+	public Membership toMembership(Role role) {
+		Membership membership = new Membership();
+		membership.setId(this.id);
+		membership.setUid(this.uid);
+		membership.setUserId(this.userId);
+		membership.setTeamId(this.teamId);
+		membership.setRole(role);
+
+		return membership;
+	}
+
+}
@@ -14,17 +14,42 @@ public enum MessageEnum {
     EXCEPTION_DEFAULT_ROLE_NOT_FOUND_ERR("exception.defaultRoleNotFound.err"),
     EXCEPTION_DEFAULT_ROLE_NOT_FOUND_HELP("exception.defaultRoleNotFound.help"),
     
+    // Custom exception = Service unavailable
+    EXCEPTION_SERVICE_UNAVAILABLE_DESCRIPTION("exception.serviceUnavailable.description"),
+    EXCEPTION_SERVICE_UNAVAILABLE_ERR("exception.serviceUnavailable.err"),
+    EXCEPTION_SERVICE_UNAVAILABLE_HELP("exception.serviceUnavailable.help"),
+    
+    // Custom exception = Circuit open
+    EXCEPTION_CIRCUIT_OPEN_DESCRIPTION("exception.circuitOpen.description"),
+    EXCEPTION_CIRCUIT_OPEN_ERR("exception.circuitOpen.err"),
+    EXCEPTION_CIRCUIT_OPEN_HELP("exception.circuitOpen.help"),
+    
+    // Custom exception = Deadline exceeded
+    EXCEPTION_DEADLINE_EXCEEDED_DESCRIPTION("exception.deadlineExceeded.description"),
+    EXCEPTION_DEADLINE_EXCEEDED_ERR("exception.deadlineExceeded.err"),
+    EXCEPTION_DEADLINE_EXCEEDED_HELP("exception.deadlineExceeded.help"),
+    
+    // Custom exception = Lookup timeout
+    EXCEPTION_LOOKUP_TIMEOUT_DESCRIPTION("exception.lookupTimeout.description"),
+    EXCEPTION_LOOKUP_TIMEOUT_ERR("exception.lookupTimeout.err"),
+    EXCEPTION_LOOKUP_TIMEOUT_HELP("exception.lookupTimeout.help"),
+    
     // Membership
     MEMBERSHIP_ERROR_FIND_ALL_HELP("membership.error.findAll.help"),
     MEMBERSHIP_ERROR_FIND_BY_ID_HELP("membership.error.findById.help"),
     MEMBERSHIP_ERROR_FIND_MEMBERSHIPS_OF_ROLE_HELP("membership.error.findMembershipsOfRole.help"),
     MEMBERSHIP_ERROR_FIND_ROLE_OF_MEMBERSHIP_HELP("membership.error.findRoleOfMembership.help"),
 	MEMBERSHIP_ERROR_DELETE_HELP("membership.error.delete.help"),
+	MEMBERSHIP_ERROR_VALIDATE_HELP("membership.error.validate.help"),
+	MEMBERSHIP_ERROR_SAVE_HELP("membership.error.save.help"),
+	MEMBERSHIP_ERROR_SAVE_ALL_HELP("membership.error.saveAll.help"),
+	MEMBERSHIP_ERROR_EXPORT_HELP("membership.error.export.help"),
     
 	// Role
     ROLE_ERROR_FIND_ALL_HELP("role.error.findAll.help"),
 	ROLE_ERROR_FIND_BY_ID_HELP("role.error.findById.help"),
 	ROLE_ERROR_FIND_DEFAULT_HELP("role.error.findDefault.help"),
+	ROLE_ERROR_UPDATE_DEFAULT_HELP("role.error.updateDefault.help"),
     ROLE_ERROR_DELETE_HELP("role.error.delete.help"),
     
     // Team API
@@ -47,7 +72,17 @@ public enum MessageEnum {
     // Validation failure - String max length
 	VALIDATION_FAILURE_STRING_MAX_LENGTH_ERR("validation.failure.stringMaxLenght.err"),
 	
-	VALIDATION_FAILURE_UNIQUENESS_ERR("validation.failure.uniqueness.err"),;
+	VALIDATION_FAILURE_UNIQUENESS_ERR("validation.failure.uniqueness.err"),
+	
+	// Validation failure - Team member
+	VALIDATION_FAILURE_TEAM_MEMBER_ERR("validation.failure.teamMember.err"),
+	
+	// Validation failure - Batch size
+	VALIDATION_FAILURE_BATCH_SIZE_ERR("validation.failure.batchSize.err"),
+	
+	// Validation failure - Pagination
+	VALIDATION_FAILURE_PAGE_SIZE_ERR("validation.failure.pageSize.err"),
+	VALIDATION_FAILURE_CURSOR_ERR("validation.failure.cursor.err"),;
 	
 	@Getter
     private final String code;
@@ -1,60 +1,239 @@
 package com.priceline.role.facade;
 
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
 import com.priceline.role.dto.TeamDTO;
 import com.priceline.role.dto.UserDTO;
 import com.priceline.role.enums.MessageEnum;
+import com.priceline.role.facade.breaker.CircuitBreaker;
+import com.priceline.role.facade.bulkhead.Bulkhead;
+import com.priceline.role.facade.cache.LookupCache;
+import com.priceline.role.facade.cache.RotatingBloomFilter;
+import com.priceline.role.facade.cache.TeamRosterIndex;
+import com.priceline.role.facade.coalescing.SingleFlight;
+import com.priceline.role.facade.hedging.Hedger;
+import com.priceline.role.model.deadline.Deadline;
+import com.priceline.role.model.deadline.DeadlineContextHolder;
+import com.priceline.role.model.exception.DeadlineExceededException;
 import com.priceline.role.model.exception.PricelineApiException;
 import com.priceline.role.service.system.ExceptionService;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Service
 public class PricelineFacade {
 
 	private final RestTemplate restTemplate;
-	
+
 	private final ExceptionService exceptionService;
-	
+
+	private final LookupCache<UserDTO> userCache;
+
+	private final LookupCache<TeamDTO> teamCache;
+
+	private final RotatingBloomFilter missingUsers;
+
+	private final RotatingBloomFilter missingTeams;
+
+	private final TeamRosterIndex rosters;
+
+	private final SingleFlight<UserDTO> userFlight;
+
+	private final SingleFlight<TeamDTO> teamFlight;
+
+	private final Bulkhead bulkhead;
+
+	private final CircuitBreaker userCircuitBreaker;
+
+	private final CircuitBreaker teamCircuitBreaker;
+
+	private final Hedger userHedger;
+
+	private final Hedger teamHedger;
+
+	private final Duration minCallBudget;
+
 	public PricelineFacade(ExceptionService exceptionService, RestTemplate restTemplate,
+			LookupCache<UserDTO> userCache, LookupCache<TeamDTO> teamCache,
+			@Qualifier("missingUserFilter") RotatingBloomFilter missingUsers, @Qualifier("missingTeamFilter") RotatingBloomFilter missingTeams,
+			TeamRosterIndex teamRosterIndex, Bulkhead facadeBulkhead,
+			@Qualifier("userCircuitBreaker") CircuitBreaker userCircuitBreaker, @Qualifier("teamCircuitBreaker") CircuitBreaker teamCircuitBreaker,
+			@Qualifier("userHedger") Hedger userHedger, @Qualifier("teamHedger") Hedger teamHedger,
+			MeterRegistry meterRegistry, @Value("${facade.deadline.min-call-budget}") final Duration minCallBudget,
 			@Value("${base.url.userApi}") final String baseUrlUserApi, @Value("${base.url.teamApi}") final String baseUrlTeamApi) {
 		this.exceptionService = exceptionService;
 		this.restTemplate = restTemplate;
+		this.userCache = userCache;
+		this.teamCache = teamCache;
+		this.missingUsers = missingUsers;
+		this.missingTeams = missingTeams;
+		this.rosters = teamRosterIndex;
+		this.userFlight = new SingleFlight<>("users", PricelineFacade::isSharedFailure, meterRegistry);
+		this.teamFlight = new SingleFlight<>("teams", PricelineFacade::isSharedFailure, meterRegistry);
+		this.bulkhead = facadeBulkhead;
+		this.userCircuitBreaker = userCircuitBreaker;
+		this.teamCircuitBreaker = teamCircuitBreaker;
+		this.userHedger = userHedger;
+		this.teamHedger = teamHedger;
+		this.minCallBudget = minCallBudget;
 		this.baseUrlUserApi = baseUrlUserApi;
 		this.baseUrlTeamApi = baseUrlTeamApi;
 	}
-	
+
 	@Value("${base.url.userApi}")
 	private String baseUrlUserApi;
-	
+
 	@Value("${base.url.teamApi}")
 	private String baseUrlTeamApi;
-	
+
 	public UserDTO findUserById(String userId) throws PricelineApiException {
-		UserDTO userDTO = null;
+		// ids recently answered as missing are rejected without a lookup
+		if(missingUsers.mightContain(userId)) {
+			return null;
+		}
+
+		// cache misses for the same id share a single external call
+		UserDTO user = userCache.get(userId, id -> userFlight.execute(id, this::fetchUser));
+		if(user == null) {
+			missingUsers.put(userId);
+		}
+
+		return user;
+	}
+
+	public TeamDTO findTeamById(String teamId) throws PricelineApiException  {
+		if(missingTeams.mightContain(teamId)) {
+			return null;
+		}
+
+		TeamDTO team = teamCache.get(teamId, id -> teamFlight.execute(id, this::fetchTeam));
+		if(team == null) {
+			missingTeams.put(teamId);
+		}
+
+		return team;
+	}
+
+	/**
+	 * Tells whether a user belongs to a team using only the rosters of the teams fetched recently,
+	 * without calling any API.
+	 * 
+	 * @param teamId the team id.
+	 * @param userId the user id.
+	 * @return {@link TeamRosterIndex.Presence#UNKNOWN} when the team was not fetched recently.
+	 */
+	public TeamRosterIndex.Presence findTeamMembership(String teamId, String userId) {
+		return rosters.presence(teamId, userId);
+	}
+
+	// ----------------------------------------------------
+	// Cache
+	// ----------------------------------------------------
+	public void invalidateUser(String userId) {
+		userCache.invalidate(userId);
+		missingUsers.invalidate(userId);
+	}
+
+	public void invalidateTeam(String teamId) {
+		teamCache.invalidate(teamId);
+		missingTeams.invalidate(teamId);
+		rosters.invalidate(teamId);
+	}
+
+	public void invalidateAll() {
+		userCache.invalidateAll();
+		teamCache.invalidateAll();
+		missingUsers.invalidateAll();
+		missingTeams.invalidateAll();
+		rosters.invalidateAll();
+	}
+
+	// ----------------------------------------------------
+	// External API
+	// ----------------------------------------------------
+	// calls run inside the bulkhead, so a slow API holds a bounded number of threads,
+	// each API has its own circuit, so an API that keeps failing is not called at all,
+	// slow calls may be hedged with a second one, each going through the circuit,
+	// and nothing is called once the request deadline leaves too little time
+	private UserDTO fetchUser(String userId) throws PricelineApiException {
 		final String url = baseUrlUserApi + "/{userId}";
-		
+
 		try {
-			userDTO = restTemplate.getForObject(url, UserDTO.class, userId);
+			return call(userCircuitBreaker, userHedger, "User API", url, UserDTO.class, userId);
 		} catch (Exception exception) {
 			throw exceptionService.throwRuntimeException(exception, MessageEnum.USER_API_ERROR_FIND_BY_ID_HELP);
 		}
-		
-		return userDTO;
 	}
-	
-	public TeamDTO findTeamById(String teamId) throws PricelineApiException  {
-		TeamDTO teamDTO = null;
+
+	private TeamDTO fetchTeam(String teamId) throws PricelineApiException  {
 		final String url = baseUrlTeamApi + "/{teamId}";
-		
+
 		try {
-			teamDTO = restTemplate.getForObject(url, TeamDTO.class, teamId);
+			TeamDTO team = call(teamCircuitBreaker, teamHedger, "Team API", url, TeamDTO.class, teamId);
+			if(team != null) {
+				rosters.put(team);
+			}
+
+			return team;
 		} catch (Exception exception) {
 			throw exceptionService.throwRuntimeException(exception, MessageEnum.TEAM_API_ERROR_FIND_BY_ID_HELP);
 		}
-		
-		return teamDTO;
+	}
+
+	private <T> T call(CircuitBreaker circuitBreaker, Hedger hedger, String dependency, String url, Class<T> type, String id) {
+		requireBudget(dependency);
+
+		// the first call and its hedge each hold a slot of the bulkhead until they finish
+		return hedger.execute(() -> {
+			// waiting for a slot consumes part of the budget, so it is checked again right before the call
+			requireBudget(dependency);
+
+			return circuitBreaker.execute(() -> getForObject(dependency, url, type, id));
+		}, bulkhead);
+	}
+
+	/*
+	 * A call that cannot finish before the request deadline is not issued: its answer would
+	 * arrive after the client gave up.
+	 */
+	private void requireBudget(String dependency) {
+		Deadline deadline = DeadlineContextHolder.get();
+		if(deadline != null && deadline.isShorterThan(minCallBudget)) {
+			throw new DeadlineExceededException(dependency, deadline.getTimeout());
+		}
+	}
+
+	/*
+	 * Coalesced lookups run under the deadline of the caller that issued them, so running out of
+	 * it says nothing to the other callers, which call again under their own deadline.
+	 */
+	private static boolean isSharedFailure(RuntimeException exception) {
+		return !(exception instanceof PricelineApiException apiException && apiException.getStatus() == HttpStatus.GATEWAY_TIMEOUT);
+	}
+
+	private <T> T getForObject(String dependency, String url, Class<T> type, String id) {
+		try {
+			return restTemplate.getForObject(url, type, id);
+		} catch (HttpClientErrorException.NotFound exception) {
+			// does not exist, reported as null so it can be cached and the API is seen as healthy
+			return null;
+		} catch (ResourceAccessException exception) {
+			// timeouts are bounded by the deadline, so running out of it says nothing about the API
+			Deadline deadline = DeadlineContextHolder.get();
+			if(deadline != null && deadline.isExpired()) {
+				throw new DeadlineExceededException(dependency, deadline.getTimeout());
+			}
+
+			throw exception;
+		}
 	}
 
 }
@@ -0,0 +1,250 @@
+package com.priceline.role.facade.breaker;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import com.priceline.role.model.exception.CircuitBreakerOpenException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stops calling a dependency that keeps failing or answering slowly.
+ * <br>
+ * While <b>closed</b>, the outcome of the last <code>windowSize</code> calls is kept. Once at
+ * least <code>minimumCalls</code> were made, the circuit opens when the rate of failed calls or
+ * the rate of calls slower than <code>slowCallDuration</code> reaches its threshold.
+ * <br>
+ * While <b>open</b>, calls fail at once with a {@link CircuitBreakerOpenException}, without
+ * reaching the dependency. After <code>openDuration</code> the circuit turns <b>half-open</b> and
+ * lets <code>halfOpenCalls</code> probe calls through: the circuit closes if their rates are
+ * below the thresholds, and opens again otherwise.
+ * <br>
+ * The state is published as the <code>facade.circuit.state</code> gauge (0 closed, 1 open,
+ * 2 half-open), transitions as the <code>facade.circuit.transitions</code> counter tagged with
+ * the source and target states, and calls failed fast as <code>facade.circuit.rejected</code>.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+	public enum State { CLOSED, OPEN, HALF_OPEN }
+
+	/**
+	 * @param windowSize the number of calls whose outcome is kept while closed.
+	 * @param minimumCalls the number of calls needed before the rates are evaluated.
+	 * @param failureRateThreshold the percentage of failed calls that opens the circuit.
+	 * @param slowCallRateThreshold the percentage of slow calls that opens the circuit.
+	 * @param slowCallDuration the duration above which a call is slow.
+	 * @param openDuration how long the circuit stays open before probing the dependency.
+	 * @param halfOpenCalls the number of probe calls made while half-open.
+	 */
+	public record Settings(int windowSize, int minimumCalls, int failureRateThreshold, int slowCallRateThreshold,
+			Duration slowCallDuration, Duration openDuration, int halfOpenCalls) {}
+
+	private final String name;
+
+	private final Settings settings;
+
+	private final Predicate<RuntimeException> isFailure;
+
+	private final LongSupplier ticker;
+
+	private final long slowCallNanos;
+
+	private final long openNanos;
+
+	private final MeterRegistry meterRegistry;
+
+	private final Counter rejected;
+
+	private State state = State.CLOSED;
+
+	private Window window;
+
+	private long openedAt;
+
+	private int halfOpenPermits;
+
+	/**
+	 * @param name the name of the dependency, used in the rejection message and to tag the metrics.
+	 * @param settings the window, thresholds and durations of the circuit.
+	 * @param isFailure tells which exceptions are failures of the dependency. Other exceptions
+	 * are recorded as successful calls, e.g. a client error answered by a healthy dependency.
+	 * @param meterRegistry the registry where the circuit metrics are published.
+	 */
+	public CircuitBreaker(String name, Settings settings, Predicate<RuntimeException> isFailure, MeterRegistry meterRegistry) {
+		this(name, settings, isFailure, meterRegistry, System::nanoTime);
+	}
+
+	CircuitBreaker(String name, Settings settings, Predicate<RuntimeException> isFailure, MeterRegistry meterRegistry, LongSupplier ticker) {
+		this.name = name;
+		this.settings = settings;
+		this.isFailure = isFailure;
+		this.ticker = ticker;
+		this.slowCallNanos = settings.slowCallDuration().toNanos();
+		this.openNanos = settings.openDuration().toNanos();
+		this.meterRegistry = meterRegistry;
+		this.window = new Window(settings.windowSize());
+
+		this.rejected = Counter.builder("facade.circuit.rejected")
+				.description("Calls failed fast while the circuit was open")
+				.tag("name", name)
+				.register(meterRegistry);
+
+		Gauge.builder("facade.circuit.state", this, breaker -> breaker.getState().ordinal())
+			.description("State of the circuit: 0 closed, 1 open, 2 half-open")
+			.tag("name", name)
+			.register(meterRegistry);
+	}
+
+	/**
+	 * Runs <code>call</code> unless the circuit is open, and records its outcome.
+	 *
+	 * @param call the call to the dependency.
+	 * @return the result of the call.
+	 * @throws CircuitBreakerOpenException if the circuit is open, or half-open with every probe in flight.
+	 */
+	public <T> T execute(Supplier<T> call) {
+		acquire();
+
+		final long start = ticker.getAsLong();
+		try {
+			T result = call.get();
+			record(false, ticker.getAsLong() - start);
+
+			return result;
+		} catch (RuntimeException exception) {
+			record(isFailure.test(exception), ticker.getAsLong() - start);
+			throw exception;
+		}
+	}
+
+	public synchronized State getState() {
+		return state;
+	}
+
+	public double rejectedCount() {
+		return rejected.count();
+	}
+
+	private synchronized void acquire() {
+		if(state == State.OPEN) {
+			long remaining = openedAt + openNanos - ticker.getAsLong();
+			if(remaining > 0) {
+				throw reject(remaining);
+			}
+
+			transitionTo(State.HALF_OPEN);
+		}
+
+		if(state == State.HALF_OPEN) {
+			if(halfOpenPermits == 0) {
+				// probes are in flight, retry once they have decided
+				throw reject(openNanos);
+			}
+
+			halfOpenPermits--;
+		}
+	}
+
+	private synchronized void record(boolean failure, long nanos) {
+		window.add(failure, nanos >= slowCallNanos);
+
+		int minimumCalls = state == State.HALF_OPEN ? settings.halfOpenCalls() : settings.minimumCalls();
+		if(window.size() < minimumCalls) {
+			return;
+		}
+
+		boolean unhealthy = window.failureRate() >= settings.failureRateThreshold() || window.slowCallRate() >= settings.slowCallRateThreshold();
+		if(unhealthy && state != State.OPEN) {
+			transitionTo(State.OPEN);
+		} else if(!unhealthy && state == State.HALF_OPEN) {
+			transitionTo(State.CLOSED);
+		}
+	}
+
+	private void transitionTo(State target) {
+		log.warn("Circuit of {} moved from {} to {}", name, state, target);
+		Counter.builder("facade.circuit.transitions")
+			.description("State transitions of the circuit")
+			.tag("name", name)
+			.tag("from", state.name())
+			.tag("to", target.name())
+			.register(meterRegistry)
+			.increment();
+
+		state = target;
+		switch(target) {
+			case OPEN -> openedAt = ticker.getAsLong();
+			case HALF_OPEN -> {
+				halfOpenPermits = settings.halfOpenCalls();
+				window = new Window(settings.halfOpenCalls());
+			}
+			case CLOSED -> window = new Window(settings.windowSize());
+		}
+	}
+
+	private CircuitBreakerOpenException reject(long remainingNanos) {
+		rejected.increment();
+
+		return new CircuitBreakerOpenException(name, Duration.ofMillis(TimeUnit.NANOSECONDS.toMillis(remainingNanos)));
+	}
+
+	/*
+	 * Outcomes of the last calls, in a ring buffer with running totals.
+	 */
+	private static class Window {
+
+		private final boolean[] failures;
+
+		private final boolean[] slowCalls;
+
+		private int next;
+
+		private int size;
+
+		private int failureCount;
+
+		private int slowCallCount;
+
+		Window(int capacity) {
+			this.failures = new boolean[capacity];
+			this.slowCalls = new boolean[capacity];
+		}
+
+		void add(boolean failure, boolean slow) {
+			if(size == failures.length) {
+				// evict the oldest outcome
+				failureCount -= failures[next] ? 1 : 0;
+				slowCallCount -= slowCalls[next] ? 1 : 0;
+			} else {
+				size++;
+			}
+
+			failures[next] = failure;
+			slowCalls[next] = slow;
+			failureCount += failure ? 1 : 0;
+			slowCallCount += slow ? 1 : 0;
+			next = (next + 1) % failures.length;
+		}
+
+		int size() {
+			return size;
+		}
+
+		int failureRate() {
+			return failureCount * 100 / size;
+		}
+
+		int slowCallRate() {
+			return slowCallCount * 100 / size;
+		}
+
+	}
+
+}
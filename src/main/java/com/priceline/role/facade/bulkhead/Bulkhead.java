@@ -0,0 +1,142 @@
+package com.priceline.role.facade.bulkhead;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import com.priceline.role.model.exception.ServiceUnavailableException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bounds the number of concurrent calls to a dependency.
+ * <br>
+ * At most <code>maxConcurrentCalls</code> run at once. Up to <code>maxQueuedCalls</code>
+ * more wait for a free slot, each for at most <code>maxWait</code>. Any other call is
+ * rejected at once with a {@link ServiceUnavailableException}, so a slow dependency can
+ * only ever hold a bounded number of threads. Active, queued and rejected calls are
+ * published as <code>facade.bulkhead.*</code> metrics tagged with the bulkhead name.
+ */
+public class Bulkhead {
+
+	private final String name;
+
+	private final Semaphore permits;
+
+	private final int maxQueuedCalls;
+
+	private final long maxWaitNanos;
+
+	private final Duration retryAfter;
+
+	private final AtomicInteger queued = new AtomicInteger();
+
+	private final Counter rejected;
+
+	/**
+	 * @param name the name of the dependency, used in the rejection message and to tag the metrics.
+	 * @param maxConcurrentCalls the maximum number of calls running at once.
+	 * @param maxQueuedCalls the maximum number of calls waiting for a slot.
+	 * @param maxWait how long a queued call waits for a slot before being rejected.
+	 * @param retryAfter the delay suggested to rejected callers.
+	 * @param meterRegistry the registry where the bulkhead metrics are published.
+	 */
+	public Bulkhead(String name, int maxConcurrentCalls, int maxQueuedCalls, Duration maxWait, Duration retryAfter,
+			MeterRegistry meterRegistry) {
+		this.name = name;
+		this.permits = new Semaphore(maxConcurrentCalls, true);
+		this.maxQueuedCalls = maxQueuedCalls;
+		this.maxWaitNanos = maxWait.toNanos();
+		this.retryAfter = retryAfter;
+
+		this.rejected = Counter.builder("facade.bulkhead.rejected")
+				.description("Calls rejected because the bulkhead was full")
+				.tag("name", name)
+				.register(meterRegistry);
+
+		Gauge.builder("facade.bulkhead.active", permits, semaphore -> maxConcurrentCalls - semaphore.availablePermits())
+			.description("Calls currently running")
+			.tag("name", name)
+			.register(meterRegistry);
+
+		Gauge.builder("facade.bulkhead.queued", queued, AtomicInteger::get)
+			.description("Calls waiting for a slot")
+			.tag("name", name)
+			.register(meterRegistry);
+	}
+
+	/**
+	 * Runs <code>call</code> once a slot is free.
+	 *
+	 * @param call the call to the dependency.
+	 * @return the result of the call.
+	 * @throws ServiceUnavailableException if no slot is free and the queue is full, or none
+	 * was freed within the maximum wait.
+	 */
+	public <T> T execute(Supplier<T> call) {
+		acquire();
+
+		try {
+			return call.get();
+		} finally {
+			permits.release();
+		}
+	}
+
+	public double rejectedCount() {
+		return rejected.count();
+	}
+
+	/**
+	 * Takes a slot for a call that finishes on another thread, which must {@link #release()} it.
+	 *
+	 * @throws ServiceUnavailableException if no slot is free and the queue is full, or none
+	 * was freed within the maximum wait.
+	 */
+	public void acquire() {
+		if(permits.tryAcquire()) {
+			return;
+		}
+
+		if(queued.incrementAndGet() > maxQueuedCalls) {
+			queued.decrementAndGet();
+			throw reject();
+		}
+
+		try {
+			if(!permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+				throw reject();
+			}
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			throw reject();
+		} finally {
+			queued.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Takes a slot only if one is free at once, for optional calls that should neither queue
+	 * nor count as rejected.
+	 *
+	 * @return whether a slot was taken, to be given back with {@link #release()}.
+	 */
+	public boolean tryAcquire() {
+		return permits.tryAcquire();
+	}
+
+	public void release() {
+		permits.release();
+	}
+
+	private ServiceUnavailableException reject() {
+		rejected.increment();
+
+		return new ServiceUnavailableException(name, retryAfter);
+	}
+
+}
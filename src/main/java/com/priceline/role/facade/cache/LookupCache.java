@@ -0,0 +1,109 @@
+package com.priceline.role.facade.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded cache for lookups against the external APIs.
+ * <br>
+ * Entries are evicted by size and by age. Found values and "not found" results have
+ * their own time to live, so a missing id can be remembered for a shorter period than
+ * an existing one. Hit, miss and eviction counters are published as <code>cache.*</code>
+ * metrics tagged with the cache name.
+ *
+ * @param <V> the type of the cached value.
+ */
+public class LookupCache<V> {
+
+	private final Cache<String, Optional<V>> cache;
+
+	/**
+	 * @param name the cache name, used to tag the metrics.
+	 * @param maximumSize the maximum number of entries kept in the cache.
+	 * @param ttl how long a found value is kept.
+	 * @param notFoundTtl how long a "not found" result is kept.
+	 * @param meterRegistry the registry where the cache metrics are published.
+	 */
+	public LookupCache(String name, long maximumSize, Duration ttl, Duration notFoundTtl, MeterRegistry meterRegistry) {
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfter(new LookupExpiry<V>(ttl.toNanos(), notFoundTtl.toNanos()))
+				.recordStats()
+				.build();
+
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+	}
+
+	/**
+	 * Returns the cached value of <code>key</code>, loading it when absent.
+	 * <br>
+	 * The loader runs outside of the cache, so a slow external API never holds a lock of
+	 * the underlying map. A <code>null</code> returned by the loader is cached as "not
+	 * found", while exceptions are propagated and nothing is cached.
+	 *
+	 * @param key the identifier to look up.
+	 * @param loader the function used to fetch the value on a miss.
+	 * @return the value, or <code>null</code> if it does not exist.
+	 */
+	public V get(String key, Function<String, V> loader) {
+		Optional<V> cached = cache.getIfPresent(key);
+		if(cached != null) {
+			return cached.orElse(null);
+		}
+
+		V value = loader.apply(key);
+		cache.put(key, Optional.ofNullable(value));
+
+		return value;
+	}
+
+	public void invalidate(String key) {
+		cache.invalidate(key);
+	}
+
+	public void invalidateAll() {
+		cache.invalidateAll();
+	}
+
+	public CacheStats stats() {
+		return cache.stats();
+	}
+
+	private static class LookupExpiry<V> implements Expiry<String, Optional<V>> {
+
+		private final long ttl;
+
+		private final long notFoundTtl;
+
+		LookupExpiry(long ttl, long notFoundTtl) {
+			this.ttl = ttl;
+			this.notFoundTtl = notFoundTtl;
+		}
+
+		@Override
+		public long expireAfterCreate(String key, Optional<V> value, long currentTime) {
+			return value.isPresent() ? ttl : notFoundTtl;
+		}
+
+		@Override
+		public long expireAfterUpdate(String key, Optional<V> value, long currentTime, long currentDuration) {
+			return expireAfterCreate(key, value, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(String key, Optional<V> value, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+
+	}
+
+}
@@ -0,0 +1,229 @@
+package com.priceline.role.facade.cache;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Remembers recently seen ids within a fixed amount of memory, for a limited time.
+ * <br>
+ * Ids are added to the current of two Bloom filter generations, and looked up in both. Every
+ * <code>rotation</code>, or as soon as the current generation holds <code>expectedIds</code>, the
+ * previous generation is dropped and the current one takes its place, so an id is remembered
+ * for one to two rotations. Each generation is sized for <code>expectedIds</code> at half the
+ * <code>falsePositiveRate</code>, so looking up both stays within the rate.
+ * <br>
+ * Like any Bloom filter it may answer that an unseen id was seen, never the opposite, and it
+ * cannot forget a single id: {@link #invalidate(String)} clears it as a whole.
+ * <br>
+ * Ids found are published as the <code>facade.missing.hits</code> counter, and ids held as the
+ * <code>facade.missing.ids</code> gauge, tagged with the name of the filter.
+ */
+public class RotatingBloomFilter {
+
+	private final int bits;
+
+	private final int hashes;
+
+	private final int expectedIds;
+
+	private final long rotationNanos;
+
+	private final LongSupplier ticker;
+
+	private final Counter hits;
+
+	private volatile Generations generations;
+
+	/**
+	 * @param name the name of the filter, used to tag the metrics.
+	 * @param expectedIds the number of ids a generation holds before it is rotated.
+	 * @param falsePositiveRate the probability that an unseen id is reported as seen.
+	 * @param rotation how long a generation is current.
+	 * @param meterRegistry the registry where the filter metrics are published.
+	 */
+	public RotatingBloomFilter(String name, int expectedIds, double falsePositiveRate, Duration rotation, MeterRegistry meterRegistry) {
+		this(name, expectedIds, falsePositiveRate, rotation, meterRegistry, System::nanoTime);
+	}
+
+	RotatingBloomFilter(String name, int expectedIds, double falsePositiveRate, Duration rotation, MeterRegistry meterRegistry,
+			LongSupplier ticker) {
+		if(expectedIds <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+			throw new IllegalArgumentException("Invalid bloom filter " + name + ": " + expectedIds + " ids at " + falsePositiveRate);
+		}
+
+		// optimal size and number of hashes for the rate of a single generation
+		double generationRate = falsePositiveRate / 2;
+		this.bits = (int) Math.min(Integer.MAX_VALUE - 63L, Math.max(64, Math.ceil(-expectedIds * Math.log(generationRate) / (Math.log(2) * Math.log(2)))));
+		this.hashes = Math.max(1, (int) Math.round((double) bits / expectedIds * Math.log(2)));
+		this.expectedIds = expectedIds;
+		this.rotationNanos = rotation.toNanos();
+		this.ticker = ticker;
+		this.generations = new Generations(new Generation(bits), new Generation(bits), ticker.getAsLong());
+
+		this.hits = Counter.builder("facade.missing.hits")
+				.description("Lookups answered by the filter of recently missing ids")
+				.tag("name", name)
+				.register(meterRegistry);
+
+		Gauge.builder("facade.missing.ids", this, RotatingBloomFilter::size)
+			.description("Ids held by the filter of recently missing ids")
+			.tag("name", name)
+			.register(meterRegistry);
+	}
+
+	/**
+	 * @param id the id to look up.
+	 * @return <code>false</code> if the id was not added within the last rotations,
+	 * <code>true</code> if it probably was.
+	 */
+	public boolean mightContain(String id) {
+		if(!contains(current(), id)) {
+			return false;
+		}
+
+		hits.increment();
+		return true;
+	}
+
+	public void put(String id) {
+		Generations current = current();
+		if(current.current().ids.get() >= expectedIds) {
+			current = rotate(current);
+		}
+
+		long hash = hash(id);
+		int first = (int) hash;
+		int second = (int) (hash >>> 32);
+
+		AtomicLongArray words = current.current().words;
+		for(int i = 0; i < hashes; i++) {
+			int bit = index(first + i * second);
+			long mask = 1L << bit;
+
+			if((words.get(bit >>> 6) & mask) == 0) {
+				words.getAndAccumulate(bit >>> 6, mask, (word, value) -> word | value);
+			}
+		}
+
+		current.current().ids.incrementAndGet();
+	}
+
+	/**
+	 * Makes sure <code>id</code> is no longer reported as seen. Single ids cannot be removed
+	 * from a Bloom filter, so every id is forgotten when <code>id</code> might be held.
+	 *
+	 * @param id the id to forget.
+	 */
+	public void invalidate(String id) {
+		if(contains(current(), id)) {
+			invalidateAll();
+		}
+	}
+
+	public synchronized void invalidateAll() {
+		generations = new Generations(new Generation(bits), new Generation(bits), ticker.getAsLong());
+	}
+
+	public double hitCount() {
+		return hits.count();
+	}
+
+	int size() {
+		Generations current = current();
+		return current.current().ids.get() + current.previous().ids.get();
+	}
+
+	int bits() {
+		return bits;
+	}
+
+	int hashes() {
+		return hashes;
+	}
+
+	private boolean contains(Generations current, String id) {
+		long hash = hash(id);
+		int first = (int) hash;
+		int second = (int) (hash >>> 32);
+
+		return contains(current.current(), first, second) || contains(current.previous(), first, second);
+	}
+
+	private boolean contains(Generation generation, int first, int second) {
+		for(int i = 0; i < hashes; i++) {
+			int bit = index(first + i * second);
+			if((generation.words.get(bit >>> 6) & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private Generations current() {
+		Generations current = generations;
+		if(ticker.getAsLong() - current.rotatedAt() < rotationNanos) {
+			return current;
+		}
+
+		return rotate(current);
+	}
+
+	private synchronized Generations rotate(Generations expected) {
+		if(generations != expected) {
+			// rotated by another thread meanwhile
+			return generations;
+		}
+
+		long now = ticker.getAsLong();
+
+		// after a long idle period the current generation is too old to be kept as well
+		Generation previous = now - expected.rotatedAt() < 2 * rotationNanos || expected.current().ids.get() >= expectedIds
+				? expected.current() : new Generation(bits);
+		generations = new Generations(new Generation(bits), previous, now);
+
+		return generations;
+	}
+
+	private int index(int hash) {
+		return (hash & Integer.MAX_VALUE) % bits;
+	}
+
+	// 64-bit FNV-1a over the characters of the id, spread by the MurmurHash3 finalizer
+	private static long hash(String id) {
+		long hash = 0xcbf29ce484222325L;
+		for(int i = 0; i < id.length(); i++) {
+			hash ^= id.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+
+		return hash;
+	}
+
+	private record Generations(Generation current, Generation previous, long rotatedAt) {}
+
+	private static final class Generation {
+
+		private final AtomicLongArray words;
+
+		private final AtomicInteger ids = new AtomicInteger();
+
+		private Generation(int bits) {
+			this.words = new AtomicLongArray((bits + 63) / 64);
+		}
+
+	}
+
+}
@@ -0,0 +1,94 @@
+package com.priceline.role.facade.cache;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.priceline.role.dto.TeamDTO;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Members of the teams fetched recently, lead included.
+ * <br>
+ * Each roster is kept as a sorted array of member ids, far more compact than the team itself,
+ * so a user can be matched against a team without fetching either. Rosters are evicted by size
+ * and by age, and published as <code>cache.*</code> metrics tagged with the index name.
+ */
+public class TeamRosterIndex {
+
+	public enum Presence {
+
+		/** The user is listed in the roster of the team. */
+		MEMBER,
+
+		/** The roster of the team is known and does not list the user. */
+		NOT_MEMBER,
+
+		/** The roster of the team is not known. */
+		UNKNOWN
+
+	}
+
+	private final Cache<String, String[]> rosters;
+
+	/**
+	 * @param name the index name, used to tag the metrics.
+	 * @param maximumSize the maximum number of rosters kept.
+	 * @param ttl how long a roster is kept.
+	 * @param meterRegistry the registry where the index metrics are published.
+	 */
+	public TeamRosterIndex(String name, long maximumSize, Duration ttl, MeterRegistry meterRegistry) {
+		this.rosters = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterWrite(ttl)
+				.recordStats()
+				.build();
+
+		CaffeineCacheMetrics.monitor(meterRegistry, rosters, name);
+	}
+
+	public void put(TeamDTO team) {
+		rosters.put(team.getId(), roster(team));
+	}
+
+	public Presence presence(String teamId, String userId) {
+		String[] roster = rosters.getIfPresent(teamId);
+		if(roster == null) {
+			return Presence.UNKNOWN;
+		}
+
+		return Arrays.binarySearch(roster, userId) >= 0 ? Presence.MEMBER : Presence.NOT_MEMBER;
+	}
+
+	public void invalidate(String teamId) {
+		rosters.invalidate(teamId);
+	}
+
+	public void invalidateAll() {
+		rosters.invalidateAll();
+	}
+
+	/**
+	 * @param team the team.
+	 * @param userId the user to look for.
+	 * @return whether <code>userId</code> is the lead or a member of <code>team</code>.
+	 */
+	public static boolean isMember(TeamDTO team, String userId) {
+		return userId.equals(team.getTeamLeadId()) || (team.getTeamMemberIds() != null && team.getTeamMemberIds().contains(userId));
+	}
+
+	private static String[] roster(TeamDTO team) {
+		Stream<String> members = team.getTeamMemberIds() == null ? Stream.empty() : team.getTeamMemberIds().stream();
+
+		return Stream.concat(members, Stream.of(team.getTeamLeadId()))
+				.filter(id -> id != null)
+				.distinct()
+				.sorted()
+				.toArray(String[]::new);
+	}
+
+}
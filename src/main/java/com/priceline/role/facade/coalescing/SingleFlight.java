@@ -0,0 +1,142 @@
+package com.priceline.role.facade.coalescing;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Deduplicates concurrent calls for the same key.
+ * <br>
+ * The first caller of a key executes the call, while callers arriving before it
+ * finishes wait for and share its result or exception, unless the exception only
+ * concerns the first caller, such as its interruption. Waiting callers that are interrupted
+ * stop waiting at once. The number of calls saved this
+ * way is published as the <code>facade.calls.coalesced</code> counter, tagged with the
+ * name of the flight.
+ *
+ * @param <V> the type returned by the call.
+ */
+public class SingleFlight<V> {
+
+	private final Map<String, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+	private final Predicate<RuntimeException> isShared;
+
+	private final Counter coalesced;
+
+	public SingleFlight(String name, MeterRegistry meterRegistry) {
+		this(name, exception -> true, meterRegistry);
+	}
+
+	/**
+	 * @param name the flight name, used to tag the metrics.
+	 * @param isShared tells whether a failure of the call is shared with the callers waiting for it.
+	 * Failures bound to the caller that ran the call are not, those callers run the call again instead.
+	 * @param meterRegistry the registry where the flight metrics are published.
+	 */
+	public SingleFlight(String name, Predicate<RuntimeException> isShared, MeterRegistry meterRegistry) {
+		this.isShared = isShared;
+		this.coalesced = Counter.builder("facade.calls.coalesced")
+				.description("Calls that shared the result of an identical call already in flight")
+				.tag("name", name)
+				.register(meterRegistry);
+
+		Gauge.builder("facade.calls.in.flight", inFlight, Map::size)
+			.description("Distinct calls currently in flight")
+			.tag("name", name)
+			.register(meterRegistry);
+	}
+
+	public V execute(String key, Function<String, V> call) {
+		while(true) {
+			CompletableFuture<V> flight = new CompletableFuture<>();
+			CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+
+			if(existing == null) {
+				return lead(key, flight, call);
+			}
+
+			coalesced.increment();
+
+			try {
+				return await(existing);
+			} catch (NotShared exception) {
+				// the failure belongs to the caller that ran the call, so try again as any other caller
+			}
+		}
+	}
+
+	public double coalescedCount() {
+		return coalesced.count();
+	}
+
+	private V lead(String key, CompletableFuture<V> flight, Function<String, V> call) {
+		// removed before completing the flight, so callers trying again start a new call
+		try {
+			V value = call.apply(key);
+			inFlight.remove(key, flight);
+			flight.complete(value);
+
+			return value;
+		} catch (Throwable failure) {
+			// errors are shared too, otherwise the other callers would wait forever
+			inFlight.remove(key, flight);
+			flight.completeExceptionally(isShared(failure) ? failure : NotShared.INSTANCE);
+			throw failure;
+		}
+	}
+
+	private boolean isShared(Throwable failure) {
+		// a caller interrupted while running the call gave up on it, which says nothing about the call
+		if(Thread.currentThread().isInterrupted()) {
+			return false;
+		}
+
+		return !(failure instanceof RuntimeException exception) || isShared.test(exception);
+	}
+
+	private V await(CompletableFuture<V> flight) {
+		try {
+			return flight.get();
+		} catch (InterruptedException exception) {
+			// the caller gave up, e.g. a cancelled lookup, so its thread stops waiting for the call
+			Thread.currentThread().interrupt();
+			throw new CompletionException(exception);
+		} catch (ExecutionException exception) {
+			// share the exact exception thrown to the first caller
+			if(exception.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) exception.getCause();
+			}
+
+			if(exception.getCause() instanceof Error) {
+				throw (Error) exception.getCause();
+			}
+
+			throw new CompletionException(exception.getCause());
+		}
+	}
+
+	/*
+	 * Completes a flight whose failure is not shared, telling the waiting callers to try again.
+	 */
+	private static final class NotShared extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		private static final NotShared INSTANCE = new NotShared();
+
+		private NotShared() {
+			super(null, null, false, false);
+		}
+
+	}
+
+}
@@ -0,0 +1,319 @@
+package com.priceline.role.facade.hedging;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import com.priceline.role.facade.bulkhead.Bulkhead;
+import com.priceline.role.model.context.RequestContext;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Cuts the tail latency of a dependency by hedging slow calls.
+ * <br>
+ * When a call has not answered within the delay, a second identical call is issued and the
+ * first successful answer wins, the other one being left to finish on its own, still holding
+ * its slot of the bulkhead when one is given. The delay is
+ * the <code>percentile</code> of the latencies of the last <code>windowSize</code> calls, bounded
+ * by <code>minDelay</code> and <code>maxDelay</code>, and is <code>maxDelay</code> until the window
+ * is filled. Hedges are extra load on a dependency that may already be struggling, so at most
+ * <code>maxHedgeRate</code> percent of the calls are hedged.
+ * <br>
+ * Calls run on <code>executor</code> so the caller can return as soon as either answers. When
+ * the executor is saturated the call runs on the caller thread, without hedging.
+ * <br>
+ * Hedges issued and hedges whose answer won are published as the <code>facade.hedging.issued</code>
+ * and <code>facade.hedging.won</code> counters, and the current delay as the
+ * <code>facade.hedging.delay</code> gauge, in milliseconds.
+ */
+public class Hedger {
+
+	/**
+	 * @param enabled whether calls are hedged at all, when disabled they run on the caller thread.
+	 * @param percentile the percentile of recent latencies after which a call is hedged.
+	 * @param minDelay the shortest delay before hedging.
+	 * @param maxDelay the longest delay before hedging, also used until enough latencies are known.
+	 * @param windowSize the number of latencies the percentile is computed from.
+	 * @param maxHedgeRate the maximum percentage of calls that are hedged.
+	 */
+	public record Settings(boolean enabled, int percentile, Duration minDelay, Duration maxDelay, int windowSize, int maxHedgeRate) {}
+
+	private final Settings settings;
+
+	private final Executor executor;
+
+	private final LongSupplier ticker;
+
+	private final Counter issued;
+
+	private final Counter won;
+
+	private final long[] latencies;
+
+	private final int recomputeEvery;
+
+	private final double maxBudget;
+
+	private int recorded;
+
+	private long delayNanos;
+
+	private double budget;
+
+	/**
+	 * @param name the name of the dependency, used to tag the metrics.
+	 * @param settings the delay and rate of the hedges.
+	 * @param executor the executor running the calls.
+	 * @param meterRegistry the registry where the hedging metrics are published.
+	 */
+	public Hedger(String name, Settings settings, Executor executor, MeterRegistry meterRegistry) {
+		this(name, settings, executor, meterRegistry, System::nanoTime);
+	}
+
+	Hedger(String name, Settings settings, Executor executor, MeterRegistry meterRegistry, LongSupplier ticker) {
+		this.settings = settings;
+		this.executor = executor;
+		this.ticker = ticker;
+		this.latencies = new long[settings.windowSize()];
+		this.recomputeEvery = Math.max(1, settings.windowSize() / 10);
+		this.delayNanos = settings.maxDelay().toNanos();
+
+		// unused hedges accumulate, so a burst of slow calls can be hedged up to the rate over a window
+		this.maxBudget = Math.max(1, settings.windowSize() * settings.maxHedgeRate() / 100.0);
+		this.budget = maxBudget;
+
+		this.issued = Counter.builder("facade.hedging.issued")
+				.description("Second calls issued because the first one was slow")
+				.tag("name", name)
+				.register(meterRegistry);
+
+		this.won = Counter.builder("facade.hedging.won")
+				.description("Second calls that answered before the first one")
+				.tag("name", name)
+				.register(meterRegistry);
+
+		Gauge.builder("facade.hedging.delay", this, hedger -> TimeUnit.NANOSECONDS.toMillis(hedger.delayNanos()))
+			.description("Time after which a call is hedged, in milliseconds")
+			.tag("name", name)
+			.register(meterRegistry);
+	}
+
+	/**
+	 * Runs <code>call</code>, hedged with a second identical call when it is slow.
+	 *
+	 * @param call the call to the dependency, which must be safe to issue twice.
+	 * @return the first successful result, or the exception of the last call to fail.
+	 */
+	public <T> T execute(Supplier<T> call) {
+		return execute(call, null);
+	}
+
+	/**
+	 * Runs <code>call</code> inside <code>bulkhead</code>, hedged with a second identical call
+	 * when it is slow.
+	 * <br>
+	 * Each call holds its own slot until it finishes, even after the other one answered, so
+	 * hedging never runs more calls at once than the bulkhead allows. The first call waits for
+	 * a slot as any other call, the second one is only issued when a slot is free at once.
+	 *
+	 * @param call the call to the dependency, which must be safe to issue twice.
+	 * @param bulkhead the bulkhead bounding the calls to the dependency, or <code>null</code> for none.
+	 * @return the first successful result, or the exception of the last call to fail.
+	 * @throws com.priceline.role.model.exception.ServiceUnavailableException if the first call
+	 * gets no slot of the bulkhead.
+	 */
+	public <T> T execute(Supplier<T> call, Bulkhead bulkhead) {
+		if(bulkhead != null) {
+			bulkhead.acquire();
+		}
+
+		final Supplier<T> firstCall = releasing(call, bulkhead);
+		if(!settings.enabled()) {
+			return firstCall.get();
+		}
+
+		earnHedge();
+
+		// both calls run under the deadline and locale of the caller, the delay only follows
+		// first calls, as second ones are only issued when the dependency is already slow
+		final Supplier<T> timedCall = timed(RequestContext.wrap(firstCall));
+
+		CompletableFuture<T> first = submit(timedCall);
+		if(first == null) {
+			return timedCall.get();
+		}
+
+		try {
+			return first.get(delayNanos(), TimeUnit.NANOSECONDS);
+		} catch (TimeoutException exception) {
+			// slow, hedged below
+		} catch (ExecutionException exception) {
+			throw unwrap(exception.getCause());
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			throw new CompletionException(exception);
+		}
+
+		CompletableFuture<T> second = hedge(RequestContext.wrap(call), bulkhead);
+		if(second == null) {
+			return await(first);
+		}
+
+		issued.increment();
+
+		// the first successful answer wins, a failure only when both calls failed
+		CompletableFuture<T> winner = new CompletableFuture<>();
+		AtomicBoolean answered = new AtomicBoolean();
+		AtomicInteger failures = new AtomicInteger();
+
+		first.whenComplete((result, exception) -> complete(winner, result, exception, answered, failures, false));
+		second.whenComplete((result, exception) -> complete(winner, result, exception, answered, failures, true));
+
+		return await(winner);
+	}
+
+	public double issuedCount() {
+		return issued.count();
+	}
+
+	public double wonCount() {
+		return won.count();
+	}
+
+	synchronized long delayNanos() {
+		return delayNanos;
+	}
+
+	private <T> Supplier<T> timed(Supplier<T> call) {
+		return () -> {
+			final long start = ticker.getAsLong();
+			try {
+				return call.get();
+			} finally {
+				record(ticker.getAsLong() - start);
+			}
+		};
+	}
+
+	private <T> CompletableFuture<T> hedge(Supplier<T> call, Bulkhead bulkhead) {
+		if(bulkhead != null && !bulkhead.tryAcquire()) {
+			return null;
+		}
+
+		CompletableFuture<T> second = tryAcquireHedge() ? submit(releasing(call, bulkhead)) : null;
+		if(second == null && bulkhead != null) {
+			bulkhead.release();
+		}
+
+		return second;
+	}
+
+	private static <T> Supplier<T> releasing(Supplier<T> call, Bulkhead bulkhead) {
+		if(bulkhead == null) {
+			return call;
+		}
+
+		return () -> {
+			try {
+				return call.get();
+			} finally {
+				bulkhead.release();
+			}
+		};
+	}
+
+	private <T> CompletableFuture<T> submit(Supplier<T> call) {
+		try {
+			return CompletableFuture.supplyAsync(call, executor);
+		} catch (RejectedExecutionException exception) {
+			return null;
+		}
+	}
+
+	private <T> void complete(CompletableFuture<T> winner, T result, Throwable exception, AtomicBoolean answered,
+			AtomicInteger failures, boolean hedge) {
+		if(exception == null) {
+			// the winning hedge is counted before its answer is handed to the caller
+			if(answered.compareAndSet(false, true)) {
+				if(hedge) {
+					won.increment();
+				}
+				winner.complete(result);
+			}
+		} else if(failures.incrementAndGet() == 2) {
+			winner.completeExceptionally(exception);
+		}
+	}
+
+	// each call earns a fraction of a hedge
+	private synchronized void earnHedge() {
+		budget = Math.min(maxBudget, budget + settings.maxHedgeRate() / 100.0);
+	}
+
+	private synchronized boolean tryAcquireHedge() {
+		if(budget < 1) {
+			return false;
+		}
+
+		budget--;
+		return true;
+	}
+
+	private synchronized void record(long latency) {
+		latencies[recorded % latencies.length] = latency;
+		recorded++;
+
+		if(recorded >= latencies.length && recorded % recomputeEvery == 0) {
+			long[] sorted = latencies.clone();
+			Arrays.sort(sorted);
+
+			int index = (int) Math.ceil(settings.percentile() / 100.0 * sorted.length) - 1;
+			long percentile = sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+
+			delayNanos = Math.max(settings.minDelay().toNanos(), Math.min(settings.maxDelay().toNanos(), percentile));
+		}
+	}
+
+	private static <T> T await(CompletableFuture<T> future) {
+		try {
+			return future.get();
+		} catch (ExecutionException exception) {
+			throw unwrap(exception.getCause());
+		} catch (InterruptedException exception) {
+			// the caller gave up, the calls in flight finish on their own and give back their slots
+			Thread.currentThread().interrupt();
+			throw new CompletionException(exception);
+		}
+	}
+
+	// rethrow the exact exception of the call, as if it ran on the caller thread
+	private static RuntimeException unwrap(Throwable exception) {
+		if(exception instanceof CompletionException && exception.getCause() != null) {
+			exception = exception.getCause();
+		}
+
+		if(exception instanceof RuntimeException runtimeException) {
+			return runtimeException;
+		}
+
+		if(exception instanceof Error error) {
+			throw error;
+		}
+
+		return new CompletionException(exception);
+	}
+
+}
@@ -1,12 +1,15 @@
 package com.priceline.role.model.base;
 
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.gson.annotations.SerializedName;
+import com.priceline.role.constants.DatabaseConstants;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.MappedSuperclass;
 import lombok.Data;
@@ -17,8 +20,21 @@ import lombok.EqualsAndHashCode;
 @MappedSuperclass
 public abstract class BaseEntity {
 
+    /*
+     * Ids are allocated in blocks from the id_generator table, one row per entity table,
+     * so inserts are not forced to run one by one as they are with IDENTITY columns.
+     * The block size must be kept in line with hibernate.jdbc.batch_size.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "id_generator")
+    @GenericGenerator(name = "id_generator", strategy = "org.hibernate.id.enhanced.TableGenerator", parameters = {
+    	@Parameter(name = "table_name", value = DatabaseConstants.TABLE_ID_GENERATOR),
+    	@Parameter(name = "segment_column_name", value = "sequence_name"),
+    	@Parameter(name = "value_column_name", value = "next_val"),
+    	@Parameter(name = "prefer_entity_table_as_segment_value", value = "true"),
+    	@Parameter(name = "increment_size", value = "50"),
+    	@Parameter(name = "optimizer", value = "pooled-lo")
+    })
     @JsonIgnore
     @SerializedName("internalId")
     private Long id;
@@ -0,0 +1,53 @@
+package com.priceline.role.model.context;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.context.i18n.SimpleLocaleContext;
+
+import com.priceline.role.model.deadline.DeadlineContextHolder;
+
+/**
+ * Request-scoped state of the current thread: the {@link com.priceline.role.model.deadline.Deadline}
+ * and the locale resolved from <code>Accept-Language</code>, used to build error messages.
+ * <br>
+ * Work handed to another thread must be wrapped with {@link #wrap(Supplier)}, so it runs
+ * under the same deadline and its errors are written in the language of the client.
+ */
+public final class RequestContext {
+
+	private RequestContext() {
+	}
+
+	/**
+	 * Binds <code>task</code> to the request context of the calling thread.
+	 *
+	 * @param task the task to bind.
+	 * @return a task running under the current deadline and locale.
+	 */
+	public static <T> Supplier<T> wrap(Supplier<T> task) {
+		final Supplier<T> underDeadline = DeadlineContextHolder.wrap(task);
+
+		final LocaleContext localeContext = LocaleContextHolder.getLocaleContext();
+		if(localeContext == null) {
+			return underDeadline;
+		}
+
+		// resolved now, as the request the context reads from may be recycled before the task runs
+		final Locale locale = localeContext.getLocale();
+
+		return () -> {
+			LocaleContext previous = LocaleContextHolder.getLocaleContext();
+			LocaleContextHolder.setLocaleContext(new SimpleLocaleContext(locale));
+
+			try {
+				return underDeadline.get();
+			} finally {
+				LocaleContextHolder.setLocaleContext(previous);
+			}
+		};
+	}
+
+}
@@ -0,0 +1,63 @@
+package com.priceline.role.model.deadline;
+
+import java.time.Duration;
+
+import lombok.Getter;
+
+/**
+ * Point in time by which a request must be answered.
+ * <br>
+ * Measured against {@link System#nanoTime()}, so it is immune to wall clock changes and only
+ * meaningful within this process.
+ */
+public final class Deadline {
+
+	/**
+	 * Budget the deadline was created with, reported back when it is exceeded.
+	 */
+	@Getter
+	private final Duration timeout;
+
+	private final long nanoTime;
+
+	private Deadline(Duration timeout, long nanoTime) {
+		this.timeout = timeout;
+		this.nanoTime = nanoTime;
+	}
+
+	public static Deadline after(Duration timeout) {
+		return new Deadline(timeout, System.nanoTime() + timeout.toNanos());
+	}
+
+	public long nanoTime() {
+		return nanoTime;
+	}
+
+	public Duration remaining() {
+		return Duration.ofNanos(Math.max(0, nanoTime - System.nanoTime()));
+	}
+
+	public boolean isExpired() {
+		return nanoTime - System.nanoTime() <= 0;
+	}
+
+	/**
+	 * @param timeout the time a call is expected to need at least.
+	 * @return whether less than <code>timeout</code> is left.
+	 */
+	public boolean isShorterThan(Duration timeout) {
+		return nanoTime - System.nanoTime() < timeout.toNanos();
+	}
+
+	/**
+	 * Bounds <code>timeout</code> by the time left, never returning less than one millisecond
+	 * since a zero timeout means no timeout for most clients.
+	 *
+	 * @param timeout the configured timeout.
+	 * @return the shortest of both, in milliseconds.
+	 */
+	public long boundMillis(Duration timeout) {
+		return Math.max(1, Math.min(timeout.toMillis(), remaining().toMillis()));
+	}
+
+}
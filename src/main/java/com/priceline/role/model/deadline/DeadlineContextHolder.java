@@ -0,0 +1,63 @@
+package com.priceline.role.model.deadline;
+
+import java.util.function.Supplier;
+
+/**
+ * Holds the {@link Deadline} of the request served by the current thread.
+ * <br>
+ * Set by the deadline filter for the duration of a request. Work handed to another thread
+ * must be wrapped with {@link #wrap(Supplier)} to keep running under the same deadline, or with
+ * {@link com.priceline.role.model.context.RequestContext#wrap(Supplier)} to also keep the locale.
+ */
+public final class DeadlineContextHolder {
+
+	private static final ThreadLocal<Deadline> DEADLINE = new ThreadLocal<>();
+
+	private DeadlineContextHolder() {
+	}
+
+	/**
+	 * @return the deadline of the current request, or <code>null</code> if there is none.
+	 */
+	public static Deadline get() {
+		return DEADLINE.get();
+	}
+
+	public static void set(Deadline deadline) {
+		if(deadline == null) {
+			DEADLINE.remove();
+		} else {
+			DEADLINE.set(deadline);
+		}
+	}
+
+	public static void reset() {
+		DEADLINE.remove();
+	}
+
+	/**
+	 * Binds <code>task</code> to the deadline of the calling thread, so it is honoured
+	 * wherever the task runs.
+	 *
+	 * @param task the task to bind.
+	 * @return a task running under the current deadline.
+	 */
+	public static <T> Supplier<T> wrap(Supplier<T> task) {
+		final Deadline deadline = get();
+		if(deadline == null) {
+			return task;
+		}
+
+		return () -> {
+			Deadline previous = get();
+			set(deadline);
+
+			try {
+				return task.get();
+			} finally {
+				set(previous);
+			}
+		};
+	}
+
+}
@@ -0,0 +1,20 @@
+package com.priceline.role.model.exception;
+
+import java.time.Duration;
+
+import com.priceline.role.enums.MessageEnum;
+
+/**
+ * Calls to a dependency are suspended after repeated failures, reported as
+ * <code>503 Service Unavailable</code> with the time left before the dependency is probed again.
+ */
+public class CircuitBreakerOpenException extends ServiceUnavailableException {
+
+    private static final long serialVersionUID = 1L;
+
+    public CircuitBreakerOpenException(String dependency, Duration retryAfter) {
+        super(MessageEnum.EXCEPTION_CIRCUIT_OPEN_DESCRIPTION, MessageEnum.EXCEPTION_CIRCUIT_OPEN_ERR,
+                MessageEnum.EXCEPTION_CIRCUIT_OPEN_HELP, dependency, retryAfter);
+    }
+
+}
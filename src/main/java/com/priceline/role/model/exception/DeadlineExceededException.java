@@ -0,0 +1,27 @@
+package com.priceline.role.model.exception;
+
+import java.time.Duration;
+
+import org.springframework.http.HttpStatus;
+
+import com.priceline.role.enums.MessageEnum;
+
+/**
+ * Work could not be completed within the deadline of the request, reported as
+ * <code>504 Gateway Timeout</code>.
+ * <br>
+ * Raised before a call is issued as well as after it timed out.
+ */
+public class DeadlineExceededException extends StacklessException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DeadlineExceededException(String operation, Duration timeout) {
+        super(
+                MessageEnum.EXCEPTION_DEADLINE_EXCEEDED_DESCRIPTION, null, // description
+                MessageEnum.EXCEPTION_DEADLINE_EXCEEDED_ERR, new Object[] { operation, String.valueOf(timeout.toMillis()) }, // error message
+                MessageEnum.EXCEPTION_DEADLINE_EXCEEDED_HELP, null, // help
+                HttpStatus.GATEWAY_TIMEOUT);
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.priceline.role.model.exception;
+
+import java.time.Duration;
+
+import org.springframework.http.HttpStatus;
+
+import com.priceline.role.enums.MessageEnum;
+
+/**
+ * Lookups could not be completed within the time allowed to them, reported as
+ * <code>504 Gateway Timeout</code>.
+ */
+public class LookupTimeoutException extends StacklessException {
+
+    private static final long serialVersionUID = 1L;
+
+    public LookupTimeoutException(String operation, Duration timeout) {
+        super(
+                MessageEnum.EXCEPTION_LOOKUP_TIMEOUT_DESCRIPTION, null, // description
+                MessageEnum.EXCEPTION_LOOKUP_TIMEOUT_ERR, new Object[] { operation, String.valueOf(timeout.toMillis()) }, // error message
+                MessageEnum.EXCEPTION_LOOKUP_TIMEOUT_HELP, null, // help
+                HttpStatus.GATEWAY_TIMEOUT);
+    }
+
+}
@@ -1,5 +1,7 @@
 package com.priceline.role.model.exception;
 
+import java.time.Duration;
+
 import org.springframework.http.HttpStatus;
 
 import lombok.Getter;
@@ -17,6 +19,9 @@ public class PricelineApiException extends RuntimeException {
     @Getter
     private final HttpStatus status;
 
+    @Getter
+    private final Duration retryAfter;
+
     /**
      * This is the main <code>Exception</code> class used by this tool.
      * <br>
@@ -28,10 +33,35 @@ public class PricelineApiException extends RuntimeException {
      * @param status the <code>HttpStatus</code> status that should be returned.
      */
     public PricelineApiException(String description, String errorMessage, String help, HttpStatus status) {
-        super(errorMessage);
+        this(description, errorMessage, help, status, null);
+    }
+
+    /**
+     * @param description a descriptive text to inform what happened. High level, not technical.
+     * @param errorMessage the exception message, used for troubleshooting purposes.
+     * @param help a debug message with more information to identify the issue.
+     * @param status the <code>HttpStatus</code> status that should be returned.
+     * @param retryAfter the delay after which the request may succeed, sent as the <code>Retry-After</code> header.
+     */
+    public PricelineApiException(String description, String errorMessage, String help, HttpStatus status, Duration retryAfter) {
+        this(description, errorMessage, help, status, retryAfter, true);
+    }
+
+    /**
+     * @param description a descriptive text to inform what happened. High level, not technical.
+     * @param errorMessage the exception message, used for troubleshooting purposes.
+     * @param help a debug message with more information to identify the issue.
+     * @param status the <code>HttpStatus</code> status that should be returned.
+     * @param retryAfter the delay after which the request may succeed, sent as the <code>Retry-After</code> header.
+     * @param writableStackTrace whether the stack trace is filled in, see <code>StacklessException</code>.
+     */
+    public PricelineApiException(String description, String errorMessage, String help, HttpStatus status, Duration retryAfter,
+            boolean writableStackTrace) {
+        super(errorMessage, null, true, writableStackTrace);
         this.description = description;
         this.help = help;
         this.status = status;
+        this.retryAfter = retryAfter;
     }
 
 }
\ No newline at end of file
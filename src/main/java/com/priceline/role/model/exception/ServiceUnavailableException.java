@@ -0,0 +1,37 @@
+package com.priceline.role.model.exception;
+
+import java.time.Duration;
+
+import org.springframework.http.HttpStatus;
+
+import com.priceline.role.enums.MessageEnum;
+
+import lombok.Getter;
+
+/**
+ * A dependency is not accepting calls for now, reported as <code>503 Service Unavailable</code>
+ * with a <code>Retry-After</code> header.
+ */
+public class ServiceUnavailableException extends StacklessException {
+
+    private static final long serialVersionUID = 1L;
+
+    @Getter
+    private final Duration retryAfter;
+
+    public ServiceUnavailableException(String dependency, Duration retryAfter) {
+        this(MessageEnum.EXCEPTION_SERVICE_UNAVAILABLE_DESCRIPTION, MessageEnum.EXCEPTION_SERVICE_UNAVAILABLE_ERR,
+                MessageEnum.EXCEPTION_SERVICE_UNAVAILABLE_HELP, dependency, retryAfter);
+    }
+
+    protected ServiceUnavailableException(MessageEnum description, MessageEnum errorMessage, MessageEnum help,
+            String dependency, Duration retryAfter) {
+        super(
+                description, null, // description
+                errorMessage, new Object[] { dependency }, // error message
+                help, new Object[] { Math.max(1, (retryAfter.toMillis() + 999) / 1000) }, // help, in whole seconds rounded up
+                HttpStatus.SERVICE_UNAVAILABLE);
+        this.retryAfter = retryAfter;
+    }
+
+}
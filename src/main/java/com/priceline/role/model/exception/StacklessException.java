@@ -0,0 +1,27 @@
+package com.priceline.role.model.exception;
+
+import org.springframework.http.HttpStatus;
+
+import com.priceline.role.enums.MessageEnum;
+
+/**
+ * Base of the exceptions raised in bursts, under bad client traffic or while a dependency is degraded.
+ * <br>
+ * They are fully described by their message, so the stack trace is never filled in, neither here
+ * nor on the <code>PricelineApiException</code> they are reported as.
+ */
+public abstract class StacklessException extends BaseException {
+
+    private static final long serialVersionUID = 1L;
+
+    protected StacklessException(MessageEnum description, Object[] descriptionArgs, MessageEnum errorMessage,
+            Object[] errorMessageArgs, MessageEnum help, Object[] helpArgs, HttpStatus httpStatus) {
+        super(description, descriptionArgs, errorMessage, errorMessageArgs, help, helpArgs, httpStatus);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+
+}
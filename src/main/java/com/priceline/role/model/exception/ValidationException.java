@@ -0,0 +1,22 @@
+package com.priceline.role.model.exception;
+
+import org.springframework.http.HttpStatus;
+
+import com.priceline.role.enums.MessageEnum;
+
+/**
+ * Validation failure, reported as <code>400 Bad Request</code>.
+ */
+public class ValidationException extends StacklessException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ValidationException(MessageEnum errorMessage, Object... errorMessageArgs) {
+        super(
+                MessageEnum.VALIDATION_FAILURE_DESCRIPTION, null, // description
+                errorMessage, errorMessageArgs, // error message
+                null, null, // help
+                HttpStatus.BAD_REQUEST);
+    }
+
+}
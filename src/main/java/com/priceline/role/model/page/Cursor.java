@@ -0,0 +1,73 @@
+package com.priceline.role.model.page;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import lombok.Getter;
+
+/**
+ * Position of a page within a listing ordered by internal id.
+ * <br>
+ * A cursor points either after or before a given id, and is exchanged with clients as a
+ * URL-safe string. The encoding only keeps the cursor safe to send in a query string: it is
+ * neither signed nor encrypted, so the internal id it holds can be decoded by anyone, and a
+ * cursor altered by a client is only rejected when malformed.
+ */
+@Getter
+public final class Cursor {
+
+	private static final Cursor START = new Cursor(false, 0L);
+
+	private final boolean before;
+
+	private final long id;
+
+	private Cursor(boolean before, long id) {
+		this.before = before;
+		this.id = id;
+	}
+
+	public static Cursor start() {
+		return START;
+	}
+
+	public static Cursor after(long id) {
+		return new Cursor(false, id);
+	}
+
+	public static Cursor before(long id) {
+		return new Cursor(true, id);
+	}
+
+	public boolean isStart() {
+		return !before && id == START.id;
+	}
+
+	public String encode() {
+		String value = (before ? "b" : "a") + id;
+
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Decodes a cursor previously created by {@link #encode()}.
+	 *
+	 * @param value the encoded cursor.
+	 * @return the cursor.
+	 * @throws IllegalArgumentException if the value is not a valid cursor.
+	 */
+	public static Cursor decode(String value) throws IllegalArgumentException {
+		String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+		if(decoded.length() < 2 || (decoded.charAt(0) != 'a' && decoded.charAt(0) != 'b')) {
+			throw new IllegalArgumentException("Invalid cursor " + value);
+		}
+
+		long id = Long.parseLong(decoded.substring(1));
+		if(id < 0) {
+			throw new IllegalArgumentException("Invalid cursor " + value);
+		}
+
+		return new Cursor(decoded.charAt(0) == 'b', id);
+	}
+
+}
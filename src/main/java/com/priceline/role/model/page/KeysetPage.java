@@ -0,0 +1,69 @@
+package com.priceline.role.model.page;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.priceline.role.model.base.BaseEntity;
+
+import lombok.Getter;
+
+/**
+ * A page of entities ordered by internal id, with the cursors of the pages around it.
+ * <br>
+ * Cursors are <code>null</code> when there is no page in that direction.
+ *
+ * @param <T> the entity type.
+ */
+@Getter
+public class KeysetPage<T extends BaseEntity> {
+
+	private final List<T> content;
+
+	private final String nextCursor;
+
+	private final String previousCursor;
+
+	private KeysetPage(List<T> content, String nextCursor, String previousCursor) {
+		this.content = content;
+		this.nextCursor = nextCursor;
+		this.previousCursor = previousCursor;
+	}
+
+	/**
+	 * Builds a page from rows fetched with one more row than the page size, which tells
+	 * whether another page exists in the direction of the cursor.
+	 *
+	 * @param rows the rows, in ascending id order after the cursor or descending id order before it.
+	 * @param cursor the cursor used to fetch the rows.
+	 * @param size the page size.
+	 * @return the page, in ascending id order.
+	 */
+	public static <T extends BaseEntity> KeysetPage<T> of(List<T> rows, Cursor cursor, int size) {
+		List<T> content = new ArrayList<>(rows);
+		boolean hasMore = content.size() > size;
+
+		if(cursor.isBefore()) {
+			Collections.reverse(content);
+			if(hasMore) {
+				content.remove(0);
+			}
+		} else if(hasMore) {
+			content.remove(content.size() - 1);
+		}
+
+		if(content.isEmpty()) {
+			return new KeysetPage<>(content, null, null);
+		}
+
+		long firstId = content.get(0).getId();
+		long lastId = content.get(content.size() - 1).getId();
+
+		// moving backwards always leaves a page ahead, moving forwards always leaves one behind
+		String nextCursor = cursor.isBefore() || hasMore ? Cursor.after(lastId).encode() : null;
+		String previousCursor = (cursor.isBefore() ? hasMore : !cursor.isStart()) ? Cursor.before(firstId).encode() : null;
+
+		return new KeysetPage<>(content, nextCursor, previousCursor);
+	}
+
+}
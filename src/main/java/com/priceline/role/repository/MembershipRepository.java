@@ -1,13 +1,25 @@
 package com.priceline.role.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import com.priceline.role.constants.DatabaseConstants;
+import com.priceline.role.dto.MembershipRowDTO;
 import com.priceline.role.model.Membership;
 import com.priceline.role.model.Role;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface MembershipRepository extends JpaRepository<Membership, Long> {
     
@@ -15,8 +27,59 @@ public interface MembershipRepository extends JpaRepository<Membership, Long> {
 	
 	Membership findByUserIdAndTeamIdAndRole(String userId, String teamId, Role role);
 	
+	List<Membership> findByUserIdInAndTeamIdIn(Collection<String> userIds, Collection<String> teamIds);
+	
 	List<Membership> findByRole_uid(String roleUid);
 	
+	/*
+	 * Projections of the memberships of a role, around a keyset cursor. Only membership
+	 * columns are read, filtering on the role foreign key without joining the role table.
+	 */
+	@Query("select new com.priceline.role.dto.MembershipRowDTO(m.id, m.uid, m.userId, m.teamId) from membership m "
+			+ "where m.role.id = :roleId and m.id > :id")
+	List<MembershipRowDTO> findRowsByRoleIdAndIdGreaterThan(Long roleId, Long id, Pageable pageable);
+	
+	@Query("select new com.priceline.role.dto.MembershipRowDTO(m.id, m.uid, m.userId, m.teamId) from membership m "
+			+ "where m.role.id = :roleId and m.id < :id")
+	List<MembershipRowDTO> findRowsByRoleIdAndIdLessThan(Long roleId, Long id, Pageable pageable);
+	
+	/**
+	 * Selects only the role of a membership, in a single query that never hydrates the
+	 * membership itself. The role is loaded read-only, so no snapshot is kept for dirty checking.
+	 */
+	@Query("select r from membership m join m.role r where m.uid = :membershipUid")
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+	Optional<Role> findRoleByMembershipUid(String membershipUid);
+	
+	@EntityGraph(attributePaths = "role")
+	List<Membership> findByIdGreaterThan(Long id, Pageable pageable);
+	
+	@EntityGraph(attributePaths = "role")
+	List<Membership> findByIdLessThan(Long id, Pageable pageable);
+	
+	/**
+	 * Streams all memberships with their role through a forward-only result set, read row by
+	 * row as the server sends it, so memory does not grow with the table.
+	 * <br>
+	 * Must be consumed and closed within a transaction, and the connection cannot run other
+	 * statements until the stream is closed.
+	 */
+	@Query("select m from membership m join fetch m.role order by m.id")
+	@QueryHints({
+		@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = DatabaseConstants.STREAM_FETCH_SIZE),
+		@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+		@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+	})
+	Stream<Membership> streamAll();
+	
 	void deleteByUid(String uid);
+	
+	/*
+	 * Version of the membership table: row count, highest id and time of the last write.
+	 * Deletes lower the count, inserts and updates move the time of the last write.
+	 */
+	@Query(nativeQuery = true, value = "SELECT CONCAT(COUNT(*), '.', COALESCE(MAX(id), 0), '.', "
+			+ "COALESCE(DATE_FORMAT(MAX(updated_at), '%Y%m%d%H%i%s%f'), 0)) FROM membership")
+	String findVersion();
 
 }
\ No newline at end of file
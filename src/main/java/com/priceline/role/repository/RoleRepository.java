@@ -1,7 +1,14 @@
 package com.priceline.role.repository;
 
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.priceline.role.model.Role;
 
@@ -14,6 +21,27 @@ public interface RoleRepository extends JpaRepository<Role, Long> {
 	
 	Role findByDefaultRoleTrue();
 	
+	List<Role> findByIdGreaterThan(Long id, Pageable pageable);
+	
+	List<Role> findByIdLessThan(Long id, Pageable pageable);
+	
+	/*
+	 * Makes the role identified by uid the only default role in a single statement.
+	 * Nothing is changed when the role does not exist. The derived table is needed because
+	 * MySQL does not allow a subquery on the updated table, and rows are updated starting
+	 * from the current default so the unique key on default_marker is never violated.
+	 * The LIMIT keeps the optimizer from merging the derived table into the update, which would
+	 * raise error 1093 again when derived_merge is on.
+	 * Returns the number of matched rows, zero when the role does not exist.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query(nativeQuery = true, value = "UPDATE role SET default_role = (uid = :uid) "
+			+ "WHERE (default_role = TRUE OR uid = :uid) "
+			+ "AND EXISTS (SELECT 1 FROM (SELECT id FROM role WHERE uid = :uid LIMIT 1) AS target) "
+			+ "ORDER BY default_role DESC")
+	int updateDefaultRole(@Param("uid") String uid);
+	
 	void deleteByUid(String uid);
 
 }
\ No newline at end of file
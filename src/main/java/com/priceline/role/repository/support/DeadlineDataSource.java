@@ -0,0 +1,81 @@
+package com.priceline.role.repository.support;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import com.priceline.role.model.deadline.Deadline;
+import com.priceline.role.model.deadline.DeadlineContextHolder;
+import com.priceline.role.model.exception.DeadlineExceededException;
+
+/**
+ * Applies the request deadline to every statement as its JDBC query timeout.
+ * <br>
+ * Statements created once the deadline expired are closed and rejected before they reach the
+ * database. JDBC timeouts are expressed in whole seconds, so the time left is rounded up.
+ * Statements created without a deadline, such as the streamed export, are left untouched.
+ */
+public class DeadlineDataSource extends DelegatingDataSource {
+
+	public DeadlineDataSource(DataSource targetDataSource) {
+		super(targetDataSource);
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return withDeadline(obtainTargetDataSource().getConnection());
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return withDeadline(obtainTargetDataSource().getConnection(username, password));
+	}
+
+	private Connection withDeadline(Connection connection) {
+		return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+			switch (method.getName()) {
+				case "equals":
+					return proxy == args[0];
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				default:
+					break;
+			}
+
+			Object result;
+			try {
+				result = method.invoke(connection, args);
+			} catch (InvocationTargetException exception) {
+				throw exception.getTargetException();
+			}
+
+			if(result instanceof Statement statement) {
+				applyDeadline(statement);
+			}
+
+			return result;
+		});
+	}
+
+	private static void applyDeadline(Statement statement) throws SQLException {
+		Deadline deadline = DeadlineContextHolder.get();
+		if(deadline == null) {
+			return;
+		}
+
+		if(deadline.isExpired()) {
+			statement.close();
+			throw new DeadlineExceededException("Database", deadline.getTimeout());
+		}
+
+		long millis = deadline.remaining().toMillis();
+		statement.setQueryTimeout((int) Math.max(1, (millis + 999) / 1000));
+	}
+
+}
@@ -1,10 +1,13 @@
 package com.priceline.role.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
+import com.priceline.role.dto.MembershipBatchResultDTO;
 import com.priceline.role.dto.MembershipDTO;
 import com.priceline.role.model.Membership;
 import com.priceline.role.model.Role;
+import com.priceline.role.model.page.KeysetPage;
 import com.priceline.role.service.base.AbstractDelete;
 import com.priceline.role.service.base.AbstractRead;
 import com.priceline.role.service.base.AbstractSave;
@@ -16,5 +19,11 @@ public abstract class MembershipService implements AbstractRead<Membership>,
 	public abstract Role findRoleOfMembership(String membershipUid);
 	
 	public abstract List<Membership> findMembershipsOfRole(String roleUid);
+	
+	public abstract KeysetPage<Membership> findMembershipsOfRole(String roleUid, String cursor, Integer size);
+	
+	public abstract List<MembershipBatchResultDTO> saveAll(List<MembershipDTO> dtos);
+	
+	public abstract void exportAll(Consumer<Membership> consumer);
 
 }
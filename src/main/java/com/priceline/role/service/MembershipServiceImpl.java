@@ -1,28 +1,68 @@
 package com.priceline.role.service;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.priceline.role.constants.DatabaseConstants;
+import com.priceline.role.dto.MembershipBatchResultDTO;
 import com.priceline.role.dto.MembershipDTO;
+import com.priceline.role.dto.MembershipRowDTO;
 import com.priceline.role.dto.TeamDTO;
 import com.priceline.role.dto.UserDTO;
 import com.priceline.role.enums.MessageEnum;
 import com.priceline.role.facade.PricelineFacade;
+import com.priceline.role.facade.cache.TeamRosterIndex;
 import com.priceline.role.model.Membership;
 import com.priceline.role.model.Role;
+import com.priceline.role.model.context.RequestContext;
+import com.priceline.role.model.deadline.Deadline;
+import com.priceline.role.model.deadline.DeadlineContextHolder;
+import com.priceline.role.model.exception.DeadlineExceededException;
 import com.priceline.role.model.exception.EntityNotFoundException;
+import com.priceline.role.model.exception.LookupTimeoutException;
 import com.priceline.role.model.exception.PricelineApiException;
+import com.priceline.role.model.page.KeysetPage;
 import com.priceline.role.repository.MembershipRepository;
+import com.priceline.role.service.catalog.MembershipVersionMonitor;
 import com.priceline.role.service.system.ExceptionService;
+import com.priceline.role.service.system.PaginationService;
 import com.priceline.role.service.system.ValidationService;
 
+import jakarta.persistence.EntityManager;
+
 @Service
 public class MembershipServiceImpl extends MembershipService {
 	
     private final MembershipRepository membershipRepository;
+    
+    private final EntityManager entityManager;
 	
     private final ExceptionService exceptionService;
     
@@ -32,13 +72,37 @@ public class MembershipServiceImpl extends MembershipService {
     
     private final ValidationService validationService;
     
-    public MembershipServiceImpl(MembershipRepository membershipRepository, ExceptionService exceptionService,
-    		PricelineFacade pricelineFacade, RoleService roleService, ValidationService validationService) {
+    private final PaginationService paginationService;
+    
+    private final MembershipVersionMonitor membershipVersionMonitor;
+    
+    private final Executor validationExecutor;
+    
+    private final long validationTimeout;
+    
+    private final int batchMaxSize;
+    
+    private final boolean requireTeamMember;
+    
+    public MembershipServiceImpl(MembershipRepository membershipRepository, EntityManager entityManager, ExceptionService exceptionService,
+    		PricelineFacade pricelineFacade, RoleService roleService, ValidationService validationService,
+    		PaginationService paginationService, MembershipVersionMonitor membershipVersionMonitor,
+    		@Qualifier("validationExecutor") Executor validationExecutor,
+    		@Value("${membership.validation.timeout}") final long validationTimeout,
+    		@Value("${membership.batch.max-size}") final int batchMaxSize,
+    		@Value("${membership.validation.require-team-member}") final boolean requireTeamMember) {
     	this.membershipRepository = membershipRepository;
+    	this.entityManager = entityManager;
     	this.exceptionService = exceptionService;
     	this.pricelineFacade = pricelineFacade;
     	this.roleService = roleService;
     	this.validationService = validationService;
+    	this.paginationService = paginationService;
+    	this.membershipVersionMonitor = membershipVersionMonitor;
+    	this.validationExecutor = validationExecutor;
+    	this.validationTimeout = validationTimeout;
+    	this.batchMaxSize = batchMaxSize;
+    	this.requireTeamMember = requireTeamMember;
     }
 
     // ----------------------------------------------------
@@ -60,13 +124,19 @@ public class MembershipServiceImpl extends MembershipService {
         }
     }
 
+    public KeysetPage<Membership> findPage(String cursor, Integer size) throws PricelineApiException {
+        try {
+            return paginationService.findPage(cursor, size, membershipRepository::findByIdGreaterThan, membershipRepository::findByIdLessThan);
+        } catch (Exception exception) {
+            throw exceptionService.throwRuntimeException(exception, MessageEnum.MEMBERSHIP_ERROR_FIND_ALL_HELP);
+        }
+    }
+
     public Role findRoleOfMembership(String membershipUid) {
     	try {
-            Membership membership = membershipRepository.findByUid(membershipUid);
-            
-            return membership.getRole();
+            return membershipRepository.findRoleByMembershipUid(membershipUid).orElseThrow(() -> new EntityNotFoundException(membershipUid));
         } catch (Exception exception) {
-            throw exceptionService.throwRuntimeException(exception, MessageEnum.MEMBERSHIP_ERROR_FIND_ROLE_OF_MEMBERSHIP_HELP);
+            throw exceptionService.throwRuntimeException(exception, MessageEnum.MEMBERSHIP_ERROR_FIND_ROLE_OF_MEMBERSHIP_HELP, membershipUid);
         }
     }
 	
@@ -77,6 +147,38 @@ public class MembershipServiceImpl extends MembershipService {
             throw exceptionService.throwRuntimeException(exception, MessageEnum.MEMBERSHIP_ERROR_FIND_MEMBERSHIPS_OF_ROLE_HELP);
         }
 	}
+	
+	public KeysetPage<Membership> findMembershipsOfRole(String roleUid, String cursor, Integer size) throws PricelineApiException {
+		// unknown roles are reported as not found
+		Role role = roleService.findByUid(roleUid);
+		
+		try {
+			// rows are read as projections and share the role loaded above
+			return paginationService.findPage(cursor, size,
+					(id, pageable) -> toMemberships(membershipRepository.findRowsByRoleIdAndIdGreaterThan(role.getId(), id, pageable), role),
+					(id, pageable) -> toMemberships(membershipRepository.findRowsByRoleIdAndIdLessThan(role.getId(), id, pageable), role));
+		} catch (Exception exception) {
+            throw exceptionService.throwRuntimeException(exception, MessageEnum.MEMBERSHIP_ERROR_FIND_MEMBERSHIPS_OF_ROLE_HELP, roleUid);
+        }
+	}
+	
+	private List<Membership> toMemberships(List<MembershipRowDTO> rows, Role role) {
+		return rows.stream().map(row -> row.toMembership(role)).toList();
+	}
+    
+    @Transactional(readOnly = true)
+    public void exportAll(Consumer<Membership> consumer) throws PricelineApiException {
+    	try (Stream<Membership> memberships = membershipRepository.streamAll()) {
+    		memberships.forEach(membership -> {
+    			consumer.accept(membership);
+    			
+    			// keep the persistence context from growing with the table
+    			entityManager.detach(membership);
+    		});
+    	} catch (Exception exception) {
+    		throw exceptionService.throwRuntimeException(exception, MessageEnum.MEMBERSHIP_ERROR_EXPORT_HELP);
+    	}
+    }
     
     // ----------------------------------------------------
     // Persist
@@ -87,10 +189,159 @@ public class MembershipServiceImpl extends MembershipService {
     	validate(dto);
     	
     	// convert DTO to object and create UUID
-    	Membership role = dto.toMembership();
-    	role.setUid(UUID.randomUUID().toString());
+    	Membership membership = dto.toMembership();
+    	membership.setUid(UUID.randomUUID().toString());
+    	
+    	try {
+    		// uniqueness is enforced by the unique key, which also covers concurrent inserts
+    		membership = membershipRepository.saveAndFlush(membership);
+    		membershipVersionMonitor.refreshAfterCommit();
+    		
+    		return membership;
+    	} catch (Exception exception) {
+    		if(isUniqueKeyViolation(exception)) {
+    			exceptionService.throwIllegalArgumentException(MessageEnum.VALIDATION_FAILURE_UNIQUENESS_ERR);
+    		}
+    		
+    		throw exceptionService.throwRuntimeException(exception, MessageEnum.MEMBERSHIP_ERROR_SAVE_HELP);
+    	}
+    }
+    
+    public List<MembershipBatchResultDTO> saveAll(List<MembershipDTO> dtos) throws PricelineApiException {
+    	// batch must not be empty nor exceed max size
+    	if(dtos == null || dtos.isEmpty() || dtos.size() > batchMaxSize) {
+    		exceptionService.throwIllegalArgumentException(MessageEnum.VALIDATION_FAILURE_BATCH_SIZE_ERR, batchMaxSize);
+    	}
+    	
+    	MembershipBatchResultDTO[] results = new MembershipBatchResultDTO[dtos.size()];
+    	Map<Integer, MembershipDTO> candidates = new LinkedHashMap<>();
+    	Set<Integer> listed = new HashSet<>();
+    	
+    	// validate attributes of each item, rejecting invalid items only
+    	for(int index = 0; index < dtos.size(); index++) {
+    		MembershipDTO dto = dtos.get(index);
+    		
+    		try {
+    			validationService.validateRequired(dto, "membership");
+    			dto.setUid(null);
+    			validateAttributes(dto);
+    			if(isListedInTeam(dto.getUserId(), dto.getTeamId())) {
+    				listed.add(index);
+    			}
+    			
+    			candidates.put(index, dto);
+    		} catch (PricelineApiException exception) {
+    			results[index] = MembershipBatchResultDTO.rejected(index, exception);
+    		}
+    	}
+    	
+    	// lookup each distinct user, team and role only once, all bound to a single deadline,
+    	// leaving out users listed in their team
+    	List<MembershipDTO> unlisted = candidates.entrySet().stream().filter(candidate -> !listed.contains(candidate.getKey())).map(Map.Entry::getValue).toList();
+    	Map<String, Future<UserDTO>> userLookups = lookupAll(unlisted, MembershipDTO::getUserId, pricelineFacade::findUserById);
+    	Map<String, Future<TeamDTO>> teamLookups = lookupAll(candidates.values(), MembershipDTO::getTeamId, pricelineFacade::findTeamById);
+    	Map<String, Future<Role>> roleLookups = lookupAll(candidates.values(), this::getRoleUid, this::findRole);
+    	
+    	final long deadline = validationDeadline();
+    	Map<Integer, Membership> accepted = new LinkedHashMap<>();
+    	
+    	try {
+    		// memberships that already exist, fetched with a single query while lookups run
+    		Set<String> userIds = candidates.values().stream().map(MembershipDTO::getUserId).collect(Collectors.toSet());
+    		Set<List<String>> uniqueKeys = findExistingKeys(userIds, teamLookups.keySet());
+    		
+    		for(Map.Entry<Integer, MembershipDTO> candidate : candidates.entrySet()) {
+    			final int index = candidate.getKey();
+    			final MembershipDTO dto = candidate.getValue();
+    			
+    			try {
+    				// validate user and team
+    				if(!listed.contains(index) && await(userLookups.get(dto.getUserId()), deadline) == null) {
+    					exceptionService.throwIllegalArgumentException(MessageEnum.USER_API_USER_NOT_FOUND_HELP, dto.getUserId());
+    				}
+    				
+    				TeamDTO teamDTO = await(teamLookups.get(dto.getTeamId()), deadline);
+    				if(teamDTO == null) {
+    					exceptionService.throwIllegalArgumentException(MessageEnum.TEAM_API_TEAM_NOT_FOUND_HELP, dto.getTeamId());
+    				}
+    				
+    				validateTeamMember(dto.getUserId(), teamDTO);
+    				
+    				// load role
+    				dto.setRole(await(roleLookups.get(getRoleUid(dto)), deadline));
+    				
+    				// ensure membership is unique, both in database and within the batch
+    				Membership membership = dto.toMembership();
+    				if(!uniqueKeys.add(uniqueKey(membership))) {
+    					exceptionService.throwIllegalArgumentException(MessageEnum.VALIDATION_FAILURE_UNIQUENESS_ERR);
+    				}
+    				
+    				membership.setUid(UUID.randomUUID().toString());
+    				accepted.put(index, membership);
+    			} catch (PricelineApiException exception) {
+    				results[index] = MembershipBatchResultDTO.rejected(index, exception);
+    			}
+    		}
+    	} finally {
+    		// lookups no longer needed are interrupted, so queued ones never run and running ones
+    		// stop waiting for a slot of the bulkhead or of a connection pool
+    		userLookups.values().forEach(lookup -> lookup.cancel(true));
+    		teamLookups.values().forEach(lookup -> lookup.cancel(true));
+    		roleLookups.values().forEach(lookup -> lookup.cancel(true));
+    	}
+    	
+    	// insert accepted memberships, grouped in JDBC batches
+    	if(!accepted.isEmpty()) {
+    		try {
+    			membershipRepository.saveAll(accepted.values());
+    			membershipVersionMonitor.refreshAfterCommit();
+    			accepted.forEach((index, membership) -> results[index] = MembershipBatchResultDTO.created(index, membership));
+    		} catch (Exception exception) {
+    			if(!isUniqueKeyViolation(exception)) {
+    				throw exceptionService.throwRuntimeException(exception, MessageEnum.MEMBERSHIP_ERROR_SAVE_ALL_HELP);
+    			}
+    			
+    			// a membership was inserted concurrently after the existing ones were read, which rolled
+    			// the batch back, so its memberships are inserted one by one to reject only the duplicates
+    			saveEach(accepted, results);
+    		}
+    	}
+    	
+    	return Arrays.asList(results);
+    }
+
+    private void saveEach(Map<Integer, Membership> accepted, MembershipBatchResultDTO[] results) {
+    	boolean saved = false;
+    	
+    	for(Map.Entry<Integer, Membership> entry : accepted.entrySet()) {
+    		final int index = entry.getKey();
+    		final Membership membership = entry.getValue();
+    		
+    		try {
+    			// ids allocated to the rolled back batch are dropped, so each membership is inserted as new
+    			membership.setId(null);
+    			results[index] = MembershipBatchResultDTO.created(index, membershipRepository.saveAndFlush(membership));
+    			saved = true;
+    		} catch (Exception exception) {
+    			results[index] = MembershipBatchResultDTO.rejected(index, toSaveFailure(exception));
+    		}
+    	}
     	
-    	return membershipRepository.save(role);
+    	if(saved) {
+    		membershipVersionMonitor.refreshAfterCommit();
+    	}
+    }
+    
+    private PricelineApiException toSaveFailure(Exception exception) {
+    	try {
+    		if(isUniqueKeyViolation(exception)) {
+    			exceptionService.throwIllegalArgumentException(MessageEnum.VALIDATION_FAILURE_UNIQUENESS_ERR);
+    		}
+    		
+    		throw exceptionService.throwRuntimeException(exception, MessageEnum.MEMBERSHIP_ERROR_SAVE_HELP);
+    	} catch (PricelineApiException failure) {
+    		return failure;
+    	}
     }
 
     // ----------------------------------------------------
@@ -99,6 +350,7 @@ public class MembershipServiceImpl extends MembershipService {
     public void delete(String uid) throws PricelineApiException {
     	 try {
     		 membershipRepository.deleteByUid(uid);
+    		 membershipVersionMonitor.refreshAfterCommit();
 	    } catch (Exception exception) {
 	    	throw exceptionService.throwRuntimeException(exception, MessageEnum.MEMBERSHIP_ERROR_DELETE_HELP, uid);
 	    }
@@ -108,6 +360,47 @@ public class MembershipServiceImpl extends MembershipService {
     // Validation
     // ----------------------------------------------------
     public void validate(MembershipDTO dto) throws PricelineApiException {
+    	validateAttributes(dto);
+    	
+    	// lookup user, team and role concurrently, all bound to a single deadline
+    	final String userId = dto.getUserId();
+    	final String teamId = dto.getTeamId();
+    	final String roleUid = getRoleUid(dto);
+    	final boolean listed = isListedInTeam(userId, teamId);
+    	
+    	Future<UserDTO> userLookup = listed ? null : lookup(() -> pricelineFacade.findUserById(userId));
+    	Future<TeamDTO> teamLookup = lookup(() -> pricelineFacade.findTeamById(teamId));
+    	Future<Role> roleLookup = lookup(() -> findRole(roleUid));
+    	
+    	final long deadline = validationDeadline();
+    	
+    	try {
+    		// validate user and team
+	    	if(!listed && await(userLookup, deadline) == null) {
+	    		exceptionService.throwIllegalArgumentException(MessageEnum.USER_API_USER_NOT_FOUND_HELP, userId);
+	    	}
+	    	
+	    	TeamDTO teamDTO = await(teamLookup, deadline);
+			if(teamDTO == null) {
+				exceptionService.throwIllegalArgumentException(MessageEnum.TEAM_API_TEAM_NOT_FOUND_HELP, teamId);
+	    	}
+			
+			validateTeamMember(userId, teamDTO);
+	    	
+	    	// load role
+	    	dto.setRole(await(roleLookup, deadline));
+    	} finally {
+    		// lookups no longer needed are interrupted, so queued ones never run and running ones
+    		// stop waiting for a slot of the bulkhead or of a connection pool
+    		if(userLookup != null) {
+    			userLookup.cancel(true);
+    		}
+    		teamLookup.cancel(true);
+    		roleLookup.cancel(true);
+    	}
+    }
+    
+    private void validateAttributes(MembershipDTO dto) throws PricelineApiException {
     	// user id is required
     	validationService.validateRequired(dto.getUserId(), "userId");
     	validationService.validateStringMaxLength(dto.getUserId(), "userId", 40);
@@ -115,33 +408,116 @@ public class MembershipServiceImpl extends MembershipService {
     	// team id is required
     	validationService.validateRequired(dto.getTeamId(), "teamId");
     	validationService.validateStringMaxLength(dto.getTeamId(), "teamId", 40);
+    }
+    
+    /*
+     * Users listed in the roster of a team fetched recently are known to exist, so they are not
+     * looked up. Users missing from a known roster are rejected right away when they must belong to the team.
+     */
+    private boolean isListedInTeam(String userId, String teamId) throws PricelineApiException {
+    	TeamRosterIndex.Presence presence = pricelineFacade.findTeamMembership(teamId, userId);
+    	if(requireTeamMember && presence == TeamRosterIndex.Presence.NOT_MEMBER) {
+    		exceptionService.throwIllegalArgumentException(MessageEnum.VALIDATION_FAILURE_TEAM_MEMBER_ERR, userId, teamId);
+    	}
     	
-    	// validate user and team
-    	UserDTO userDTO = pricelineFacade.findUserById(dto.getUserId());
-    	if(userDTO == null) {
-    		exceptionService.throwIllegalArgumentException(MessageEnum.USER_API_USER_NOT_FOUND_HELP, dto.getUserId());
+    	return presence == TeamRosterIndex.Presence.MEMBER;
+    }
+    
+    private void validateTeamMember(String userId, TeamDTO team) throws PricelineApiException {
+    	if(requireTeamMember && !TeamRosterIndex.isMember(team, userId)) {
+    		exceptionService.throwIllegalArgumentException(MessageEnum.VALIDATION_FAILURE_TEAM_MEMBER_ERR, userId, team.getId());
     	}
+    }
+    
+    private String getRoleUid(MembershipDTO dto) {
+    	return dto.getRole() == null ? null : dto.getRole().getUid();
+    }
+    
+    private Role findRole(String roleUid) throws PricelineApiException {
+    	// if not informed, use default
+    	return roleUid == null ? roleService.findDefaultRole() : roleService.findByUid(roleUid);
+    }
+    
+    private <T> Map<String, Future<T>> lookupAll(Collection<MembershipDTO> dtos,
+    		Function<MembershipDTO, String> key, Function<String, T> lookup) {
+    	Map<String, Future<T>> lookups = new HashMap<>();
     	
-    	TeamDTO teamDTO = pricelineFacade.findTeamById(dto.getTeamId());
-		if(teamDTO == null) {
-			exceptionService.throwIllegalArgumentException(MessageEnum.TEAM_API_TEAM_NOT_FOUND_HELP, dto.getTeamId());
+    	for(MembershipDTO dto : dtos) {
+    		lookups.computeIfAbsent(key.apply(dto), id -> lookup(() -> lookup.apply(id)));
     	}
     	
-    	// load role
-    	Role role;
+    	return lookups;
+    }
+    
+    private <T> Future<T> lookup(Supplier<T> lookup) {
+    	// lookups run on the executor, under the deadline and locale of the request that started
+    	// them, as tasks whose cancellation interrupts the thread running them
+    	FutureTask<T> task = new FutureTask<>(RequestContext.wrap(lookup)::get);
+    	validationExecutor.execute(task);
     	
-    	if(dto.getRole() == null) { // if not informed, use default
-    		role =roleService.findDefaultRole();
-    	} else {
-    		role = roleService.findByUid(dto.getRole().getUid());
+    	return task;
+    }
+    
+    private long validationDeadline() {
+    	// validation never outlasts the request it belongs to
+    	long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(validationTimeout);
+    	Deadline requestDeadline = DeadlineContextHolder.get();
+    	
+    	return requestDeadline == null || deadline - requestDeadline.nanoTime() < 0 ? deadline : requestDeadline.nanoTime();
+    }
+    
+    private Set<List<String>> findExistingKeys(Collection<String> userIds, Collection<String> teamIds) throws PricelineApiException {
+    	Set<List<String>> uniqueKeys = new HashSet<>();
+    	if(userIds.isEmpty()) {
+    		return uniqueKeys;
     	}
     	
-    	dto.setRole(role);
+    	try {
+    		// matches every combination of user and team, so filtered by the caller
+    		membershipRepository.findByUserIdInAndTeamIdIn(userIds, teamIds).forEach(membership -> uniqueKeys.add(uniqueKey(membership)));
+    	} catch (Exception exception) {
+    		throw exceptionService.throwRuntimeException(exception, MessageEnum.MEMBERSHIP_ERROR_SAVE_ALL_HELP);
+    	}
+    	
+    	return uniqueKeys;
+    }
+    
+    private boolean isUniqueKeyViolation(Exception exception) {
+    	if(!(exception instanceof DataIntegrityViolationException) || !(exception.getCause() instanceof ConstraintViolationException violation)) {
+    		return false;
+    	}
     	
-    	// ensure membership is unique
-    	Membership membership = membershipRepository.findByUserIdAndTeamIdAndRole(dto.getUserId(), dto.getTeamId(), dto.getRole());
-    	if(membership != null) {
-    		exceptionService.throwIllegalArgumentException(MessageEnum.VALIDATION_FAILURE_UNIQUENESS_ERR);
+    	// MySQL reports the key prefixed by the table name
+    	String constraintName = violation.getConstraintName();
+    	return constraintName != null && constraintName.toLowerCase().endsWith(DatabaseConstants.UK_MEMBERSHIP_USER_TEAM_ROLE.toLowerCase());
+    }
+    
+    private List<String> uniqueKey(Membership membership) {
+    	return List.of(membership.getUserId(), membership.getTeamId(), membership.getRole().getUid());
+    }
+    
+    private <T> T await(Future<T> lookup, long deadline) throws PricelineApiException {
+    	try {
+    		return lookup.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    	} catch (ExecutionException exception) {
+    		// lookups already map their failures, so rethrow them untouched
+    		if(exception.getCause() instanceof RuntimeException) {
+    			throw (RuntimeException) exception.getCause();
+    		}
+    		
+    		throw exceptionService.throwRuntimeException(exception, MessageEnum.MEMBERSHIP_ERROR_VALIDATE_HELP, validationTimeout);
+    	} catch (TimeoutException exception) {
+    		Deadline requestDeadline = DeadlineContextHolder.get();
+    		if(requestDeadline != null && requestDeadline.isExpired()) {
+    			throw exceptionService.throwRuntimeException(new DeadlineExceededException("Membership validation", requestDeadline.getTimeout()),
+    					MessageEnum.MEMBERSHIP_ERROR_VALIDATE_HELP, validationTimeout);
+    		}
+    		
+    		throw exceptionService.throwRuntimeException(new LookupTimeoutException("Membership validation", Duration.ofMillis(validationTimeout)),
+    				MessageEnum.MEMBERSHIP_ERROR_VALIDATE_HELP, validationTimeout);
+    	} catch (InterruptedException exception) {
+    		Thread.currentThread().interrupt();
+    		throw exceptionService.throwRuntimeException(exception, MessageEnum.MEMBERSHIP_ERROR_VALIDATE_HELP, validationTimeout);
     	}
     }
 
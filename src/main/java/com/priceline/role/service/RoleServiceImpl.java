@@ -5,6 +5,7 @@ import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.priceline.role.dto.RoleDTO;
 import com.priceline.role.enums.MessageEnum;
@@ -12,8 +13,11 @@ import com.priceline.role.model.Role;
 import com.priceline.role.model.exception.DefaultRoleNotFoundException;
 import com.priceline.role.model.exception.EntityNotFoundException;
 import com.priceline.role.model.exception.PricelineApiException;
+import com.priceline.role.model.page.KeysetPage;
 import com.priceline.role.repository.RoleRepository;
+import com.priceline.role.service.catalog.RoleCatalog;
 import com.priceline.role.service.system.ExceptionService;
+import com.priceline.role.service.system.PaginationService;
 import com.priceline.role.service.system.ValidationService;
 
 @Service
@@ -25,11 +29,17 @@ public class RoleServiceImpl implements RoleService {
     
     private final ValidationService validationService;
     
-    public RoleServiceImpl(RoleRepository roleRepository, ExceptionService exceptionService,
-    		ValidationService validationService) {
+    private final PaginationService paginationService;
+    
+    private final RoleCatalog roleCatalog;
+    
+    public RoleServiceImpl(RoleRepository roleRepository, RoleCatalog roleCatalog, ExceptionService exceptionService,
+    		ValidationService validationService, PaginationService paginationService) {
     	this.roleRepository = roleRepository;
+    	this.roleCatalog = roleCatalog;
     	this.exceptionService = exceptionService;
     	this.validationService = validationService;
+    	this.paginationService = paginationService;
     }
 
     // ----------------------------------------------------
@@ -37,7 +47,16 @@ public class RoleServiceImpl implements RoleService {
     // ----------------------------------------------------
     public Role findByUid(String uid) throws PricelineApiException {
         try {
-            return Optional.ofNullable(roleRepository.findByUid(uid)).orElseThrow(() -> new EntityNotFoundException(uid));
+            Role role = roleCatalog.findByUid(uid);
+            if(role != null) {
+                return role;
+            }
+
+            // the role may have been created by another instance since the last refresh
+            role = Optional.ofNullable(roleRepository.findByUid(uid)).orElseThrow(() -> new EntityNotFoundException(uid));
+            roleCatalog.refresh();
+
+            return role;
         } catch (Exception exception) {
             throw exceptionService.throwRuntimeException(exception, MessageEnum.ROLE_ERROR_FIND_BY_ID_HELP, uid);
         }
@@ -45,7 +64,15 @@ public class RoleServiceImpl implements RoleService {
 
     public List<Role> findAll() throws PricelineApiException {
         try {
-            return roleRepository.findAll();
+            return roleCatalog.findAll();
+        } catch (Exception exception) {
+            throw exceptionService.throwRuntimeException(exception, MessageEnum.ROLE_ERROR_FIND_ALL_HELP);
+        }
+    }
+
+    public KeysetPage<Role> findPage(String cursor, Integer size) throws PricelineApiException {
+        try {
+            return paginationService.findPage(cursor, size, roleRepository::findByIdGreaterThan, roleRepository::findByIdLessThan);
         } catch (Exception exception) {
             throw exceptionService.throwRuntimeException(exception, MessageEnum.ROLE_ERROR_FIND_ALL_HELP);
         }
@@ -53,7 +80,16 @@ public class RoleServiceImpl implements RoleService {
 
     public Role findDefaultRole() throws PricelineApiException {
         try {
-            return Optional.ofNullable(roleRepository.findByDefaultRoleTrue()).orElseThrow(() -> new DefaultRoleNotFoundException());
+            Role role = roleCatalog.findDefaultRole();
+            if(role != null) {
+                return role;
+            }
+
+            // no default in the catalog, only expected until the first role is created
+            role = Optional.ofNullable(roleRepository.findByDefaultRoleTrue()).orElseThrow(() -> new DefaultRoleNotFoundException());
+            roleCatalog.refresh();
+
+            return role;
         } catch (Exception exception) {
             throw exceptionService.throwRuntimeException(exception, MessageEnum.ROLE_ERROR_FIND_DEFAULT_HELP);
         }
@@ -62,6 +98,7 @@ public class RoleServiceImpl implements RoleService {
     // ----------------------------------------------------
     // Persist
     // ----------------------------------------------------
+    @Transactional
     public Role save(RoleDTO dto) throws PricelineApiException {    	
         // validate DTO before saving
     	dto.setUid(null);
@@ -71,16 +108,21 @@ public class RoleServiceImpl implements RoleService {
     	Role role = dto.toRole();
     	role.setUid(UUID.randomUUID().toString());
     	
-    	long roles = roleRepository.count();
-    	if(roles == 0) {
-    		dto.setDefaultRole(true);
-    	}
+    	// the first role is always the default one
+    	boolean defaultRole = dto.isDefaultRole() || roleRepository.count() == 0;
+    	
+    	// inserted as a regular role, then made default in the same transaction
+    	role.setDefaultRole(false);
+    	role = roleRepository.save(role);
     	
-    	if(dto.isDefaultRole() && roles > 0) {
-    		updateDefaultRole();
+    	if(defaultRole) {
+    		roleRepository.updateDefaultRole(role.getUid());
+    		role.setDefaultRole(true);
     	}
     	
-    	return roleRepository.save(role);
+    	roleCatalog.refreshAfterCommit();
+    	
+    	return role;
     }
 
     public Role update(RoleDTO dto, String uid) throws PricelineApiException {
@@ -90,35 +132,26 @@ public class RoleServiceImpl implements RoleService {
     	
     	Role role = findByUid(uid);
     	role.setName(dto.getName());
+    	
+    	role = roleRepository.save(role);
+    	roleCatalog.refresh();
 
-        return roleRepository.save(role);
+        return role;
     }
 
     public Role updateDefaultRole(String uid) throws PricelineApiException {
-    	// load current default role
-    	Role oldDefaultRole = findDefaultRole();
-    	
-    	if(oldDefaultRole.getUid().equals(uid)) {
-    		return oldDefaultRole;
+    	try {
+    		// a single statement swaps the flags, so concurrent calls always leave one default
+    		if(roleRepository.updateDefaultRole(uid) == 0) {
+    			throw new EntityNotFoundException(uid);
+    		}
+    	} catch (Exception exception) {
+    		throw exceptionService.throwRuntimeException(exception, MessageEnum.ROLE_ERROR_UPDATE_DEFAULT_HELP, uid);
     	}
     	
-    	// load role to ensure it exists
-    	Role newDefaultRole = findByUid(uid);
-    	
-    	// update statuses
-    	oldDefaultRole.setDefaultRole(false);
-    	newDefaultRole.setDefaultRole(true);
-    	roleRepository.saveAll(List.of(oldDefaultRole, newDefaultRole));
-    	
-    	return newDefaultRole;
-    }
-    
-    private void updateDefaultRole() throws PricelineApiException {
-    	// load current default role and update
-    	Role oldDefaultRole = findDefaultRole();
-    	oldDefaultRole.setDefaultRole(false);
+    	roleCatalog.refresh();
     	
-    	roleRepository.save(oldDefaultRole);
+    	return findByUid(uid);
     }
     
     // ----------------------------------------------------
@@ -127,6 +160,7 @@ public class RoleServiceImpl implements RoleService {
     public void delete(String uid) throws PricelineApiException {
     	 try {
 	        roleRepository.deleteByUid(uid);
+	        roleCatalog.refresh();
 	    } catch (Exception exception) {
 	    	throw exceptionService.throwRuntimeException(exception, MessageEnum.ROLE_ERROR_DELETE_HELP, uid);
 	    }
@@ -143,7 +177,7 @@ public class RoleServiceImpl implements RoleService {
     	validationService.validateStringMaxLength(dto.getName(), "name", 150);
     	
     	// ensure name is unique
-    	Role role = roleRepository.findByName(dto.getName());
+    	Role role = roleCatalog.findByName(dto.getName());
     	validationService.validateUniqueness(dto.getUid(), role);
     }
 
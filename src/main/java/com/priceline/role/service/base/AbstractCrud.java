@@ -2,9 +2,11 @@ package com.priceline.role.service.base;
 
 import java.util.List;
 
+import com.priceline.role.model.base.BaseEntity;
 import com.priceline.role.model.exception.PricelineApiException;
+import com.priceline.role.model.page.KeysetPage;
 
-public interface AbstractCrud<T, U> {
+public interface AbstractCrud<T extends BaseEntity, U> {
 
 	// ----------------------------------------------------
     // Read
@@ -13,6 +15,8 @@ public interface AbstractCrud<T, U> {
 
     List<T> findAll() throws PricelineApiException;
 
+    KeysetPage<T> findPage(String cursor, Integer size) throws PricelineApiException;
+
     // ----------------------------------------------------
     // Persist
     // ----------------------------------------------------
@@ -2,12 +2,16 @@ package com.priceline.role.service.base;
 
 import java.util.List;
 
+import com.priceline.role.model.base.BaseEntity;
 import com.priceline.role.model.exception.PricelineApiException;
+import com.priceline.role.model.page.KeysetPage;
 
-public interface AbstractRead<T> {
+public interface AbstractRead<T extends BaseEntity> {
 
     T findByUid(String uid) throws PricelineApiException;
 
     List<T> findAll() throws PricelineApiException;
 
+    KeysetPage<T> findPage(String cursor, Integer size) throws PricelineApiException;
+
 }
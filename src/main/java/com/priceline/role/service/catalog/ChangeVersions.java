@@ -0,0 +1,54 @@
+package com.priceline.role.service.catalog;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Versions of the role and membership tables, used to validate cached listings without
+ * reading nor serializing them again.
+ * <br>
+ * Versions are derived from the tables themselves, so every instance holding the same data
+ * holds the same versions, before and after a restart. The role version is a digest of the
+ * {@link RoleCatalog}. The membership version is read from the database by the
+ * {@link MembershipVersionMonitor}, after local writes and periodically.
+ */
+@Component
+public class ChangeVersions {
+
+	private final AtomicReference<String> roles = new AtomicReference<>();
+
+	private final AtomicReference<String> memberships = new AtomicReference<>();
+
+	/**
+	 * @return the version of the role table, or <code>null</code> until it is known.
+	 */
+	public String roleToken() {
+		return roles.get();
+	}
+
+	/**
+	 * Memberships embed their role, so their version also covers the role table.
+	 *
+	 * @return the version of the membership table, or <code>null</code> until it is known.
+	 */
+	public String membershipToken() {
+		// read roles first: a role change racing with this read can only make the token older
+		String roleVersion = roles.get();
+		String membershipVersion = memberships.get();
+		if(roleVersion == null || membershipVersion == null) {
+			return null;
+		}
+
+		return roleVersion + "." + membershipVersion;
+	}
+
+	public void updateRoles(String version) {
+		roles.set(version);
+	}
+
+	public void updateMemberships(String version) {
+		memberships.set(version);
+	}
+
+}
@@ -0,0 +1,79 @@
+package com.priceline.role.service.catalog;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.priceline.role.repository.MembershipRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the membership version of {@link ChangeVersions} in line with the membership table.
+ * <br>
+ * The version is the row count, the highest id and the time of the last write of the table,
+ * read in a single query that takes no lock. Ids are allocated in blocks by each instance, so
+ * the highest id alone could miss a write; the time of the last write cannot. Writes of other
+ * instances are seen by the periodic refresh, configured by
+ * <code>membership.version.refresh-interval</code>, and writes made through this instance as
+ * soon as they commit.
+ */
+@Slf4j
+@Component
+public class MembershipVersionMonitor {
+
+	private final MembershipRepository membershipRepository;
+
+	private final ChangeVersions changeVersions;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	public MembershipVersionMonitor(MembershipRepository membershipRepository, ChangeVersions changeVersions) {
+		this.membershipRepository = membershipRepository;
+		this.changeVersions = changeVersions;
+	}
+
+	/**
+	 * Reads the membership version from the database. When it cannot be read, the previous
+	 * version is kept until the next refresh.
+	 * <br>
+	 * Refreshes are serialized so a slow read can never overwrite the version read by a later one.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(initialDelayString = "${membership.version.refresh-interval}", fixedDelayString = "${membership.version.refresh-interval}")
+	public void refresh() {
+		lock.lock();
+		try {
+			changeVersions.updateMemberships(membershipRepository.findVersion());
+		} catch (RuntimeException exception) {
+			log.warn("Membership version could not be refreshed: {}", exception.getMessage());
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Refreshes the version once the current transaction commits, so a listing read in between
+	 * is never tagged with a version that already includes the write. Refreshes immediately when
+	 * no transaction is active.
+	 */
+	public void refreshAfterCommit() {
+		if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+			refresh();
+			return;
+		}
+
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				refresh();
+			}
+		});
+	}
+
+}
@@ -0,0 +1,197 @@
+package com.priceline.role.service.catalog;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.priceline.role.model.Role;
+import com.priceline.role.repository.RoleRepository;
+
+/**
+ * In-memory copy of the role table.
+ * <br>
+ * Roles are few and rarely change, so the whole table is kept as an immutable snapshot
+ * indexed by uid and name, together with the current default role. Reads never touch
+ * the database nor take a lock: they go through the snapshot held by an atomic
+ * reference, which is replaced as a whole by {@link #refresh()} after every write.
+ * <br>
+ * Changes made by other instances are picked up by the periodic refresh, configured by
+ * <code>role.catalog.refresh-interval</code>. Every refresh sets the role version of
+ * {@link ChangeVersions} to a digest of the snapshot, the same on every instance holding the same roles.
+ */
+@Component
+public class RoleCatalog {
+
+	private final RoleRepository roleRepository;
+
+	private final ChangeVersions changeVersions;
+
+	private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+	private final ReentrantLock refreshLock = new ReentrantLock();
+
+	public RoleCatalog(RoleRepository roleRepository, ChangeVersions changeVersions) {
+		this.roleRepository = roleRepository;
+		this.changeVersions = changeVersions;
+	}
+
+	/**
+	 * Returns the role identified by <code>uid</code>.
+	 *
+	 * @param uid the external id of the role.
+	 * @return a copy of the role, or <code>null</code> if it is not in the catalog.
+	 */
+	public Role findByUid(String uid) {
+		return copy(snapshot().byUid().get(uid));
+	}
+
+	/**
+	 * Returns the role named <code>name</code>.
+	 *
+	 * @param name the name of the role.
+	 * @return a copy of the role, or <code>null</code> if it is not in the catalog.
+	 */
+	public Role findByName(String name) {
+		return copy(snapshot().byName().get(name));
+	}
+
+	/**
+	 * @return a copy of the default role, or <code>null</code> if none is set.
+	 */
+	public Role findDefaultRole() {
+		return copy(snapshot().defaultRole());
+	}
+
+	/**
+	 * @return copies of every role, ordered by id.
+	 */
+	public List<Role> findAll() {
+		return snapshot().roles().stream().map(RoleCatalog::copy).toList();
+	}
+
+	/**
+	 * Reloads the role table and replaces the current snapshot.
+	 * <br>
+	 * Refreshes are serialized so a slow reload can never overwrite the snapshot taken by
+	 * a later one. Readers keep using the previous snapshot until the new one is ready.
+	 * The lock is not a monitor, so a virtual thread waiting on the reload does not pin its carrier.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(initialDelayString = "${role.catalog.refresh-interval}", fixedDelayString = "${role.catalog.refresh-interval}")
+	public void refresh() {
+		refreshLock.lock();
+		try {
+			Snapshot current = Snapshot.of(roleRepository.findAll());
+			snapshot.set(current);
+			changeVersions.updateRoles(current.version());
+		} finally {
+			refreshLock.unlock();
+		}
+	}
+
+	/**
+	 * Refreshes the catalog once the current transaction commits, so a rolled back write
+	 * never reaches the snapshot. Refreshes immediately when no transaction is active.
+	 */
+	public void refreshAfterCommit() {
+		if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+			refresh();
+			return;
+		}
+
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				refresh();
+			}
+		});
+	}
+
+	private Snapshot snapshot() {
+		Snapshot current = snapshot.get();
+		if(current == null) {
+			// first read before the application was ready
+			refresh();
+			current = snapshot.get();
+		}
+
+		return current;
+	}
+
+	/*
+	 * Entities are mutable and callers modify the roles they receive before saving them,
+	 * so the snapshot only hands out copies.
+	 */
+	private static Role copy(Role role) {
+		if(role == null) {
+			return null;
+		}
+
+		Role copy = new Role();
+		copy.setId(role.getId());
+		copy.setUid(role.getUid());
+		copy.setName(role.getName());
+		copy.setDefaultRole(role.isDefaultRole());
+
+		return copy;
+	}
+
+	private record Snapshot(List<Role> roles, Map<String, Role> byUid, Map<String, Role> byName, Role defaultRole, String version) {
+
+		static Snapshot of(List<Role> rows) {
+			List<Role> roles = rows.stream()
+					.map(RoleCatalog::copy)
+					.sorted((role1, role2) -> Long.compare(id(role1), id(role2)))
+					.toList();
+
+			Map<String, Role> byUid = new HashMap<>();
+			Map<String, Role> byName = new HashMap<>();
+			Role defaultRole = null;
+
+			for(Role role : roles) {
+				byUid.put(role.getUid(), role);
+				byName.put(role.getName(), role);
+				if(role.isDefaultRole()) {
+					defaultRole = role;
+				}
+			}
+
+			return new Snapshot(roles, Map.copyOf(byUid), Map.copyOf(byName), defaultRole, digest(roles));
+		}
+
+		private static String digest(List<Role> roles) {
+			try {
+				MessageDigest digest = MessageDigest.getInstance("SHA-256");
+				for(Role role : roles) {
+					String row = role.getId() + "\t" + role.getUid() + "\t" + role.getName() + "\t" + role.isDefaultRole() + "\n";
+					digest.update(row.getBytes(StandardCharsets.UTF_8));
+				}
+
+				// 64 bits are enough to tell versions of a small table apart
+				return HexFormat.of().formatHex(digest.digest(), 0, 8);
+			} catch (NoSuchAlgorithmException exception) {
+				// every Java platform supports SHA-256
+				throw new IllegalStateException(exception);
+			}
+		}
+
+		private static long id(Role role) {
+			return role.getId() == null ? Long.MAX_VALUE : role.getId();
+		}
+
+	}
+
+}
@@ -1,11 +1,17 @@
 package com.priceline.role.service.system;
 
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 import com.priceline.role.enums.MessageEnum;
 import com.priceline.role.model.exception.BaseException;
 import com.priceline.role.model.exception.PricelineApiException;
+import com.priceline.role.model.exception.ServiceUnavailableException;
+import com.priceline.role.model.exception.StacklessException;
+import com.priceline.role.model.exception.ValidationException;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -13,33 +19,63 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class ExceptionService {
 
+	// validation failures are caused by clients, so their logging is throttled
+	private static final int VALIDATION_LOG_PERMITS_PER_SECOND = 10;
+
+	// rejections and exceeded deadlines come in bursts while a dependency is degraded, so their logging is throttled too
+	private static final int UNAVAILABLE_LOG_PERMITS_PER_SECOND = 10;
+
     private final MessageService messageService;
+
+    private final LogRateLimiter validationLogLimiter = new LogRateLimiter(VALIDATION_LOG_PERMITS_PER_SECOND, 1, TimeUnit.SECONDS);
+
+    private final LogRateLimiter unavailableLogLimiter = new LogRateLimiter(UNAVAILABLE_LOG_PERMITS_PER_SECOND, 1, TimeUnit.SECONDS);
     
     public ExceptionService(MessageService messageService) {
     	this.messageService = messageService;
     }
     
     public PricelineApiException throwIllegalArgumentException(MessageEnum messageEnum, Object... args) throws PricelineApiException {
-    	return throwRuntimeException(new IllegalArgumentException(), messageEnum, args);
+        PricelineApiException ex = getPricelineApiException(new ValidationException(messageEnum, args));
+        
+        long suppressed = validationLogLimiter.tryAcquire();
+        if(suppressed > 0) {
+        	log.error("Priceline API Exception: {} ({}), {} similar suppressed", ex.getMessage(), ex.getStatus().getReasonPhrase(), suppressed);
+        } else if(suppressed == 0) {
+        	log.error("Priceline API Exception: {} ({})", ex.getMessage(), ex.getStatus().getReasonPhrase());
+        }
+        
+        throw ex;
     }
     
     public PricelineApiException throwRuntimeException(Exception exception, MessageEnum messageEnum, Object... args) throws PricelineApiException {
     	PricelineApiException ex;
 
-        if(exception instanceof BaseException) {
+        if(exception instanceof ValidationException validation) {
+        	throw throwIllegalArgumentException(validation.getErrorMessage(), validation.getErrorMessageArgs());
+        } else if(exception instanceof BaseException) {
             ex = getPricelineApiException((BaseException) exception);
         } else if(exception instanceof IllegalArgumentException) {
-        	ex = getPricelineApiException(messageEnum, args);
+        	throw throwIllegalArgumentException(messageEnum, args);
+        } else if(exception instanceof PricelineApiException apiException && apiException.getStatus() == HttpStatus.BAD_REQUEST) {
+        	// validation failure, already logged when resolved
+        	throw apiException;
         } else if(exception instanceof PricelineApiException) {
             ex = (PricelineApiException) exception;
         } else {
             ex = getPricelineApiException(exception, messageEnum, args);
         }
 
-        log.error("Priceline API Exception");
-        log.error(ex.getMessage());
-        log.error(ex.getHelp());
-        log.error(ex.getStatus().getReasonPhrase());
+        if(ex.getStatus() == HttpStatus.SERVICE_UNAVAILABLE || ex.getStatus() == HttpStatus.GATEWAY_TIMEOUT) {
+        	long suppressed = unavailableLogLimiter.tryAcquire();
+        	if(suppressed > 0) {
+        		log.warn("Priceline API Exception: {} ({}), {} similar suppressed", ex.getMessage(), ex.getStatus().getReasonPhrase(), suppressed);
+        	} else if(suppressed == 0) {
+        		log.warn("Priceline API Exception: {} ({})", ex.getMessage(), ex.getStatus().getReasonPhrase());
+        	}
+        } else {
+        	log.error("Priceline API Exception: {} ({}) - {}", ex.getMessage(), ex.getStatus().getReasonPhrase(), ex.getHelp());
+        }
 
         throw ex;
     }
@@ -47,9 +83,11 @@ public class ExceptionService {
     private PricelineApiException getPricelineApiException(BaseException exception) {
         String description = messageService.getMessage(exception.getDescription(), exception.getDescriptionArgs());
         String errorMessage = messageService.getMessage(exception.getErrorMessage(), exception.getErrorMessageArgs());
-        String help = messageService.getMessage(exception.getHelp(), exception.getHelpArgs());
+        String help = exception.getHelp() == null ? null : messageService.getMessage(exception.getHelp(), exception.getHelpArgs());
+        Duration retryAfter = exception instanceof ServiceUnavailableException unavailable ? unavailable.getRetryAfter() : null;
 
-        return new PricelineApiException(description, errorMessage, help, exception.getHttpStatus());
+        return new PricelineApiException(description, errorMessage, help, exception.getHttpStatus(), retryAfter,
+                !(exception instanceof StacklessException));
     }
 
     private PricelineApiException getPricelineApiException(Exception exception, MessageEnum messageEnum, Object[] args) {
@@ -58,12 +96,5 @@ public class ExceptionService {
 
         return new PricelineApiException(description, exception.getMessage(), help, HttpStatus.INTERNAL_SERVER_ERROR);
     }
-    
-    private PricelineApiException getPricelineApiException(MessageEnum messageEnum, Object[] args) {
-    	String description = messageService.getMessage(MessageEnum.VALIDATION_FAILURE_DESCRIPTION);
-        String help = messageService.getMessage(messageEnum, args);
-
-        return new PricelineApiException(description, help, null, HttpStatus.BAD_REQUEST);
-    }
 
 }
@@ -0,0 +1,48 @@
+package com.priceline.role.service.system;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Allows at most <code>permits</code> log lines per interval and counts the suppressed ones,
+ * so a flood of identical failures does not turn into a flood of log lines.
+ */
+final class LogRateLimiter {
+
+	private final int permits;
+
+	private final long intervalNanos;
+
+	private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+
+	private final AtomicInteger used = new AtomicInteger();
+
+	private final AtomicLong suppressed = new AtomicLong();
+
+	LogRateLimiter(int permits, long interval, TimeUnit unit) {
+		this.permits = permits;
+		this.intervalNanos = unit.toNanos(interval);
+	}
+
+	/**
+	 * @return the number of lines suppressed since the last allowed one, or <code>-1</code>
+	 * if this line must be suppressed as well.
+	 */
+	long tryAcquire() {
+		final long now = System.nanoTime();
+		final long start = windowStart.get();
+
+		if(now - start >= intervalNanos && windowStart.compareAndSet(start, now)) {
+			used.set(0);
+		}
+
+		if(used.incrementAndGet() <= permits) {
+			return suppressed.getAndSet(0);
+		}
+
+		suppressed.incrementAndGet();
+		return -1;
+	}
+
+}
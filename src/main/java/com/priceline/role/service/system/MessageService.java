@@ -1,20 +1,42 @@
 package com.priceline.role.service.system;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import com.priceline.role.config.MessageConfig;
 import com.priceline.role.enums.MessageEnum;
 import com.priceline.role.model.exception.PricelineApiException;
 
+/**
+ * Resolves the text of every <code>MessageEnum</code>.
+ * <br>
+ * Every message is compiled at startup for each of {@link MessageConfig#SUPPORTED_LOCALES}
+ * and kept in an array indexed by the enum ordinal, so resolving a message is an array
+ * access. The application fails to start if any message cannot be resolved. Locales are
+ * matched by language, falling back to {@link MessageConfig#DEFAULT_LOCALE} as the message
+ * source does. Numbers in arguments are formatted in the locale of the matched messages.
+ */
 @Service
 public class MessageService {
 
-    private final MessageSource messageSource;
+    private final MessageTemplate[] defaultTemplates;
+
+    private final Map<String, MessageTemplate[]> templatesByLanguage;
     
     public MessageService(MessageSource messageSource) {
-    	this.messageSource = messageSource;
+    	Map<String, MessageTemplate[]> templates = new HashMap<>();
+    	for(Locale locale : MessageConfig.SUPPORTED_LOCALES) {
+    		templates.put(locale.getLanguage(), compile(messageSource, locale));
+    	}
+    	
+    	this.templatesByLanguage = Map.copyOf(templates);
+    	this.defaultTemplates = templatesByLanguage.get(MessageConfig.DEFAULT_LOCALE.getLanguage());
     }
 
     public String getMessage(MessageEnum messageEnum) throws PricelineApiException {
@@ -23,11 +45,32 @@ public class MessageService {
 
     public String getMessage(MessageEnum messageEnum, Object... args) throws PricelineApiException {
         try {
-            return messageSource.getMessage(messageEnum.getCode(), args, LocaleContextHolder.getLocale());
+            return getTemplates(LocaleContextHolder.getLocale())[messageEnum.ordinal()].format(args);
         } catch (Exception exception) {
             throw new PricelineApiException("Configuration error", exception.getMessage(),
                     "Please check message settings", HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
-}
\ No newline at end of file
+    private MessageTemplate[] getTemplates(Locale locale) {
+    	return templatesByLanguage.getOrDefault(locale.getLanguage(), defaultTemplates);
+    }
+
+    private static MessageTemplate[] compile(MessageSource messageSource, Locale locale) {
+    	MessageEnum[] messageEnums = MessageEnum.values();
+    	MessageTemplate[] templates = new MessageTemplate[messageEnums.length];
+    	
+    	for(MessageEnum messageEnum : messageEnums) {
+    		try {
+    			// without arguments the message source returns the raw pattern
+    			String pattern = messageSource.getMessage(messageEnum.getCode(), null, locale);
+    			templates[messageEnum.ordinal()] = MessageTemplate.compile(pattern, locale);
+    		} catch (Exception exception) {
+    			throw new IllegalStateException("Message '" + messageEnum.getCode() + "' cannot be resolved for locale '" + locale + "'", exception);
+    		}
+    	}
+    	
+    	return templates;
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.priceline.role.service.system;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Message pattern of one <code>MessageEnum</code> in one locale, parsed once.
+ * <br>
+ * Follows the rules of <code>MessageSource</code>: the pattern is returned as is when
+ * there are no arguments and formatted with <code>MessageFormat</code> otherwise. Patterns
+ * made only of text and <code>{n}</code> placeholders are also split in segments, so string
+ * arguments are substituted directly without going through <code>MessageFormat</code>.
+ */
+final class MessageTemplate {
+
+	private final String pattern;
+
+	private final MessageFormat format;
+
+	// text around the placeholders, one more than the placeholders, or null if not simple
+	private final String[] literals;
+
+	private final int[] arguments;
+
+	private MessageTemplate(String pattern, Locale locale, String[] literals, int[] arguments) {
+		this.pattern = pattern;
+		this.format = new MessageFormat(pattern, locale);
+		this.literals = literals;
+		this.arguments = arguments;
+	}
+
+	static MessageTemplate compile(String pattern, Locale locale) {
+		List<String> literals = new ArrayList<>();
+		List<Integer> arguments = new ArrayList<>();
+		StringBuilder literal = new StringBuilder();
+		boolean quoted = false;
+
+		for(int i = 0; i < pattern.length(); i++) {
+			char c = pattern.charAt(i);
+
+			if(c == '\'') {
+				// two quotes are a literal quote, a single one starts or ends a quoted section
+				if(i + 1 < pattern.length() && pattern.charAt(i + 1) == '\'') {
+					literal.append('\'');
+					i++;
+				} else {
+					quoted = !quoted;
+				}
+			} else if(c == '{' && !quoted) {
+				int end = pattern.indexOf('}', i);
+				String index = end < 0 ? "" : pattern.substring(i + 1, end).trim();
+
+				if(index.isEmpty() || !index.chars().allMatch(Character::isDigit)) {
+					// typed or nested placeholders are left to MessageFormat
+					return new MessageTemplate(pattern, locale, null, null);
+				}
+
+				literals.add(literal.toString());
+				arguments.add(Integer.parseInt(index));
+				literal.setLength(0);
+				i = end;
+			} else {
+				literal.append(c);
+			}
+		}
+		literals.add(literal.toString());
+
+		return new MessageTemplate(pattern, locale, literals.toArray(String[]::new), arguments.stream().mapToInt(Integer::intValue).toArray());
+	}
+
+	String format(Object... args) {
+		if(args == null || args.length == 0) {
+			return pattern;
+		}
+
+		if(isSubstitutable(args)) {
+			StringBuilder message = new StringBuilder(pattern.length() + 16 * arguments.length);
+			message.append(literals[0]);
+
+			for(int i = 0; i < arguments.length; i++) {
+				message.append((String) args[arguments[i]]).append(literals[i + 1]);
+			}
+
+			return message.toString();
+		}
+
+		// MessageFormat is not thread safe
+		synchronized (format) {
+			return format.format(args);
+		}
+	}
+
+	/*
+	 * Numbers and dates are formatted according to the locale, so only strings are
+	 * substituted directly
+	 */
+	private boolean isSubstitutable(Object[] args) {
+		if(literals == null) {
+			return false;
+		}
+
+		for(int argument : arguments) {
+			if(argument >= args.length || !(args[argument] instanceof String)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+}
@@ -0,0 +1,75 @@
+package com.priceline.role.service.system;
+
+import java.util.List;
+import java.util.function.BiFunction;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import com.priceline.role.enums.MessageEnum;
+import com.priceline.role.model.base.BaseEntity;
+import com.priceline.role.model.exception.PricelineApiException;
+import com.priceline.role.model.page.Cursor;
+import com.priceline.role.model.page.KeysetPage;
+
+@Service
+public class PaginationService {
+
+	private final ExceptionService exceptionService;
+
+	private final int defaultSize;
+
+	private final int maxSize;
+
+	public PaginationService(ExceptionService exceptionService,
+			@Value("${pagination.default-size}") final int defaultSize, @Value("${pagination.max-size}") final int maxSize) {
+		this.exceptionService = exceptionService;
+		this.defaultSize = defaultSize;
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Fetches a page using keyset pagination on the internal id, so the database seeks
+	 * straight to the cursor instead of scanning the rows of previous pages.
+	 *
+	 * @param cursor the encoded cursor, <code>null</code> for the first page.
+	 * @param size the page size, <code>null</code> for the default size.
+	 * @param after query returning rows with id greater than the given one.
+	 * @param before query returning rows with id lower than the given one.
+	 * @return the page.
+	 */
+	public <T extends BaseEntity> KeysetPage<T> findPage(String cursor, Integer size,
+			BiFunction<Long, Pageable, List<T>> after, BiFunction<Long, Pageable, List<T>> before) throws PricelineApiException {
+		Cursor position = decode(cursor);
+		int pageSize = size == null ? defaultSize : size;
+
+		if(pageSize < 1 || pageSize > maxSize) {
+			exceptionService.throwIllegalArgumentException(MessageEnum.VALIDATION_FAILURE_PAGE_SIZE_ERR, maxSize);
+		}
+
+		// one extra row tells whether there is another page in the same direction
+		if(position.isBefore()) {
+			Pageable pageable = PageRequest.of(0, pageSize + 1, Sort.by(Sort.Direction.DESC, "id"));
+			return KeysetPage.of(before.apply(position.getId(), pageable), position, pageSize);
+		}
+
+		Pageable pageable = PageRequest.of(0, pageSize + 1, Sort.by(Sort.Direction.ASC, "id"));
+		return KeysetPage.of(after.apply(position.getId(), pageable), position, pageSize);
+	}
+
+	private Cursor decode(String cursor) throws PricelineApiException {
+		if(cursor == null || cursor.isEmpty()) {
+			return Cursor.start();
+		}
+
+		try {
+			return Cursor.decode(cursor);
+		} catch (IllegalArgumentException exception) {
+			throw exceptionService.throwRuntimeException(exception, MessageEnum.VALIDATION_FAILURE_CURSOR_ERR);
+		}
+	}
+
+}
@@ -0,0 +1,12 @@
+USE priceline;
+
+-- Id generator, one row per entity table
+CREATE TABLE IF NOT EXISTS id_generator (
+    sequence_name VARCHAR(40) NOT NULL,
+    next_val BIGINT NOT NULL,
+    CONSTRAINT PK_id_generator PRIMARY KEY (sequence_name)
+);
+
+-- Continue after the ids already generated by AUTO_INCREMENT
+INSERT INTO id_generator (sequence_name, next_val) SELECT 'role', COALESCE(MAX(id), 0) + 1 FROM role;
+INSERT INTO id_generator (sequence_name, next_val) SELECT 'membership', COALESCE(MAX(id), 0) + 1 FROM membership;
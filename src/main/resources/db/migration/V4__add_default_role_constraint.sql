@@ -0,0 +1,7 @@
+USE priceline;
+
+-- At most one default role: the marker is 1 for the default role and NULL for the others,
+-- and NULLs are not compared by unique keys
+ALTER TABLE role
+    ADD COLUMN default_marker TINYINT AS (IF(default_role, 1, NULL)) STORED,
+    ADD CONSTRAINT UK_role_default UNIQUE (default_marker);
@@ -0,0 +1,7 @@
+USE priceline;
+
+-- Time of the last write of each membership, read with the row count to validate the ETags
+-- of membership listings without taking any lock on the write path
+ALTER TABLE membership
+    ADD COLUMN updated_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6),
+    ADD INDEX IX_membership_updated_at (updated_at);
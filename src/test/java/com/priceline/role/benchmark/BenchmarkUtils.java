@@ -0,0 +1,18 @@
+package com.priceline.role.benchmark;
+
+import org.slf4j.LoggerFactory;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+
+public class BenchmarkUtils {
+	
+	/**
+	 * Benchmarks run without a Spring context, so logback falls back to DEBUG for every
+	 * logger. Raise the root level to keep logging out of the measurements.
+	 */
+	public static void quietLogging() {
+		((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+	}
+
+}
@@ -0,0 +1,102 @@
+package com.priceline.role.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.priceline.role.model.Membership;
+import com.priceline.role.model.Role;
+import com.priceline.role.utils.TestUtils;
+
+import com.sun.management.ThreadMXBean;
+
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compares the payload size and the time to write and read a large membership list
+ * encoded as JSON, CBOR and Smile, with mappers built the same way as the HTTP converters.
+ * <br>
+ * Run with <code>mvn test -Pbenchmark -Dtest=BinaryFormatBenchmark</code>.
+ */
+@Slf4j
+@Tag("benchmark")
+public class BinaryFormatBenchmark {
+	
+	private static final int MEMBERSHIPS = 10_000;
+	
+	private static final int REPETITIONS = 20;
+	
+	private static final TypeReference<List<Membership>> MEMBERSHIP_LIST = new TypeReference<List<Membership>>() {};
+	
+	private static final ThreadMXBean ALLOCATION = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+	
+	private List<Membership> memberships;
+	
+	@BeforeEach
+	public void setUp() {
+		BenchmarkUtils.quietLogging();
+		
+		Role role = TestUtils.createRole(true);
+		memberships = new ArrayList<>();
+		for(int i = 0; i < MEMBERSHIPS; i++) {
+			memberships.add(TestUtils.createMembership(role));
+		}
+	}
+	
+	@Test
+	@DisplayName("Membership list: JSON against CBOR and Smile")
+	public void benchmarkFormats() {
+		ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+		ObjectMapper cbor = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+		ObjectMapper smile = Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+		
+		// warm up every format before measuring
+		measure("warm up", json);
+		measure("warm up", cbor);
+		measure("warm up", smile);
+		
+		measure("JSON", json);
+		measure("CBOR", cbor);
+		measure("Smile", smile);
+	}
+	
+	@SneakyThrows
+	private void measure(String name, ObjectMapper mapper) {
+		byte[] payload = null;
+		
+		long allocated = ALLOCATION.getCurrentThreadAllocatedBytes();
+		long start = System.nanoTime();
+		for(int i = 0; i < REPETITIONS; i++) {
+			payload = mapper.writerFor(MEMBERSHIP_LIST).writeValueAsBytes(memberships);
+		}
+		long writeNanos = System.nanoTime() - start;
+		long writeBytes = ALLOCATION.getCurrentThreadAllocatedBytes() - allocated;
+		
+		List<Membership> decoded = null;
+		start = System.nanoTime();
+		for(int i = 0; i < REPETITIONS; i++) {
+			decoded = mapper.readValue(payload, MEMBERSHIP_LIST);
+		}
+		long readNanos = System.nanoTime() - start;
+		
+		// every format round-trips the same memberships
+		assertEquals(memberships, decoded);
+		
+		log.info("{}: {} KB per {} memberships, written in {} ms with {} MB allocated, read in {} ms", name, payload.length / 1_024,
+				MEMBERSHIPS, writeNanos / REPETITIONS / 1_000_000, writeBytes / REPETITIONS / (1_024 * 1_024), readNanos / REPETITIONS / 1_000_000);
+	}
+	
+}
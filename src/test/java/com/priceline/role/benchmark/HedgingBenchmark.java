@@ -0,0 +1,175 @@
+package com.priceline.role.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.web.client.RestTemplate;
+
+import com.priceline.role.config.RestTemplateConfig;
+import com.priceline.role.dto.TeamDTO;
+import com.priceline.role.facade.hedging.Hedger;
+import com.priceline.role.utils.TestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compares the latency of plain and hedged calls to a local stub of the teams API that
+ * usually answers quickly but stalls now and then.
+ * <br>
+ * Run with <code>mvn test -Pbenchmark -Dtest=HedgingBenchmark</code>.
+ */
+@Slf4j
+@Tag("benchmark")
+public class HedgingBenchmark {
+	
+	private static final int CALLERS = 16;
+	
+	private static final int REQUESTS_PER_CALLER = 150;
+	
+	private static final long STUB_LATENCY_MILLIS = 10;
+	
+	private static final long STALL_LATENCY_MILLIS = 1500;
+	
+	private static final double STALL_PROBABILITY = 0.02;
+	
+	private WebServer stub;
+	
+	private String url;
+	
+	private RestTemplate restTemplate;
+	
+	private CloseableHttpClient httpClient;
+	
+	private ExecutorService hedgingExecutor;
+	
+	@BeforeEach
+	public void setUp() {
+		BenchmarkUtils.quietLogging();
+		
+		final String body = TestUtils.asJsonString(TestUtils.createTeamDTO());
+		
+		// local stub of the teams API with injected stalls
+		TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+		stub = factory.getWebServer(servletContext -> servletContext.addServlet("teams", new HttpServlet() {
+			
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+				boolean stall = ThreadLocalRandom.current().nextDouble() < STALL_PROBABILITY;
+				
+				try {
+					Thread.sleep(stall ? STALL_LATENCY_MILLIS : STUB_LATENCY_MILLIS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				
+				response.setContentType("application/json");
+				response.getWriter().write(body);
+			}
+		}).addMapping("/teams/*"));
+		stub.start();
+		
+		url = "http://localhost:" + stub.getPort() + "/teams/{teamId}";
+		
+		// pooled RestTemplate, configured as in production
+		RestTemplateConfig config = new RestTemplateConfig();
+		PoolingHttpClientConnectionManager connectionManager = config.facadeConnectionManager(new SimpleMeterRegistry(),
+				200, 2 * CALLERS, Duration.ofSeconds(2));
+		RequestConfig requestConfig = config.facadeRequestConfig(Duration.ofSeconds(1), Duration.ofMillis(500), Duration.ofSeconds(2));
+		httpClient = config.facadeHttpClient(connectionManager, requestConfig, Duration.ofSeconds(30), Duration.ofSeconds(30));
+		restTemplate = config.restTemplate(httpClient, requestConfig);
+		
+		hedgingExecutor = Executors.newCachedThreadPool();
+	}
+	
+	@AfterEach
+	public void tearDown() throws IOException {
+		hedgingExecutor.shutdownNow();
+		httpClient.close();
+		stub.stop();
+	}
+	
+	@Test
+	@DisplayName("Plain versus hedged calls to a stalling upstream")
+	public void testPlainVersusHedgedCalls() throws Exception {
+		Hedger.Settings settings = new Hedger.Settings(true, 95, Duration.ofMillis(20), Duration.ofMillis(500), 100, 10);
+		Hedger hedger = new Hedger("Team API", settings, hedgingExecutor, new SimpleMeterRegistry());
+		
+		// fill the latency window before measuring
+		run(() -> hedger.execute(this::getTeam));
+		double issuedBefore = hedger.issuedCount();
+		double wonBefore = hedger.wonCount();
+		
+		List<Long> plain = run(this::getTeam);
+		List<Long> hedged = run(() -> hedger.execute(this::getTeam));
+		
+		int calls = CALLERS * REQUESTS_PER_CALLER;
+		log.info("Plain:  p50 {} ms, p99 {} ms, max {} ms", percentile(plain, 50), percentile(plain, 99), percentile(plain, 100));
+		log.info("Hedged: p50 {} ms, p99 {} ms, max {} ms", percentile(hedged, 50), percentile(hedged, 99), percentile(hedged, 100));
+		log.info("Hedges: {} issued, {} won, out of {} calls", hedger.issuedCount() - issuedBefore, hedger.wonCount() - wonBefore, calls);
+		
+		assertTrue(percentile(hedged, 99) < percentile(plain, 99));
+	}
+	
+	private TeamDTO getTeam() {
+		return restTemplate.getForObject(url, TeamDTO.class, "id");
+	}
+	
+	private List<Long> run(Supplier<TeamDTO> call) throws Exception {
+		ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+		List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+		List<Future<?>> futures = new ArrayList<>();
+		
+		for(int i = 0; i < CALLERS; i++) {
+			futures.add(callers.submit(() -> {
+				for(int j = 0; j < REQUESTS_PER_CALLER; j++) {
+					long start = System.nanoTime();
+					call.get();
+					latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+				}
+			}));
+		}
+		
+		for(Future<?> future : futures) {
+			future.get();
+		}
+		callers.shutdown();
+		
+		return latencies;
+	}
+	
+	private static long percentile(List<Long> latencies, int percentile) {
+		List<Long> sorted = new ArrayList<>(latencies);
+		Collections.sort(sorted);
+		
+		int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+		return sorted.get(Math.max(0, index));
+	}
+
+}
@@ -0,0 +1,180 @@
+package com.priceline.role.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import com.priceline.role.dto.MembershipRowDTO;
+import com.priceline.role.model.Membership;
+import com.priceline.role.model.Role;
+import com.priceline.role.repository.MembershipRepository;
+import com.priceline.role.repository.RoleRepository;
+import com.priceline.role.utils.TestUtils;
+
+import com.sun.management.ThreadMXBean;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compares the cost of membership queries on an embedded database, counting statements
+ * and loaded entities through Hibernate statistics, and the bytes allocated by the calling thread.
+ * <br>
+ * Absolute timings are only meaningful relative to each other, as the database runs in
+ * memory. Run with <code>mvn test -Pbenchmark -Dtest=MembershipQueryBenchmark</code>.
+ */
+@Slf4j
+@Tag("benchmark")
+@DataJpaTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;NON_KEYWORDS=ROLE;DB_CLOSE_ON_EXIT=FALSE",
+	"spring.datasource.username=sa",
+	"spring.datasource.password=",
+	"spring.flyway.enabled=false",
+	"spring.jpa.hibernate.ddl-auto=create-drop",
+	"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+	"spring.jpa.properties.hibernate.generate_statistics=true",
+	"logging.level.root=WARN",
+	"logging.level.com.priceline.role.benchmark=INFO"
+})
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+public class MembershipQueryBenchmark {
+	
+	private static final int ROLES = 5;
+	
+	private static final int MEMBERSHIPS = 10_000;
+	
+	private static final int LOOKUPS = 2_000;
+	
+	private static final int PAGE_SIZE = 500;
+	
+	private static final int REPETITIONS = 20;
+	
+	private static final ThreadMXBean ALLOCATION = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+	
+	@Autowired
+	private RoleRepository roleRepository;
+	
+	@Autowired
+	private MembershipRepository membershipRepository;
+	
+	@Autowired
+	private EntityManager entityManager;
+	
+	private Statistics statistics;
+	
+	private List<Membership> memberships;
+	
+	@BeforeEach
+	public void setUp() {
+		statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+		
+		// create roles and memberships spread across them
+		List<Role> roles = new ArrayList<>();
+		for(int i = 0; i < ROLES; i++) {
+			roles.add(roleRepository.save(TestUtils.createRole(i == 0)));
+		}
+		
+		memberships = new ArrayList<>();
+		for(int i = 0; i < MEMBERSHIPS; i++) {
+			memberships.add(TestUtils.createMembership(roles.get(i % ROLES)));
+		}
+		membershipRepository.saveAll(memberships);
+		
+		entityManager.flush();
+		entityManager.clear();
+	}
+	
+	@Test
+	@DisplayName("Find role of membership: full entity against role projection")
+	public void benchmarkFindRoleOfMembership() {
+		List<String> uids = memberships.stream().limit(LOOKUPS).map(Membership::getUid).toList();
+		
+		// warm up both paths before measuring
+		measure("warm up", uids, uid -> membershipRepository.findByUid(uid).getRole());
+		measure("warm up", uids, uid -> membershipRepository.findRoleByMembershipUid(uid).orElseThrow());
+		
+		Result entity = measure("findByUid().getRole()", uids, uid -> membershipRepository.findByUid(uid).getRole());
+		Result projection = measure("findRoleByMembershipUid()", uids, uid -> membershipRepository.findRoleByMembershipUid(uid).orElseThrow());
+		
+		// the projection reads the role with a single statement, never loading the membership
+		assertEquals(LOOKUPS, projection.statements());
+		assertEquals(LOOKUPS, projection.entities());
+		assertEquals(2 * LOOKUPS, entity.entities());
+	}
+	
+	@Test
+	@DisplayName("Find memberships of role: managed entities against paged projections")
+	public void benchmarkFindMembershipsOfRole() {
+		Role role = memberships.get(0).getRole();
+		List<String> roleUids = Collections.nCopies(REPETITIONS, role.getUid());
+		
+		// warm up both paths before measuring
+		measure("warm up", roleUids, membershipRepository::findByRole_uid);
+		measure("warm up", roleUids, uid -> findAllPagesOfRole(role));
+		
+		// a request now serves a single page, though walking every page is measured as well
+		Result entity = measure("findByRole_uid()", roleUids, membershipRepository::findByRole_uid);
+		Result firstPage = measure("findRowsByRoleIdAndIdGreaterThan(), first page of " + PAGE_SIZE, roleUids,
+				uid -> membershipRepository.findRowsByRoleIdAndIdGreaterThan(role.getId(), 0L, PageRequest.of(0, PAGE_SIZE, Sort.by("id"))));
+		Result allPages = measure("findRowsByRoleIdAndIdGreaterThan(), every page of " + PAGE_SIZE, roleUids, uid -> findAllPagesOfRole(role));
+		
+		// projections are never hydrated as entities, whatever the number of members
+		assertEquals(REPETITIONS * (MEMBERSHIPS / ROLES + 1), entity.entities());
+		assertEquals(0, firstPage.entities());
+		assertEquals(0, allPages.entities());
+	}
+	
+	private int findAllPagesOfRole(Role role) {
+		int rows = 0;
+		long lastId = 0;
+		List<MembershipRowDTO> page;
+		
+		do {
+			page = membershipRepository.findRowsByRoleIdAndIdGreaterThan(role.getId(), lastId, PageRequest.of(0, PAGE_SIZE, Sort.by("id")));
+			rows += page.size();
+			lastId = page.isEmpty() ? lastId : page.get(page.size() - 1).getId();
+		} while(page.size() == PAGE_SIZE);
+		
+		return rows;
+	}
+	
+	private <T> Result measure(String name, List<String> keys, Function<String, T> query) {
+		statistics.clear();
+		long allocated = ALLOCATION.getCurrentThreadAllocatedBytes();
+		long start = System.nanoTime();
+		
+		for(String key : keys) {
+			query.apply(key);
+			
+			// every request starts with an empty persistence context
+			entityManager.clear();
+		}
+		
+		Result result = new Result(statistics.getPrepareStatementCount(), statistics.getEntityLoadCount(), System.nanoTime() - start,
+				ALLOCATION.getCurrentThreadAllocatedBytes() - allocated);
+		log.info("{}: {} statements, {} entities loaded, {} us and {} KB allocated per call", name, result.statements(), result.entities(),
+				result.nanos() / keys.size() / 1_000, result.bytes() / keys.size() / 1_024);
+		
+		return result;
+	}
+	
+	private record Result(long statements, long entities, long nanos, long bytes) {}
+	
+}
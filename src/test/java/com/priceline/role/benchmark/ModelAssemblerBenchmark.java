@@ -0,0 +1,130 @@
+package com.priceline.role.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.priceline.role.controller.MembershipController;
+import com.priceline.role.controller.restfull.assembler.MembershipModelAssembler;
+import com.priceline.role.model.Membership;
+import com.priceline.role.model.Role;
+import com.priceline.role.utils.TestUtils;
+
+import com.sun.management.ThreadMXBean;
+
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compares the throughput of the membership assembler on a large list, building every link
+ * with <code>linkTo(methodOn(...))</code> as before against the link templates now resolved
+ * once per collection.
+ * <br>
+ * Run with <code>mvn test -Pbenchmark -Dtest=ModelAssemblerBenchmark</code>.
+ */
+@Slf4j
+@Tag("benchmark")
+public class ModelAssemblerBenchmark {
+	
+	private static final int MEMBERSHIPS = 10_000;
+	
+	private static final int REPETITIONS = 10;
+	
+	private static final ThreadMXBean ALLOCATION = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+	
+	private List<Membership> memberships;
+	
+	private MembershipModelAssembler assembler;
+	
+	@BeforeEach
+	public void setUp() {
+		BenchmarkUtils.quietLogging();
+		
+		// links are built from the current request, as done by the controllers
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/membership/all");
+		request.setServerName("priceline.example.com");
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+		
+		Role role = TestUtils.createRole(true);
+		memberships = new ArrayList<>();
+		for(int i = 0; i < MEMBERSHIPS; i++) {
+			memberships.add(TestUtils.createMembership(role));
+		}
+		
+		assembler = new MembershipModelAssembler();
+	}
+	
+	@AfterEach
+	public void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+	
+	@Test
+	@DisplayName("Membership assembler: links per element against link templates")
+	public void benchmarkToCollectionModel() {
+		// warm up both paths before measuring
+		measure("warm up", this::toCollectionModelWithLinksPerElement);
+		measure("warm up", assembler::toCollectionModel);
+		
+		measure("linkTo(methodOn(...)) per element", this::toCollectionModelWithLinksPerElement);
+		measure("link templates", assembler::toCollectionModel);
+		
+		// both paths build the same links, affordances aside as they are not rendered in HAL
+		assertEquals(hrefs(toCollectionModelWithLinksPerElement(memberships)), hrefs(assembler.toCollectionModel(memberships)));
+	}
+	
+	private List<String> hrefs(CollectionModel<EntityModel<Membership>> collectionModel) {
+		return collectionModel.getContent().stream()
+				.flatMap(entityModel -> entityModel.getLinks().stream())
+				.map(link -> link.getRel().value() + " " + link.getHref())
+				.toList();
+	}
+	
+	@SneakyThrows
+	private CollectionModel<EntityModel<Membership>> toCollectionModelWithLinksPerElement(List<Membership> membershipList) {
+		// as done by the assembler before link templates
+		List<EntityModel<Membership>> entityModelList = membershipList.stream()
+				.map(this::toModelWithLinksPerElement).collect(Collectors.toList());
+		
+		return CollectionModel.of(entityModelList, linkTo(methodOn(MembershipController.class).findAll(null, null, true)).withSelfRel());
+	}
+	
+	@SneakyThrows
+	private EntityModel<Membership> toModelWithLinksPerElement(Membership membership) {
+		return EntityModel.of(membership,
+				linkTo(methodOn(MembershipController.class).findByUid(membership.getUid())).withSelfRel(),
+				linkTo(methodOn(MembershipController.class).findAll(null, null, null)).withRel("memberships"));
+	}
+	
+	private void measure(String name, Function<List<Membership>, CollectionModel<EntityModel<Membership>>> assemble) {
+		long allocated = ALLOCATION.getCurrentThreadAllocatedBytes();
+		long start = System.nanoTime();
+		
+		for(int i = 0; i < REPETITIONS; i++) {
+			assemble.apply(memberships);
+		}
+		
+		long nanos = System.nanoTime() - start;
+		long bytes = ALLOCATION.getCurrentThreadAllocatedBytes() - allocated;
+		log.info("{}: {} ms and {} MB allocated per {} memberships, {} memberships per second", name, nanos / REPETITIONS / 1_000_000,
+				bytes / REPETITIONS / (1_024 * 1_024), MEMBERSHIPS, MEMBERSHIPS * REPETITIONS * 1_000_000_000L / nanos);
+	}
+	
+}
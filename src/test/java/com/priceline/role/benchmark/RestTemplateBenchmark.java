@@ -0,0 +1,194 @@
+package com.priceline.role.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.coyote.http11.AbstractHttp11Protocol;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.web.client.RestTemplate;
+
+import com.priceline.role.config.RestTemplateConfig;
+import com.priceline.role.dto.UserDTO;
+import com.priceline.role.model.deadline.Deadline;
+import com.priceline.role.model.deadline.DeadlineContextHolder;
+import com.priceline.role.utils.TestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compares the throughput of the default <code>RestTemplate</code> against the pooled one
+ * built by {@link RestTemplateConfig}, both calling a local stub of the users API.
+ * <br>
+ * Run with <code>mvn test -Pbenchmark -Dtest=RestTemplateBenchmark</code>.
+ */
+@Slf4j
+@Tag("benchmark")
+public class RestTemplateBenchmark {
+	
+	private static final int CALLERS = 64;
+	
+	private static final int REQUESTS_PER_CALLER = 200;
+	
+	private static final long STUB_LATENCY_MILLIS = 5;
+	
+	private static final long SLOW_STUB_LATENCY_MILLIS = 10_000;
+	
+	private WebServer stub;
+	
+	private String url;
+	
+	private String slowUrl;
+	
+	@BeforeEach
+	public void setUp() {
+		BenchmarkUtils.quietLogging();
+		
+		final String body = TestUtils.asJsonString(TestUtils.createUserDTO());
+		
+		// local stub of the users API answering after a fixed latency
+		TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+		factory.addConnectorCustomizers(connector -> ((AbstractHttp11Protocol<?>) connector.getProtocolHandler()).setMaxKeepAliveRequests(-1));
+		stub = factory.getWebServer(servletContext -> servletContext.addServlet("users", new HttpServlet() {
+			
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+				try {
+					Thread.sleep(request.getPathInfo().startsWith("/slow") ? SLOW_STUB_LATENCY_MILLIS : STUB_LATENCY_MILLIS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				
+				response.setContentType("application/json");
+				response.getWriter().write(body);
+			}
+		}).addMapping("/users/*"));
+		stub.start();
+		
+		url = "http://localhost:" + stub.getPort() + "/users/{userId}";
+		slowUrl = "http://localhost:" + stub.getPort() + "/users/slow/{userId}";
+	}
+	
+	@AfterEach
+	public void tearDown() {
+		stub.stop();
+	}
+
+	@Test
+	@DisplayName("Default versus pooled RestTemplate throughput")
+	public void testDefaultVersusPooledThroughput() throws Exception {
+		// default RestTemplate, backed by HttpURLConnection
+		RestTemplate defaultRestTemplate = new RestTemplate();
+		
+		// pooled RestTemplate, configured as in production
+		RestTemplateConfig config = new RestTemplateConfig();
+		PoolingHttpClientConnectionManager connectionManager = config.facadeConnectionManager(new SimpleMeterRegistry(),
+				200, CALLERS, Duration.ofSeconds(2));
+		RequestConfig requestConfig = config.facadeRequestConfig(Duration.ofSeconds(1), Duration.ofSeconds(2), Duration.ofSeconds(2));
+		CloseableHttpClient httpClient = config.facadeHttpClient(connectionManager, requestConfig, Duration.ofSeconds(30), Duration.ofSeconds(30));
+		RestTemplate pooledRestTemplate = config.restTemplate(httpClient, requestConfig);
+		
+		// warm up both clients
+		run(defaultRestTemplate);
+		run(pooledRestTemplate);
+		
+		double defaultThroughput = run(defaultRestTemplate);
+		double pooledThroughput = run(pooledRestTemplate);
+		
+		log.info("Default RestTemplate: {} requests/s", String.format("%.0f", defaultThroughput));
+		log.info("Pooled RestTemplate:  {} requests/s", String.format("%.0f", pooledThroughput));
+		log.info("Pool after run: {}", connectionManager.getTotalStats());
+		
+		httpClient.close();
+	}
+	
+	@Test
+	@DisplayName("Default versus pooled RestTemplate against a stalled upstream")
+	public void testDefaultVersusPooledAgainstStalledUpstream() throws Exception {
+		RestTemplate defaultRestTemplate = new RestTemplate();
+		
+		RestTemplateConfig config = new RestTemplateConfig();
+		PoolingHttpClientConnectionManager connectionManager = config.facadeConnectionManager(new SimpleMeterRegistry(),
+				200, CALLERS, Duration.ofSeconds(2));
+		RequestConfig requestConfig = config.facadeRequestConfig(Duration.ofSeconds(1), Duration.ofMillis(500), Duration.ofSeconds(2));
+		CloseableHttpClient httpClient = config.facadeHttpClient(connectionManager, requestConfig, Duration.ofSeconds(30), Duration.ofSeconds(30));
+		RestTemplate pooledRestTemplate = config.restTemplate(httpClient, requestConfig);
+		
+		// the default client waits for the upstream, however long it takes
+		long start = System.nanoTime();
+		defaultRestTemplate.getForObject(slowUrl, UserDTO.class, "id");
+		long defaultBlocked = (System.nanoTime() - start) / 1_000_000;
+		
+		// the pooled client gives up after its response timeout
+		start = System.nanoTime();
+		assertThrows(Exception.class, () -> pooledRestTemplate.getForObject(slowUrl, UserDTO.class, "id"));
+		long pooledBlocked = (System.nanoTime() - start) / 1_000_000;
+		
+		// under a request deadline, the pooled client gives up when the deadline expires
+		DeadlineContextHolder.set(Deadline.after(Duration.ofMillis(300)));
+		start = System.nanoTime();
+		try {
+			assertThrows(Exception.class, () -> pooledRestTemplate.getForObject(slowUrl, UserDTO.class, "id"));
+		} finally {
+			DeadlineContextHolder.reset();
+		}
+		long deadlineBlocked = (System.nanoTime() - start) / 1_000_000;
+		
+		log.info("Default RestTemplate held the caller for {} ms", defaultBlocked);
+		log.info("Pooled RestTemplate held the caller for {} ms", pooledBlocked);
+		log.info("Pooled RestTemplate under a 300 ms deadline held the caller for {} ms", deadlineBlocked);
+		
+		httpClient.close();
+	}
+	
+	private double run(RestTemplate restTemplate) throws Exception {
+		ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+		AtomicInteger successes = new AtomicInteger();
+		List<Future<?>> futures = new ArrayList<>();
+		
+		long start = System.nanoTime();
+		for(int i = 0; i < CALLERS; i++) {
+			futures.add(callers.submit(() -> {
+				for(int j = 0; j < REQUESTS_PER_CALLER; j++) {
+					if(restTemplate.getForObject(url, UserDTO.class, "id-" + j) != null) {
+						successes.incrementAndGet();
+					}
+				}
+			}));
+		}
+		
+		for(Future<?> future : futures) {
+			future.get();
+		}
+		long elapsed = System.nanoTime() - start;
+		callers.shutdown();
+		
+		assertEquals(CALLERS * REQUESTS_PER_CALLER, successes.get());
+		
+		return successes.get() / (elapsed / 1_000_000_000.0);
+	}
+
+}
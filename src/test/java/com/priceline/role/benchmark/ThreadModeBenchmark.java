@@ -0,0 +1,125 @@
+package com.priceline.role.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.priceline.role.config.VirtualThreadConfig;
+
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Load comparison of the two request execution modes while the external APIs are slow.
+ * <br>
+ * Each simulated membership creation reads from MySQL through a pool of
+ * {@value #JDBC_POOL_SIZE} connections and then blocks on the user and team APIs for
+ * {@value #UPSTREAM_LATENCY_MILLIS} ms. Requests are served by a pool of
+ * {@value #PLATFORM_THREADS} platform threads, as Tomcat does by default, or by a virtual
+ * thread per request. The virtual thread mode is skipped before Java 21.
+ * <br>
+ * Run with <code>mvn test -Pbenchmark -Dtest=ThreadModeBenchmark</code>, under a Java 21 JDK
+ * with <code>-Pjava21,benchmark</code> for both modes.
+ */
+@Slf4j
+@Tag("benchmark")
+public class ThreadModeBenchmark {
+	
+	private static final int REQUESTS = 4_000;
+	
+	private static final int PLATFORM_THREADS = 200;
+	
+	private static final int JDBC_POOL_SIZE = 10;
+	
+	private static final long QUERY_MILLIS = 1;
+	
+	private static final long UPSTREAM_LATENCY_MILLIS = 100;
+	
+	private Semaphore connections;
+	
+	private AtomicInteger connectionsInUse;
+	
+	private AtomicInteger maxConnectionsInUse;
+	
+	@BeforeEach
+	public void setUp() {
+		BenchmarkUtils.quietLogging();
+		
+		connections = new Semaphore(JDBC_POOL_SIZE, true);
+		connectionsInUse = new AtomicInteger();
+		maxConnectionsInUse = new AtomicInteger();
+	}
+	
+	@Test
+	@DisplayName("Requests: platform thread pool against virtual threads")
+	public void benchmarkThreadModes() {
+		measure("platform threads (" + PLATFORM_THREADS + ")", Executors.newFixedThreadPool(PLATFORM_THREADS));
+		
+		Assumptions.assumeTrue(Runtime.version().feature() >= 21, "virtual threads require Java 21");
+		measure("virtual threads", VirtualThreadConfig.newVirtualThreadPerTaskExecutor());
+	}
+	
+	@SneakyThrows
+	private void measure(String name, ExecutorService executor) {
+		long[] latencies = new long[REQUESTS];
+		List<Future<?>> futures = new ArrayList<>(REQUESTS);
+		
+		long start = System.nanoTime();
+		try {
+			for(int i = 0; i < REQUESTS; i++) {
+				final int request = i;
+				final long submitted = System.nanoTime();
+				futures.add(executor.submit(() -> {
+					handle();
+					latencies[request] = System.nanoTime() - submitted;
+				}));
+			}
+			
+			for(Future<?> future : futures) {
+				future.get(5, TimeUnit.MINUTES);
+			}
+		} finally {
+			executor.shutdown();
+		}
+		long nanos = System.nanoTime() - start;
+		
+		// the JDBC pool bounds database concurrency in both modes
+		assertTrue(maxConnectionsInUse.get() <= JDBC_POOL_SIZE);
+		
+		Arrays.sort(latencies);
+		log.info("{}: {} requests per second, latency p50 {} ms, p99 {} ms, at most {} JDBC connections in use", name,
+				REQUESTS * 1_000_000_000L / nanos, latencies[REQUESTS / 2] / 1_000_000, latencies[REQUESTS * 99 / 100] / 1_000_000,
+				maxConnectionsInUse.get());
+	}
+	
+	@SneakyThrows
+	private void handle() {
+		// read the role, waiting for a connection as Hikari does
+		connections.acquire();
+		try {
+			maxConnectionsInUse.accumulateAndGet(connectionsInUse.incrementAndGet(), Math::max);
+			Thread.sleep(QUERY_MILLIS);
+		} finally {
+			connectionsInUse.decrementAndGet();
+			connections.release();
+		}
+		
+		// look the user and team up on the slow external APIs
+		Thread.sleep(UPSTREAM_LATENCY_MILLIS);
+	}
+	
+}
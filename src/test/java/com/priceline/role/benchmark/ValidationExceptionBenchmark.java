@@ -0,0 +1,118 @@
+package com.priceline.role.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.HttpStatus;
+
+import com.priceline.role.config.MessageConfig;
+import com.priceline.role.enums.MessageEnum;
+import com.priceline.role.model.exception.PricelineApiException;
+import com.priceline.role.service.system.ExceptionService;
+import com.priceline.role.service.system.MessageService;
+import com.priceline.role.service.system.ValidationService;
+
+import com.sun.management.ThreadMXBean;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compares the cost of a validation failure on the previous path, a fresh
+ * <code>IllegalArgumentException</code>, two <code>MessageSource</code> lookups and a
+ * <code>PricelineApiException</code> with its stack trace, against {@link ValidationService}.
+ * <br>
+ * Logging is turned off on both paths, so only building the exception is measured. Run with
+ * <code>mvn test -Pbenchmark -Dtest=ValidationExceptionBenchmark</code>.
+ */
+@Slf4j
+@Tag("benchmark")
+public class ValidationExceptionBenchmark {
+	
+	private static final int FAILURES = 200_000;
+	
+	private static final int MAX_LENGTH = 150;
+	
+	private static final String TOO_LONG = "x".repeat(MAX_LENGTH + 1);
+	
+	private static final ThreadMXBean ALLOCATION = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+	
+	private MessageSource messageSource;
+	
+	private ValidationService validationService;
+	
+	@BeforeEach
+	public void setUp() {
+		BenchmarkUtils.quietLogging();
+		((Logger) LoggerFactory.getLogger(ExceptionService.class)).setLevel(Level.OFF);
+		
+		messageSource = new MessageConfig().messageSource();
+		validationService = new ValidationService(new ExceptionService(new MessageService(messageSource)));
+	}
+	
+	@Test
+	@DisplayName("Validation failure: stack trace and message source against stackless and cached templates")
+	public void benchmarkValidationFailure() {
+		// warm up both paths before measuring
+		measure("warm up", this::previousFailure);
+		measure("warm up", this::currentFailure);
+		
+		Result previous = measure("IllegalArgumentException + MessageSource", this::previousFailure);
+		Result current = measure("ValidationException + cached templates", this::currentFailure);
+		
+		// both paths report the same failure, without a stack trace on the current one
+		PricelineApiException expected = previousFailure();
+		PricelineApiException actual = currentFailure();
+		assertEquals(expected.getMessage(), actual.getMessage());
+		assertEquals(expected.getDescription(), actual.getDescription());
+		assertEquals(0, actual.getStackTrace().length);
+		assertTrue(current.bytes() < previous.bytes());
+	}
+	
+	private PricelineApiException previousFailure() {
+		// as done by ExceptionService before validation failures had their own path
+		new IllegalArgumentException();
+		String description = messageSource.getMessage(MessageEnum.VALIDATION_FAILURE_DESCRIPTION.getCode(), new Object[] {}, LocaleContextHolder.getLocale());
+		String help = messageSource.getMessage(MessageEnum.VALIDATION_FAILURE_STRING_MAX_LENGTH_ERR.getCode(), new Object[] { "name", MAX_LENGTH }, LocaleContextHolder.getLocale());
+		
+		return new PricelineApiException(description, help, null, HttpStatus.BAD_REQUEST);
+	}
+	
+	private PricelineApiException currentFailure() {
+		try {
+			validationService.validateStringMaxLength(TOO_LONG, "name", MAX_LENGTH);
+		} catch (PricelineApiException exception) {
+			return exception;
+		}
+		
+		throw new IllegalStateException("validation did not fail");
+	}
+	
+	private Result measure(String name, Supplier<PricelineApiException> failure) {
+		long allocated = ALLOCATION.getCurrentThreadAllocatedBytes();
+		long start = System.nanoTime();
+		
+		for(int i = 0; i < FAILURES; i++) {
+			failure.get();
+		}
+		
+		Result result = new Result(System.nanoTime() - start, ALLOCATION.getCurrentThreadAllocatedBytes() - allocated);
+		log.info("{}: {} ns and {} bytes allocated per failure", name, result.nanos() / FAILURES, result.bytes() / FAILURES);
+		
+		return result;
+	}
+	
+	private record Result(long nanos, long bytes) {}
+	
+}
@@ -0,0 +1,93 @@
+package com.priceline.role.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.priceline.role.controller.RoleController;
+import com.priceline.role.controller.restfull.assembler.RoleModelAssembler;
+import com.priceline.role.model.Role;
+import com.priceline.role.service.RoleService;
+import com.priceline.role.service.catalog.ChangeVersions;
+import com.priceline.role.utils.TestUtils;
+
+// a Jackson setting of the application, ignored by the binary converters Spring MVC registers by default
+@WebMvcTest(controllers = RoleController.class, properties = "spring.jackson.default-property-inclusion=non_null")
+@Import({ BinaryFormatConfig.class, RoleModelAssembler.class })
+public class BinaryFormatConfigTest {
+
+	private final String BASE_API = "/api/v1/role";
+
+	private final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockBean
+	private RoleService roleService;
+
+	@MockBean
+	private ChangeVersions changeVersions;
+
+	@Test
+	@DisplayName("Get role in CBOR with the settings of the application")
+	public void testGetRoleInCborWithTheSettingsOfTheApplication() throws Exception {
+		// create role without name
+		Role role = TestUtils.createRole(false);
+		role.setName(null);
+
+		// send request and decode CBOR
+		JsonNode actual = new CBORMapper().readTree(getRole(role, MediaType.APPLICATION_CBOR));
+
+		// assert the null name was left out
+		assertEquals(role.getUid(), actual.get("id").asText());
+		assertFalse(actual.has("name"));
+	}
+
+	@Test
+	@DisplayName("Get role in Smile with the settings of the application")
+	public void testGetRoleInSmileWithTheSettingsOfTheApplication() throws Exception {
+		// create role without name
+		Role role = TestUtils.createRole(false);
+		role.setName(null);
+
+		// send request and decode Smile
+		JsonNode actual = new SmileMapper().readTree(getRole(role, SMILE));
+
+		// assert the null name was left out
+		assertEquals(role.getUid(), actual.get("id").asText());
+		assertFalse(actual.has("name"));
+	}
+
+	private byte[] getRole(Role role, MediaType mediaType) throws Exception {
+		// configure mock
+		when(roleService.findByUid(role.getUid())).thenReturn(role);
+
+		// send request
+		MvcResult result = mockMvc.perform(
+					MockMvcRequestBuilders.get(BASE_API + "/" + role.getUid())
+					.accept(mediaType))
+				.andExpect(status().isOk())
+				.andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(mediaType))
+				.andReturn();
+
+		return result.getResponse().getContentAsByteArray();
+	}
+
+}
@@ -1,13 +1,18 @@
 package com.priceline.role.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.UUID;
 
 import org.apache.commons.lang3.RandomStringUtils;
@@ -20,24 +25,37 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Links;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import com.priceline.role.config.MessageConfig;
 import com.priceline.role.controller.advice.ApiRestExceptionHandler;
 import com.priceline.role.controller.restfull.assembler.MembershipModelAssembler;
 import com.priceline.role.controller.restfull.assembler.RoleModelAssembler;
+import com.priceline.role.dto.MembershipBatchResultDTO;
+import com.priceline.role.dto.MembershipCompactDTO;
 import com.priceline.role.dto.MembershipDTO;
 import com.priceline.role.enums.MessageEnum;
 import com.priceline.role.model.Membership;
 import com.priceline.role.model.Role;
 import com.priceline.role.model.error.PricelineApiError;
 import com.priceline.role.model.exception.PricelineApiException;
+import com.priceline.role.model.page.Cursor;
+import com.priceline.role.model.page.KeysetPage;
 import com.priceline.role.service.MembershipService;
 import com.priceline.role.service.system.MessageService;
 import com.priceline.role.utils.TestUtils;
@@ -47,6 +65,8 @@ import com.priceline.role.utils.TestUtils;
 public class MembershipControllerTest {
 	
 	private final String BASE_API = "/api/v1/membership";
+	
+	private final MediaType SMILE = new MediaType("application", "x-jackson-smile");
 
 	@Mock
 	private MembershipService membershipService;
@@ -61,7 +81,8 @@ public class MembershipControllerTest {
 	@BeforeEach
 	public void setup(){
 		messageService = new MessageService(new MessageConfig().messageSource());
-		memberhsipController = new MembershipController(membershipService, new MembershipModelAssembler(), new RoleModelAssembler());
+		memberhsipController = new MembershipController(membershipService, new MembershipModelAssembler(), new RoleModelAssembler(),
+				Jackson2ObjectMapperBuilder.json().build());
 		mockMvc = MockMvcBuilders.standaloneSetup(memberhsipController).setControllerAdvice(new ApiRestExceptionHandler()).build();
 	}
 	
@@ -126,8 +147,40 @@ public class MembershipControllerTest {
 	}
 	
 	@Test
-	@DisplayName("Get all memberships")
-    public void testGetAllMemberships() throws Exception {
+	@DisplayName("Get page of memberships")
+    public void testGetPageOfMemberships() throws Exception {
+		// create memberships
+		List<Membership> rows = new ArrayList<>();
+		for(long id = 1; id <= 3; id++) {
+			Membership membership = TestUtils.createMembership();
+			membership.setId(id);
+			rows.add(membership);
+		}
+		KeysetPage<Membership> page = KeysetPage.of(rows, Cursor.start(), 2);
+		
+		// configure mock
+		when(membershipService.findPage(null, 2)).thenReturn(page);
+
+		// send request
+		MvcResult result = mockMvc.perform(
+					MockMvcRequestBuilders.get(BASE_API + "/all?size=2")
+					.contentType(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+                .andReturn();
+		 
+		// convert JSON to list
+		String response = result.getResponse().getContentAsString();
+		List<Membership> actual = TestUtils.convertResponseToObjectList(response, Membership.class);
+
+	    // assert page content and link to next page
+		assertEquals(List.of(rows.get(0).getUid(), rows.get(1).getUid()), actual.stream().map(Membership::getUid).toList());
+		assertEquals(List.of("self", "next"), TestUtils.getLinkRelations(response));
+		assertTrue(TestUtils.getLink(response, "next").contains("cursor=" + Cursor.after(2L).encode()));
+	}
+	
+	@Test
+	@DisplayName("Get all memberships unpaged")
+    public void testGetAllMembershipsUnpaged() throws Exception {
 		// create memberships
 		Membership membership1 = TestUtils.createMembership();
 		Membership membership2 = TestUtils.createMembership();
@@ -141,7 +194,7 @@ public class MembershipControllerTest {
 
 		// send request
 		MvcResult result = mockMvc.perform(
-					MockMvcRequestBuilders.get(BASE_API + "/all")
+					MockMvcRequestBuilders.get(BASE_API + "/all?unpaged=true")
 					.contentType(MediaType.APPLICATION_JSON))
 //				.andDo(MockMvcResultHandlers.print()) // debug purposes only
                 .andReturn();
@@ -153,6 +206,182 @@ public class MembershipControllerTest {
 		assertEquals(actual, expected);
 	}
 
+	@Test
+	@DisplayName("Get page of memberships in compact form")
+    public void testGetPageOfMembershipsInCompactForm() throws Exception {
+		// create memberships
+		List<Membership> rows = new ArrayList<>();
+		for(long id = 1; id <= 3; id++) {
+			Membership membership = TestUtils.createMembership();
+			membership.setId(id);
+			rows.add(membership);
+		}
+		KeysetPage<Membership> page = KeysetPage.of(rows, Cursor.start(), 2);
+		
+		// configure mock
+		when(membershipService.findPage(null, 2)).thenReturn(page);
+
+		// send request
+		MvcResult result = mockMvc.perform(
+					MockMvcRequestBuilders.get(BASE_API + "/all?size=2")
+					.accept(MembershipController.APPLICATION_COMPACT_JSON_VALUE))
+				.andExpect(status().isOk())
+				.andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(MembershipController.APPLICATION_COMPACT_JSON_VALUE))
+                .andReturn();
+		 
+		// convert JSON to list
+		List<MembershipCompactDTO> actual = new ObjectMapper().readValue(result.getResponse().getContentAsString(),
+				new TypeReference<List<MembershipCompactDTO>>() {});
+
+	    // assert flat content and link to next page in the header
+		assertEquals(List.of(MembershipCompactDTO.of(rows.get(0)), MembershipCompactDTO.of(rows.get(1))), actual);
+		Links links = Links.parse(result.getResponse().getHeader(HttpHeaders.LINK));
+		assertTrue(links.getRequiredLink(IanaLinkRelations.NEXT).getHref().contains("cursor=" + Cursor.after(2L).encode()));
+	}
+	
+	@Test
+	@DisplayName("Get page of memberships with a browser Accept header")
+    public void testGetPageOfMembershipsWithBrowserAcceptHeader() throws Exception {
+		// create memberships
+		Membership membership = TestUtils.createMembership();
+		membership.setId(1L);
+		List<Membership> rows = List.of(membership);
+		
+		// configure mock
+		when(membershipService.findPage(null, null)).thenReturn(KeysetPage.of(rows, Cursor.start(), 20));
+
+		// send request
+		MvcResult result = mockMvc.perform(
+					MockMvcRequestBuilders.get(BASE_API + "/all")
+					.header(HttpHeaders.ACCEPT, "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8"))
+				.andExpect(status().isOk())
+                .andReturn();
+
+	    // assert the hypermedia representation is still the default
+		assertEquals(List.of("self"), TestUtils.getLinkRelations(result.getResponse().getContentAsString()));
+	}
+	
+	@Test
+	@DisplayName("Get all memberships unpaged in Smile")
+    public void testGetAllMembershipsUnpagedInSmile() throws Exception {
+		// create memberships
+		List<Membership> expected = List.of(TestUtils.createMembership(), TestUtils.createMembership());
+		
+		// configure mock
+		when(membershipService.findAll()).thenReturn(expected);
+
+		// send request
+		MvcResult result = mockMvc.perform(
+					MockMvcRequestBuilders.get(BASE_API + "/all?unpaged=true")
+					.accept(SMILE))
+				.andExpect(status().isOk())
+				.andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(SMILE))
+                .andReturn();
+		 
+		// decode Smile
+		JsonNode content = new SmileMapper().readTree(result.getResponse().getContentAsByteArray()).get("content");
+
+	    // assert
+		assertEquals(expected.size(), content.size());
+		assertEquals(expected.get(0).getUid(), content.get(0).get("id").asText());
+		assertEquals(expected.get(1).getUid(), content.get(1).get("id").asText());
+	}
+	
+	@Test
+	@DisplayName("Export all memberships")
+    public void testExportAllMemberships() throws Exception {
+		// create memberships
+		Membership membership1 = TestUtils.createMembership();
+		Membership membership2 = TestUtils.createMembership();
+		
+		// configure mock
+		doAnswer(invocation -> {
+			Consumer<Membership> consumer = invocation.getArgument(0);
+			consumer.accept(membership1);
+			consumer.accept(membership2);
+			return null;
+		}).when(membershipService).exportAll(any());
+
+		// send request
+		MvcResult result = mockMvc.perform(
+					MockMvcRequestBuilders.get(BASE_API + "/export"))
+				.andExpect(status().isOk())
+                .andReturn();
+		 
+		// convert each line to object
+		String[] lines = result.getResponse().getContentAsString().split("\n");
+
+	    // assert
+		assertEquals(MembershipController.APPLICATION_NDJSON_VALUE, result.getResponse().getContentType());
+		assertEquals(2, lines.length);
+		assertEquals(membership1, TestUtils.convertToObject(lines[0], Membership.class));
+		assertEquals(membership2, TestUtils.convertToObject(lines[1], Membership.class));
+	}
+	
+	@Test
+	@DisplayName("Export all memberships when the export fails before the first membership")
+    public void testExportAllMembershipsFailingBeforeTheFirstMembership() throws Exception {
+		// create exception
+		String description = messageService.getMessage(MessageEnum.UNKNOWN_ERROR_DESCRIPTION);
+		String help = messageService.getMessage(MessageEnum.MEMBERSHIP_ERROR_EXPORT_HELP);
+		PricelineApiException expectedException = new PricelineApiException(description, "Connection refused", help,
+				HttpStatus.INTERNAL_SERVER_ERROR);
+		
+		// configure mock
+		doThrow(expectedException).when(membershipService).exportAll(any());
+
+		// send request
+		MvcResult result = mockMvc.perform(
+					MockMvcRequestBuilders.get(BASE_API + "/export"))
+				.andExpect(status().isInternalServerError())
+                .andReturn();
+		 
+		// convert JSON to object
+		PricelineApiError actual = TestUtils.convertToObject(result.getResponse().getContentAsString(), PricelineApiError.class);
+
+	    // assert the failure is reported with its own status instead of an empty export
+		assertEquals(MediaType.APPLICATION_JSON_VALUE, result.getResponse().getContentType());
+		assertEquals(description, actual.getDescription());
+		assertEquals("Connection refused", actual.getErrorMessage());
+	}
+	
+	@Test
+	@DisplayName("Export all memberships when the export fails midway")
+    public void testExportAllMembershipsFailingMidway() throws Exception {
+		// create membership
+		Membership membership = TestUtils.createMembership();
+		
+		// create exception
+		String description = messageService.getMessage(MessageEnum.UNKNOWN_ERROR_DESCRIPTION);
+		String help = messageService.getMessage(MessageEnum.MEMBERSHIP_ERROR_EXPORT_HELP);
+		PricelineApiException expectedException = new PricelineApiException(description, "Connection reset", help,
+				HttpStatus.INTERNAL_SERVER_ERROR);
+		
+		// configure mock
+		doAnswer(invocation -> {
+			Consumer<Membership> consumer = invocation.getArgument(0);
+			consumer.accept(membership);
+			throw expectedException;
+		}).when(membershipService).exportAll(any());
+
+		// send request
+		MvcResult result = mockMvc.perform(
+					MockMvcRequestBuilders.get(BASE_API + "/export"))
+				.andExpect(status().isOk())
+                .andReturn();
+		 
+		// convert each line
+		String[] lines = result.getResponse().getContentAsString().split("\n");
+		JsonNode error = new ObjectMapper().readTree(lines[1]).get("error");
+
+	    // assert the export ends with the error, so the client can tell it is incomplete
+		assertEquals(2, lines.length);
+		assertEquals(membership, TestUtils.convertToObject(lines[0], Membership.class));
+		assertEquals(description, error.get("description").asText());
+		assertEquals("Connection reset", error.get("errorMessage").asText());
+		assertEquals(HttpStatus.INTERNAL_SERVER_ERROR.value(), error.get("status").asInt());
+	}
+	
 	@Test
 	@DisplayName("Get role of membership")
     public void testGetRoleOfMembership() throws Exception {
@@ -177,8 +406,67 @@ public class MembershipControllerTest {
 	}
 
 	@Test
-	@DisplayName("Get all memberships of role")
-    public void testGetAllMembershipsOfRole() throws Exception {
+	@DisplayName("Get page of memberships of role")
+    public void testGetPageOfMembershipsOfRole() throws Exception {
+		// create memberships
+		Role role = TestUtils.createRole(false);
+		List<Membership> rows = new ArrayList<>();
+		for(long id = 1; id <= 3; id++) {
+			Membership membership = TestUtils.createMembership(role);
+			membership.setId(id);
+			rows.add(membership);
+		}
+		KeysetPage<Membership> page = KeysetPage.of(rows, Cursor.start(), 2);
+		
+		// configure mock
+		when(membershipService.findMembershipsOfRole(role.getUid(), null, 2)).thenReturn(page);
+
+		// send request
+		MvcResult result = mockMvc.perform(
+					MockMvcRequestBuilders.get(BASE_API + "/by-role/" + role.getUid() + "?size=2")
+					.contentType(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+                .andReturn();
+		 
+		// convert JSON to list
+		String response = result.getResponse().getContentAsString();
+		List<Membership> actual = TestUtils.convertResponseToObjectList(response, Membership.class);
+
+	    // assert page content and link to next page of the same role
+		assertEquals(List.of(rows.get(0).getUid(), rows.get(1).getUid()), actual.stream().map(Membership::getUid).toList());
+		assertTrue(TestUtils.getLink(response, "next").contains("/by-role/" + role.getUid() + "?cursor=" + Cursor.after(2L).encode()));
+	}
+	
+	@Test
+	@DisplayName("Get all memberships of role in compact form")
+    public void testGetAllMembershipsOfRoleInCompactForm() throws Exception {
+		// create memberships
+		Membership membership1 = TestUtils.createMembership();
+		Membership membership2 = TestUtils.createMembership(membership1.getRole());
+		List<Membership> memberships = List.of(membership1, membership2);
+		
+		// configure mock
+		when(membershipService.findMembershipsOfRole(membership1.getRole().getUid())).thenReturn(memberships);
+
+		// send request
+		MvcResult result = mockMvc.perform(
+					MockMvcRequestBuilders.get(BASE_API + "/by-role/" + membership1.getRole().getUid() + "?unpaged=true")
+					.accept(MembershipController.APPLICATION_COMPACT_JSON_VALUE))
+				.andExpect(status().isOk())
+                .andReturn();
+		 
+		// convert JSON to list
+		List<MembershipCompactDTO> actual = new ObjectMapper().readValue(result.getResponse().getContentAsString(),
+				new TypeReference<List<MembershipCompactDTO>>() {});
+
+	    // assert
+		assertEquals(memberships.stream().map(MembershipCompactDTO::of).toList(), actual);
+		assertEquals(membership1.getRole().getName(), actual.get(0).getRoleName());
+	}
+	
+	@Test
+	@DisplayName("Get all memberships of role unpaged")
+    public void testGetAllMembershipsOfRoleUnpaged() throws Exception {
 		// create memberships
 		Membership membership1 = TestUtils.createMembership();
 		Membership membership2 = TestUtils.createMembership(membership1.getRole());
@@ -192,7 +480,7 @@ public class MembershipControllerTest {
 
 		// send request
 		MvcResult result = mockMvc.perform(
-					MockMvcRequestBuilders.get(BASE_API + "/by-role/" + membership1.getRole().getUid())
+					MockMvcRequestBuilders.get(BASE_API + "/by-role/" + membership1.getRole().getUid() + "?unpaged=true")
 					.contentType(MediaType.APPLICATION_JSON))
 //				.andDo(MockMvcResultHandlers.print()) // debug purposes only
                 .andReturn();
@@ -232,6 +520,72 @@ public class MembershipControllerTest {
         assertEquals(actual, expected);
 	}
 	
+	@Test
+	@DisplayName("Save membership in CBOR")
+    public void testSaveMembershipInCbor() throws Exception {
+		// create DTO
+		MembershipDTO dto = TestUtils.createMembershipDTO();
+		Membership expected = dto.toMembership();
+		
+		// configure mock
+		when(membershipService.save(dto)).thenReturn(expected);
+	    
+	    // send request
+		CBORMapper cborMapper = new CBORMapper();
+	    MvcResult result = mockMvc.perform(
+	    			MockMvcRequestBuilders.post(BASE_API)
+	    			.contentType(MediaType.APPLICATION_CBOR)
+	    			.accept(MediaType.APPLICATION_CBOR)
+	    			.content(cborMapper.writeValueAsBytes(dto)))
+	    		.andExpect(status().isCreated())
+	    		.andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+	           	.andReturn();
+        
+        // decode CBOR
+	    JsonNode actual = cborMapper.readTree(result.getResponse().getContentAsByteArray());
+
+        // assert
+        assertEquals(expected.getUserId(), actual.get("userId").asText());
+        assertEquals(expected.getTeamId(), actual.get("teamId").asText());
+	}
+	
+	@Test
+	@DisplayName("Save memberships in batch")
+    public void testSaveMembershipsInBatch() throws Exception {
+		// create DTOs
+		MembershipDTO dto1 = TestUtils.createMembershipDTO();
+		MembershipDTO dto2 = TestUtils.createMembershipDTO();
+		
+		// create results
+		String description = messageService.getMessage(MessageEnum.VALIDATION_FAILURE_DESCRIPTION, new Object[] {});
+		String errorMessage = messageService.getMessage(MessageEnum.VALIDATION_FAILURE_UNIQUENESS_ERR);
+		PricelineApiException rejection = new PricelineApiException(description, errorMessage, null, HttpStatus.BAD_REQUEST);
+		List<MembershipBatchResultDTO> expected = List.of(
+				MembershipBatchResultDTO.created(0, dto1.toMembership()),
+				MembershipBatchResultDTO.rejected(1, rejection));
+		
+		// configure mock
+		when(membershipService.saveAll(any())).thenReturn(expected);
+	    
+	    // send request
+	    MvcResult result = mockMvc.perform(
+	    			MockMvcRequestBuilders.post(BASE_API + "/batch")
+	    			.contentType(MediaType.APPLICATION_JSON)
+	    			.content(TestUtils.asJsonString(List.of(dto1, dto2))))
+	    		.andExpect(status().isOk())
+	           	.andReturn();
+        
+        // convert JSON to object
+	    MembershipBatchResultDTO[] actual = TestUtils.convertToObject(result.getResponse().getContentAsString(), MembershipBatchResultDTO[].class);
+
+        // assert
+	    assertEquals(2, actual.length);
+	    assertEquals(HttpStatus.CREATED.value(), actual[0].getStatus());
+	    assertEquals(expected.get(0).getMembership(), actual[0].getMembership());
+	    assertEquals(HttpStatus.BAD_REQUEST.value(), actual[1].getStatus());
+	    assertEquals(errorMessage, actual[1].getError().getErrorMessage());
+	}
+	
 	@Test
 	@DisplayName("Save membership without user id")
     public void testSaveMembershipWithoutUserId() throws Exception {
@@ -380,6 +734,39 @@ public class MembershipControllerTest {
         assertEquals(actual.getStatus(), error.getStatus());
 	}
 
+	@Test
+	@DisplayName("Save membership while the external API is saturated")
+    public void testSaveMembershipWhileTheExternalApiIsSaturated() throws Exception {
+		// create DTO
+		MembershipDTO dto = TestUtils.createMembershipDTO();
+		
+		// create exception
+		String description = messageService.getMessage(MessageEnum.EXCEPTION_SERVICE_UNAVAILABLE_DESCRIPTION);
+		String errorMessage = messageService.getMessage(MessageEnum.EXCEPTION_SERVICE_UNAVAILABLE_ERR, "Priceline API");
+		String help = messageService.getMessage(MessageEnum.EXCEPTION_SERVICE_UNAVAILABLE_HELP, 5);
+		PricelineApiException expectedException = new PricelineApiException(description, errorMessage, help,
+				HttpStatus.SERVICE_UNAVAILABLE, Duration.ofMillis(4500));
+		
+		// configure mock
+		when(membershipService.save(dto)).thenThrow(expectedException);
+	    
+	    // send request
+	    MvcResult result = mockMvc.perform(
+	    			MockMvcRequestBuilders.post(BASE_API)
+	    			.contentType(MediaType.APPLICATION_JSON)
+	    			.content(TestUtils.asJsonString(dto)))
+	    		.andExpect(status().isServiceUnavailable())
+	           	.andReturn();
+        
+        // convert JSON to object
+	    PricelineApiError actual = TestUtils.convertToObject(result.getResponse().getContentAsString(), PricelineApiError.class);
+
+        // assert the delay is sent in whole seconds, rounded up
+        assertEquals("5", result.getResponse().getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(description, actual.getDescription());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), actual.getStatus());
+	}
+
 	@Test
 	@DisplayName("Delete membership")
     public void testDeleteMembership() throws Exception {
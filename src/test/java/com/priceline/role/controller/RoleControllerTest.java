@@ -1,12 +1,14 @@
 package com.priceline.role.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -29,6 +31,8 @@ import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import com.priceline.role.config.MessageConfig;
 import com.priceline.role.controller.advice.ApiRestExceptionHandler;
 import com.priceline.role.controller.restfull.assembler.RoleModelAssembler;
@@ -37,6 +41,8 @@ import com.priceline.role.enums.MessageEnum;
 import com.priceline.role.model.Role;
 import com.priceline.role.model.error.PricelineApiError;
 import com.priceline.role.model.exception.PricelineApiException;
+import com.priceline.role.model.page.Cursor;
+import com.priceline.role.model.page.KeysetPage;
 import com.priceline.role.service.RoleService;
 import com.priceline.role.service.system.MessageService;
 import com.priceline.role.utils.TestUtils;
@@ -125,8 +131,73 @@ public class RoleControllerTest {
 	}
 	
 	@Test
-	@DisplayName("Get all roles")
-    public void testGetAllRoles() throws Exception {
+	@DisplayName("Get role by nonexistent uid in CBOR")
+    public void testGetRoleByNonexistentUidInCbor() throws Exception {
+		// create random id
+		String id = UUID.randomUUID().toString();
+
+		// create exception
+		String description = messageService.getMessage(MessageEnum.EXCEPTION_ENTITY_NOT_FOUND_DESCRIPTION, new Object[] {});
+		String errorMessage = messageService.getMessage(MessageEnum.EXCEPTION_ENTITY_NOT_FOUND_ERR, new Object[] { id });
+		String help = messageService.getMessage(MessageEnum.EXCEPTION_ENTITY_NOT_FOUND_HELP, new Object[] {});
+
+		PricelineApiException expectedException = new PricelineApiException(description, errorMessage, help, HttpStatus.NOT_FOUND);
+		
+		// configure mock
+		when(roleService.findByUid(any())).thenThrow(expectedException);
+	    
+	    // send request
+	    MvcResult result = mockMvc.perform(
+	    			MockMvcRequestBuilders.get(BASE_API + "/" + id)
+	    			.accept(MediaType.APPLICATION_CBOR))
+	    		.andExpect(status().isNotFound())
+	    		.andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+	           	.andReturn();
+        
+        // decode CBOR
+	    JsonNode actual = new CBORMapper().readTree(result.getResponse().getContentAsByteArray());
+
+        // assert the error body is encoded as requested
+        assertEquals(description, actual.get("description").asText());
+        assertEquals(errorMessage, actual.get("errorMessage").asText());
+        assertEquals(HttpStatus.NOT_FOUND.value(), actual.get("status").asInt());
+	}
+	
+	@Test
+	@DisplayName("Get page of roles")
+    public void testGetPageOfRoles() throws Exception {
+		// create roles
+		List<Role> rows = new ArrayList<>();
+		for(long id = 1; id <= 3; id++) {
+			Role role = TestUtils.createRole(false);
+			role.setId(id);
+			rows.add(role);
+		}
+		KeysetPage<Role> page = KeysetPage.of(rows, Cursor.start(), 2);
+		
+		// configure mock
+		when(roleService.findPage(null, 2)).thenReturn(page);
+
+		// send request
+		MvcResult result = mockMvc.perform(
+					MockMvcRequestBuilders.get(BASE_API + "/all?size=2")
+					.contentType(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+                .andReturn();
+		 
+		// convert JSON to list
+		String response = result.getResponse().getContentAsString();
+		List<Role> actual = TestUtils.convertResponseToObjectList(response, Role.class);
+
+	    // assert page content and link to next page
+		assertEquals(List.of(rows.get(0).getUid(), rows.get(1).getUid()), actual.stream().map(Role::getUid).toList());
+		assertEquals(List.of("self", "next"), TestUtils.getLinkRelations(response));
+		assertTrue(TestUtils.getLink(response, "next").contains("cursor=" + Cursor.after(2L).encode()));
+	}
+	
+	@Test
+	@DisplayName("Get all roles unpaged")
+    public void testGetAllRolesUnpaged() throws Exception {
 		// create roles
 		Role role1 = TestUtils.createRole(true);
 		Role role2 = TestUtils.createRole(false);
@@ -140,7 +211,7 @@ public class RoleControllerTest {
 
 		// send request
 		MvcResult result = mockMvc.perform(
-					MockMvcRequestBuilders.get(BASE_API + "/all")
+					MockMvcRequestBuilders.get(BASE_API + "/all?unpaged=true")
 					.contentType(MediaType.APPLICATION_JSON))
 //				.andDo(MockMvcResultHandlers.print()) // debug purposes only
                 .andReturn();
@@ -0,0 +1,117 @@
+package com.priceline.role.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.priceline.role.model.Role;
+import com.priceline.role.repository.RoleRepository;
+import com.priceline.role.service.RoleService;
+import com.priceline.role.utils.TestUtils;
+
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test-containers")
+public class RoleDefaultSwitchIntegrationTest {
+
+	private final String BASE_API = "/api/v1/role";
+
+	private final int ROLES = 5;
+
+	private final int THREADS = 16;
+
+	private final int REQUESTS_PER_THREAD = 50;
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private RoleService roleService;
+
+	@Autowired
+	private RoleRepository roleRepository;
+
+	private Role originalDefaultRole;
+
+	private List<Role> roles;
+
+	@BeforeEach
+	public void setUp() {
+		originalDefaultRole = roleRepository.findByDefaultRoleTrue();
+
+		roles = new ArrayList<>();
+		for(int i = 0; i < ROLES; i++) {
+			roles.add(roleService.save(TestUtils.createRoleDTO(false)));
+		}
+	}
+
+	@AfterEach
+	public void tearDown() {
+		if(originalDefaultRole != null) {
+			roleService.updateDefaultRole(originalDefaultRole.getUid());
+		}
+
+		roles.forEach(role -> roleService.delete(role.getUid()));
+	}
+
+	@Test
+	@DisplayName("Update default role from concurrent callers")
+	public void testUpdateDefaultRoleFromConcurrentCallers() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Integer>> futures = new ArrayList<>();
+
+		try {
+			// every thread switches the default to random roles as fast as it can
+			for(int i = 0; i < THREADS; i++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+
+					int succeeded = 0;
+					for(int j = 0; j < REQUESTS_PER_THREAD; j++) {
+						Role role = roles.get(ThreadLocalRandom.current().nextInt(ROLES));
+						ResponseEntity<String> response = restTemplate.exchange(BASE_API + "/set-default/" + role.getUid(), HttpMethod.PUT, null, String.class);
+
+						if(response.getStatusCode() == HttpStatus.OK) {
+							succeeded++;
+						}
+					}
+
+					return succeeded;
+				}));
+			}
+			start.countDown();
+
+			// assert every request succeeded
+			for(Future<Integer> future : futures) {
+				assertEquals(REQUESTS_PER_THREAD, future.get(2, TimeUnit.MINUTES));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		// assert exactly one default role was left
+		long defaults = roleRepository.findAll().stream().filter(Role::isDefaultRole).count();
+		assertEquals(1, defaults);
+	}
+
+}
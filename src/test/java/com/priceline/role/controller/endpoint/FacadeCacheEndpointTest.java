@@ -0,0 +1,58 @@
+package com.priceline.role.controller.endpoint;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+
+import com.priceline.role.facade.PricelineFacade;
+
+@ExtendWith(MockitoExtension.class)
+public class FacadeCacheEndpointTest {
+
+	@Mock
+	private PricelineFacade pricelineFacade;
+
+	private FacadeCacheEndpoint endpoint;
+
+	@BeforeEach
+	public void setUp() {
+		endpoint = new FacadeCacheEndpoint(pricelineFacade);
+	}
+
+	@Test
+	@DisplayName("Invalidate user and team")
+	public void testInvalidateUserAndTeam() {
+		// create ids
+		String userId = UUID.randomUUID().toString();
+		String teamId = UUID.randomUUID().toString();
+
+		// invalidate
+		endpoint.invalidate("users", userId);
+		endpoint.invalidate("teams", teamId);
+
+		// assert
+		verify(pricelineFacade).invalidateUser(userId);
+		verify(pricelineFacade).invalidateTeam(teamId);
+	}
+
+	@Test
+	@DisplayName("Invalidate unknown cache")
+	public void testInvalidateUnknownCache() {
+		// invalidate
+		assertThrows(InvalidEndpointRequestException.class, () -> endpoint.invalidate("roles", UUID.randomUUID().toString()));
+
+		// assert
+		verifyNoInteractions(pricelineFacade);
+	}
+
+}
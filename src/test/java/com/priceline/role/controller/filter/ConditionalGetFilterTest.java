@@ -0,0 +1,230 @@
+package com.priceline.role.controller.filter;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import com.priceline.role.service.catalog.ChangeVersions;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+public class ConditionalGetFilterTest {
+	
+	private final String ROLE_API = "/api/v1/role";
+	
+	private final String MEMBERSHIP_API = "/api/v1/membership";
+	
+	private final DataSize MIN_COMPRESSION_SIZE = DataSize.ofKilobytes(2);
+	
+	private ChangeVersions changeVersions;
+	
+	private ConditionalGetFilter filter;
+	
+	private AtomicInteger handled;
+	
+	private String body;
+	
+	@BeforeEach
+	public void setUp() {
+		changeVersions = new ChangeVersions();
+		changeVersions.updateRoles("3f2a");
+		changeVersions.updateMemberships("4.12.20261018101500000000");
+		filter = new ConditionalGetFilter(changeVersions, MIN_COMPRESSION_SIZE);
+		handled = new AtomicInteger();
+		body = "{\"content\":[]}";
+	}
+	
+	@Test
+	@DisplayName("Get role listing not modified")
+	public void testGetRoleListingNotModified() throws Exception {
+		// first request
+		MockHttpServletResponse first = perform(get(ROLE_API + "/all"));
+		String etag = first.getHeader(HttpHeaders.ETAG);
+		
+		// send request with the ETag
+		MockHttpServletRequest request = get(ROLE_API + "/all");
+		request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+		MockHttpServletResponse second = perform(request);
+		
+		// assert the controller was reached only once
+		assertEquals(HttpServletResponse.SC_OK, first.getStatus());
+		assertEquals(body, first.getContentAsString());
+		assertEquals(HttpServletResponse.SC_NOT_MODIFIED, second.getStatus());
+		assertEquals(etag, second.getHeader(HttpHeaders.ETAG));
+		assertEquals("", second.getContentAsString());
+		assertEquals(1, handled.get());
+	}
+	
+	@Test
+	@DisplayName("Get role listing not modified from another instance")
+	public void testGetRoleListingNotModifiedFromAnotherInstance() throws Exception {
+		// first request
+		String etag = perform(get(ROLE_API + "/all")).getHeader(HttpHeaders.ETAG);
+		
+		// another instance holding the same versions
+		ChangeVersions otherVersions = new ChangeVersions();
+		otherVersions.updateRoles(changeVersions.roleToken());
+		filter = new ConditionalGetFilter(otherVersions, MIN_COMPRESSION_SIZE);
+		
+		// send request with the ETag
+		MockHttpServletRequest request = get(ROLE_API + "/all");
+		request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+		
+		// assert
+		assertEquals(HttpServletResponse.SC_NOT_MODIFIED, perform(request).getStatus());
+		assertEquals(1, handled.get());
+	}
+	
+	@Test
+	@DisplayName("Get membership listing before the versions are read")
+	public void testGetMembershipListingBeforeTheVersionsAreRead() throws Exception {
+		// versions not read yet
+		filter = new ConditionalGetFilter(new ChangeVersions(), MIN_COMPRESSION_SIZE);
+		
+		// send request
+		MockHttpServletResponse response = perform(get(MEMBERSHIP_API + "/all"));
+		
+		// assert
+		assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+		assertNull(response.getHeader(HttpHeaders.ETAG));
+		assertEquals(body, response.getContentAsString());
+	}
+	
+	@Test
+	@DisplayName("Get membership listing after a write")
+	public void testGetMembershipListingAfterAWrite() throws Exception {
+		// first request
+		String etag = perform(get(MEMBERSHIP_API + "/all")).getHeader(HttpHeaders.ETAG);
+		
+		// write a membership and send request with the old ETag
+		changeVersions.updateMemberships("5.13.20261018101600000000");
+		MockHttpServletRequest request = get(MEMBERSHIP_API + "/all");
+		request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+		MockHttpServletResponse response = perform(request);
+		
+		// assert
+		assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+		assertNotEquals(etag, response.getHeader(HttpHeaders.ETAG));
+		assertEquals(2, handled.get());
+	}
+	
+	@Test
+	@DisplayName("Get membership listing after a role change")
+	public void testGetMembershipListingAfterARoleChange() throws Exception {
+		// first request
+		String etag = perform(get(MEMBERSHIP_API + "/all")).getHeader(HttpHeaders.ETAG);
+		
+		// change roles, which are embedded in memberships
+		changeVersions.updateRoles("9b1c");
+		
+		// assert
+		assertNotEquals(etag, perform(get(MEMBERSHIP_API + "/all")).getHeader(HttpHeaders.ETAG));
+	}
+	
+	@Test
+	@DisplayName("Get listing in another representation")
+	public void testGetListingInAnotherRepresentation() throws Exception {
+		// send requests
+		MockHttpServletRequest json = get(MEMBERSHIP_API + "/all");
+		json.addHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+		MockHttpServletRequest cbor = get(MEMBERSHIP_API + "/all");
+		cbor.addHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_CBOR_VALUE);
+		
+		// assert each representation has its own ETag
+		assertNotEquals(perform(json).getHeader(HttpHeaders.ETAG), perform(cbor).getHeader(HttpHeaders.ETAG));
+	}
+	
+	@Test
+	@DisplayName("Get large listing compressed")
+	public void testGetLargeListingCompressed() throws Exception {
+		// create large body
+		body = RandomStringUtils.randomAlphanumeric((int) MIN_COMPRESSION_SIZE.toBytes() * 2);
+		
+		// send request
+		MockHttpServletRequest request = get(MEMBERSHIP_API + "/all");
+		request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br");
+		MockHttpServletResponse response = perform(request);
+		
+		// assert
+		assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+		assertArrayEquals(body.getBytes(StandardCharsets.UTF_8), gunzip(response.getContentAsByteArray()));
+		
+		// send request with the ETag of the compressed body
+		MockHttpServletRequest conditional = get(MEMBERSHIP_API + "/all");
+		conditional.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+		conditional.addHeader(HttpHeaders.IF_NONE_MATCH, response.getHeader(HttpHeaders.ETAG));
+		assertEquals(HttpServletResponse.SC_NOT_MODIFIED, perform(conditional).getStatus());
+	}
+	
+	@Test
+	@DisplayName("Get small listing uncompressed")
+	public void testGetSmallListingUncompressed() throws Exception {
+		// send request
+		MockHttpServletRequest request = get(ROLE_API + "/all");
+		request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+		MockHttpServletResponse response = perform(request);
+		
+		// assert
+		assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+		assertEquals(body, response.getContentAsString());
+	}
+	
+	@Test
+	@DisplayName("Export memberships without ETag")
+	public void testExportMembershipsWithoutETag() throws Exception {
+		// send request
+		MockHttpServletResponse response = perform(get(MEMBERSHIP_API + "/export"));
+		
+		// assert
+		assertNull(response.getHeader(HttpHeaders.ETAG));
+		assertEquals(body, response.getContentAsString());
+	}
+	
+	private MockHttpServletRequest get(String uri) {
+		return new MockHttpServletRequest("GET", uri);
+	}
+	
+	private MockHttpServletResponse perform(MockHttpServletRequest request) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		
+		// stands for the controller
+		HttpServlet servlet = new HttpServlet() {
+			@Override
+			protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+				handled.incrementAndGet();
+				resp.setContentType(MediaType.APPLICATION_JSON_VALUE);
+				resp.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+			}
+		};
+		filter.doFilter(request, response, new MockFilterChain(servlet));
+		
+		return response;
+	}
+	
+	private byte[] gunzip(byte[] compressed) throws IOException {
+		try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+			return gzip.readAllBytes();
+		}
+	}
+
+}
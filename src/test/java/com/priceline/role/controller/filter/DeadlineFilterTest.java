@@ -0,0 +1,111 @@
+package com.priceline.role.controller.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.priceline.role.model.deadline.Deadline;
+import com.priceline.role.model.deadline.DeadlineContextHolder;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+public class DeadlineFilterTest {
+	
+	private final String MEMBERSHIP_API = "/api/v1/membership";
+	
+	private final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+	
+	private final Duration MAX_TIMEOUT = Duration.ofSeconds(30);
+	
+	private DeadlineFilter filter;
+	
+	private AtomicReference<Deadline> deadline;
+	
+	@BeforeEach
+	public void setUp() {
+		filter = new DeadlineFilter(DEFAULT_TIMEOUT, MAX_TIMEOUT);
+		deadline = new AtomicReference<>();
+	}
+	
+	@Test
+	@DisplayName("Use the default deadline")
+	public void testUseTheDefaultDeadline() throws Exception {
+		perform(new MockHttpServletRequest("GET", MEMBERSHIP_API + "/all"));
+		
+		// assert
+		assertEquals(DEFAULT_TIMEOUT, deadline.get().getTimeout());
+		assertNull(DeadlineContextHolder.get());
+	}
+	
+	@Test
+	@DisplayName("Use the deadline requested by the client")
+	public void testUseTheDeadlineRequestedByTheClient() throws Exception {
+		perform(withTimeout("500"));
+		
+		// assert
+		assertEquals(Duration.ofMillis(500), deadline.get().getTimeout());
+	}
+	
+	@Test
+	@DisplayName("Bound the deadline requested by the client")
+	public void testBoundTheDeadlineRequestedByTheClient() throws Exception {
+		perform(withTimeout("600000"));
+		
+		// assert
+		assertEquals(MAX_TIMEOUT, deadline.get().getTimeout());
+	}
+	
+	@Test
+	@DisplayName("Ignore invalid deadlines")
+	public void testIgnoreInvalidDeadlines() throws Exception {
+		for(String timeout : new String[] { "abc", "0", "-100" }) {
+			perform(withTimeout(timeout));
+			
+			// assert
+			assertEquals(DEFAULT_TIMEOUT, deadline.get().getTimeout());
+		}
+	}
+	
+	@Test
+	@DisplayName("Export without deadline")
+	public void testExportWithoutDeadline() throws Exception {
+		perform(new MockHttpServletRequest("GET", MEMBERSHIP_API + "/export"));
+		
+		// assert
+		assertNull(deadline.get());
+	}
+	
+	private MockHttpServletRequest withTimeout(String timeout) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", MEMBERSHIP_API + "/all");
+		request.addHeader(DeadlineFilter.REQUEST_TIMEOUT_HEADER, timeout);
+		
+		return request;
+	}
+	
+	private void perform(MockHttpServletRequest request) throws Exception {
+		HttpServlet servlet = new HttpServlet() {
+			
+			private static final long serialVersionUID = 1L;
+			
+			@Override
+			protected void service(HttpServletRequest req, HttpServletResponse resp) {
+				deadline.set(DeadlineContextHolder.get());
+			}
+			
+		};
+		
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(servlet));
+	}
+
+}
@@ -1,14 +1,32 @@
 package com.priceline.role.facade;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -16,17 +34,30 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
 import com.priceline.role.config.MessageConfig;
 import com.priceline.role.dto.TeamDTO;
 import com.priceline.role.dto.UserDTO;
 import com.priceline.role.enums.MessageEnum;
+import com.priceline.role.facade.breaker.CircuitBreaker;
+import com.priceline.role.facade.bulkhead.Bulkhead;
+import com.priceline.role.facade.cache.LookupCache;
+import com.priceline.role.facade.cache.RotatingBloomFilter;
+import com.priceline.role.facade.cache.TeamRosterIndex;
+import com.priceline.role.facade.hedging.Hedger;
+import com.priceline.role.model.deadline.Deadline;
+import com.priceline.role.model.deadline.DeadlineContextHolder;
+import com.priceline.role.model.exception.DeadlineExceededException;
 import com.priceline.role.model.exception.PricelineApiException;
 import com.priceline.role.service.system.ExceptionService;
 import com.priceline.role.service.system.MessageService;
 import com.priceline.role.utils.TestUtils;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @ExtendWith(MockitoExtension.class)
 public class PricelineFacadeTest {
 	
@@ -38,13 +69,33 @@ public class PricelineFacadeTest {
     private PricelineFacade pricelineFacade;
     
     private MessageService messageService;
+    
+    private LookupCache<UserDTO> userCache;
+    
+    private RotatingBloomFilter missingUsers;
+    
+    private SimpleMeterRegistry meterRegistry;
+    
+    private Bulkhead bulkhead;
+    
+    private CircuitBreaker userCircuitBreaker;
+    
+    private Hedger userHedger;
+    
+    private final ExecutorService hedgingExecutor = Executors.newCachedThreadPool();
 	
 	@BeforeEach
     public void setUp() {
 		messageService = new MessageService(new MessageConfig().messageSource());
-    	ExceptionService exceptionService = new ExceptionService(messageService);
-    	pricelineFacade = new PricelineFacade(exceptionService, restTemplate, DUMMY_URI, DUMMY_URI);
+    	meterRegistry = new SimpleMeterRegistry();
+    	pricelineFacade = createFacade(new Hedger.Settings(false, 95, Duration.ofMillis(20), Duration.ofMillis(500), 100, 10));
     }
+	
+	@AfterEach
+	public void tearDown() {
+		DeadlineContextHolder.reset();
+		hedgingExecutor.shutdownNow();
+	}
 
     @Test
     @DisplayName("Get user by id")
@@ -125,5 +176,405 @@ public class PricelineFacadeTest {
  		String message = messageService.getMessage(MessageEnum.TEAM_API_ERROR_FIND_BY_ID_HELP, new Object[] { id });
  		assertEquals(exception.getHelp(), message);
     }
+    
+    @Test
+    @DisplayName("Get cached user by id")
+    public void testGetCachedUserById() {
+    	// create DTO
+    	UserDTO actual = TestUtils.createUserDTO();
+    	
+    	// configure mock
+    	doReturn(actual).when(restTemplate).getForObject(any(), any(), anyString());
+    	
+    	// find user twice
+    	pricelineFacade.findUserById(actual.getId());
+    	UserDTO expected = pricelineFacade.findUserById(actual.getId());
+    	
+    	// assert external API was called only once
+    	assertEquals(actual, expected);
+    	verify(restTemplate, times(1)).getForObject(any(), any(), anyString());
+    	assertEquals(1, userCache.stats().hitCount());
+    	assertEquals(1, userCache.stats().missCount());
+    }
+    
+    @Test
+    @DisplayName("Get user not found by external API")
+    public void testGetUserNotFoundByExternalApi() {
+    	// create random id
+    	String id = UUID.randomUUID().toString();
+    	
+    	// configure mock
+    	doThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null))
+    		.when(restTemplate).getForObject(any(), any(), anyString());
+    	
+    	// find user twice
+    	assertNull(pricelineFacade.findUserById(id));
+    	assertNull(pricelineFacade.findUserById(id));
+    	
+    	// assert "not found" was cached
+    	verify(restTemplate, times(1)).getForObject(any(), any(), anyString());
+    }
+    
+    @Test
+    @DisplayName("Get user recently not found without lookup")
+    public void testGetUserRecentlyNotFoundWithoutLookup() {
+    	// create random id
+    	String id = UUID.randomUUID().toString();
+    	
+    	// configure mock
+    	doThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null))
+    		.when(restTemplate).getForObject(any(), any(), anyString());
+    	
+    	// find user, then find it again once the cache forgot it
+    	assertNull(pricelineFacade.findUserById(id));
+    	userCache.invalidateAll();
+    	assertNull(pricelineFacade.findUserById(id));
+    	
+    	// assert the filter answered
+    	verify(restTemplate, times(1)).getForObject(any(), any(), anyString());
+    	assertEquals(1, missingUsers.hitCount());
+    }
+    
+    @Test
+    @DisplayName("Get user created after not being found")
+    public void testGetUserCreatedAfterNotBeingFound() {
+    	// create DTO
+    	UserDTO actual = TestUtils.createUserDTO();
+    	
+    	// configure mock, the user does not exist at first
+    	doThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null))
+    		.doReturn(actual).when(restTemplate).getForObject(any(), any(), anyString());
+    	
+    	// find user, invalidate once created and find again
+    	assertNull(pricelineFacade.findUserById(actual.getId()));
+    	pricelineFacade.invalidateUser(actual.getId());
+    	
+    	// assert
+    	assertEquals(actual, pricelineFacade.findUserById(actual.getId()));
+    }
+    
+    @Test
+    @DisplayName("Get user by id after invalidating cache")
+    public void testGetUserByIdAfterInvalidatingCache() {
+    	// create DTO
+    	UserDTO actual = TestUtils.createUserDTO();
+    	
+    	// configure mock
+    	doReturn(actual).when(restTemplate).getForObject(any(), any(), anyString());
+    	
+    	// find user, invalidate and find again
+    	pricelineFacade.findUserById(actual.getId());
+    	pricelineFacade.invalidateUser(actual.getId());
+    	pricelineFacade.findUserById(actual.getId());
+    	
+    	// assert external API was called again
+    	verify(restTemplate, times(2)).getForObject(any(), any(), anyString());
+    }
+    
+    @Test
+    @DisplayName("Get team by id from concurrent callers")
+    public void testGetTeamByIdFromConcurrentCallers() throws Exception {
+    	final int callers = 8;
+    	
+    	// create DTO
+    	TeamDTO actual = TestUtils.createTeamDTO();
+    	
+    	// configure mock to hold the external call until every caller has arrived
+    	CountDownLatch release = new CountDownLatch(1);
+    	doAnswer(invocation -> {
+    		release.await(5, TimeUnit.SECONDS);
+    		return actual;
+    	}).when(restTemplate).getForObject(any(), any(), anyString());
+    	
+    	// find team concurrently
+    	ExecutorService executor = Executors.newFixedThreadPool(callers);
+    	List<Future<TeamDTO>> futures = new ArrayList<>();
+    	
+    	try {
+    		for(int i = 0; i < callers; i++) {
+    			futures.add(executor.submit(() -> pricelineFacade.findTeamById(actual.getId())));
+    		}
+    		
+    		// wait until all but the first caller joined the call in flight
+    		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    		while(coalescedTeamCalls() < callers - 1 && System.nanoTime() < deadline) {
+    			Thread.sleep(10);
+    		}
+    		release.countDown();
+    		
+    		for(Future<TeamDTO> future : futures) {
+    			assertEquals(actual, future.get(5, TimeUnit.SECONDS));
+    		}
+    	} finally {
+    		executor.shutdownNow();
+    	}
+    	
+    	// assert external API was called only once
+    	verify(restTemplate, times(1)).getForObject(any(), any(), anyString());
+    	assertEquals(callers - 1, coalescedTeamCalls());
+    }
+    
+    @Test
+    @DisplayName("Get team by id from concurrent callers on different deadlines")
+    public void testGetTeamByIdFromConcurrentCallersOnDifferentDeadlines() throws Exception {
+    	// create DTO
+    	TeamDTO actual = TestUtils.createTeamDTO();
+    	
+    	// configure mock, the first call outlasts the deadline of its caller and the second answers at once
+    	CountDownLatch started = new CountDownLatch(1);
+    	CountDownLatch release = new CountDownLatch(1);
+    	AtomicInteger calls = new AtomicInteger();
+    	doAnswer(invocation -> {
+    		if(calls.incrementAndGet() > 1) {
+    			return actual;
+    		}
+    		
+    		started.countDown();
+    		release.await(5, TimeUnit.SECONDS);
+    		Thread.sleep(150);
+    		throw new ResourceAccessException("Read timed out");
+    	}).when(restTemplate).getForObject(any(), any(), anyString());
+    	
+    	// find team from a caller with a short deadline, then from one with a long deadline
+    	ExecutorService executor = Executors.newFixedThreadPool(2);
+    	
+    	try {
+    		Future<TeamDTO> shortDeadline = executor.submit(() -> findTeamWithin(actual.getId(), Duration.ofMillis(100)));
+    		started.await(5, TimeUnit.SECONDS);
+    		Future<TeamDTO> longDeadline = executor.submit(() -> findTeamWithin(actual.getId(), Duration.ofSeconds(5)));
+    		
+    		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    		while(coalescedTeamCalls() < 1 && System.nanoTime() < deadline) {
+    			Thread.sleep(10);
+    		}
+    		release.countDown();
+    		
+    		// assert only the caller with the short deadline timed out
+    		Exception exception = assertThrows(Exception.class, () -> shortDeadline.get(5, TimeUnit.SECONDS));
+    		assertEquals(HttpStatus.GATEWAY_TIMEOUT, ((PricelineApiException) exception.getCause()).getStatus());
+    		assertEquals(actual, longDeadline.get(5, TimeUnit.SECONDS));
+    	} finally {
+    		executor.shutdownNow();
+    	}
+    	
+    	// assert the second caller called again under its own deadline
+    	verify(restTemplate, times(2)).getForObject(any(), any(), anyString());
+    }
+    
+    @Test
+    @DisplayName("Get user by id while the bulkhead is full")
+    public void testGetUserByIdWhileTheBulkheadIsFull() throws Exception {
+    	// create DTO
+    	TeamDTO team = TestUtils.createTeamDTO();
+    	
+    	// configure mock to hold the team call, taking the only slot of the bulkhead
+    	CountDownLatch started = new CountDownLatch(1);
+    	CountDownLatch release = new CountDownLatch(1);
+    	doAnswer(invocation -> {
+    		started.countDown();
+    		release.await(5, TimeUnit.SECONDS);
+    		return team;
+    	}).when(restTemplate).getForObject(any(), any(), anyString());
+    	
+    	ExecutorService executor = Executors.newSingleThreadExecutor();
+    	try {
+    		Future<TeamDTO> teamLookup = executor.submit(() -> pricelineFacade.findTeamById(team.getId()));
+    		started.await(5, TimeUnit.SECONDS);
+    		
+    		// find user
+    		PricelineApiException exception = assertThrows(PricelineApiException.class, () -> {
+    			pricelineFacade.findUserById(UUID.randomUUID().toString());
+    		});
+    		
+    		// assert the call was rejected without reaching the external API
+    		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatus());
+    		assertEquals(Duration.ofSeconds(5), exception.getRetryAfter());
+    		assertEquals(1, bulkhead.rejectedCount());
+    		
+    		release.countDown();
+    		assertEquals(team, teamLookup.get(5, TimeUnit.SECONDS));
+    	} finally {
+    		executor.shutdownNow();
+    	}
+    	
+    	verify(restTemplate, times(1)).getForObject(any(), any(), anyString());
+    }
+    
+    @Test
+    @DisplayName("Get user by id while the user API is down")
+    public void testGetUserByIdWhileTheUserApiIsDown() {
+    	// configure mock
+    	doThrow(new ResourceAccessException("Read timed out")).when(restTemplate).getForObject(any(), any(), anyString());
+    	
+    	// fail enough calls to open the circuit
+    	for(int i = 0; i < 2; i++) {
+    		assertThrows(PricelineApiException.class, () -> pricelineFacade.findUserById(UUID.randomUUID().toString()));
+    	}
+    	
+    	// find user
+    	PricelineApiException exception = assertThrows(PricelineApiException.class, () -> {
+    		pricelineFacade.findUserById(UUID.randomUUID().toString());
+    	});
+    	
+    	// assert the call failed fast without reaching the external API, nor filling in a stack trace
+    	String errorMessage = messageService.getMessage(MessageEnum.EXCEPTION_CIRCUIT_OPEN_ERR, "User API");
+    	assertEquals(errorMessage, exception.getMessage());
+    	assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatus());
+    	assertEquals(0, exception.getStackTrace().length);
+    	assertEquals(CircuitBreaker.State.OPEN, userCircuitBreaker.getState());
+    	verify(restTemplate, times(2)).getForObject(any(), any(), anyString());
+    }
+    
+    @Test
+    @DisplayName("Get team by id while the user API is down")
+    public void testGetTeamByIdWhileTheUserApiIsDown() {
+    	// create DTO
+    	TeamDTO actual = TestUtils.createTeamDTO();
+    	
+    	// open the circuit of the user API
+    	doThrow(new ResourceAccessException("Read timed out")).when(restTemplate).getForObject(any(), eq(UserDTO.class), anyString());
+    	doReturn(actual).when(restTemplate).getForObject(any(), eq(TeamDTO.class), anyString());
+    	for(int i = 0; i < 2; i++) {
+    		assertThrows(PricelineApiException.class, () -> pricelineFacade.findUserById(UUID.randomUUID().toString()));
+    	}
+    	
+    	// assert the team API is still called
+    	assertEquals(actual, pricelineFacade.findTeamById(actual.getId()));
+    }
+    
+    @Test
+    @DisplayName("Get user by id without enough time left")
+    public void testGetUserByIdWithoutEnoughTimeLeft() {
+    	// leave less than the minimum call budget
+    	DeadlineContextHolder.set(Deadline.after(Duration.ofMillis(10)));
+    	
+    	// find user
+    	PricelineApiException exception = assertThrows(PricelineApiException.class, () -> {
+    		pricelineFacade.findUserById(UUID.randomUUID().toString());
+    	});
+    	
+    	// assert the call was never issued
+    	String errorMessage = messageService.getMessage(MessageEnum.EXCEPTION_DEADLINE_EXCEEDED_ERR, "User API", "10");
+    	assertEquals(errorMessage, exception.getMessage());
+    	assertEquals(HttpStatus.GATEWAY_TIMEOUT, exception.getStatus());
+    	verify(restTemplate, never()).getForObject(any(), any(), anyString());
+    }
+    
+    @Test
+    @DisplayName("Get user by id timing out at the request deadline")
+    public void testGetUserByIdTimingOutAtTheRequestDeadline() {
+    	// configure mock to time out once the deadline expired
+    	doAnswer(invocation -> {
+    		Thread.sleep(150);
+    		throw new ResourceAccessException("Read timed out");
+    	}).when(restTemplate).getForObject(any(), any(), anyString());
+    	
+    	// find users
+    	for(int i = 0; i < 2; i++) {
+    		DeadlineContextHolder.set(Deadline.after(Duration.ofMillis(100)));
+    		PricelineApiException exception = assertThrows(PricelineApiException.class, () -> {
+    			pricelineFacade.findUserById(UUID.randomUUID().toString());
+    		});
+    		assertEquals(HttpStatus.GATEWAY_TIMEOUT, exception.getStatus());
+    	}
+    	
+    	// assert the short deadlines did not open the circuit
+    	assertEquals(CircuitBreaker.State.CLOSED, userCircuitBreaker.getState());
+    }
+    
+    @Test
+    @DisplayName("Get user by id hedged when slow")
+    public void testGetUserByIdHedgedWhenSlow() {
+    	meterRegistry = new SimpleMeterRegistry();
+    	// a slot for the first call and one for its hedge
+    	pricelineFacade = createFacade(new Hedger.Settings(true, 95, Duration.ofMillis(20), Duration.ofMillis(50), 100, 10), 2);
+    	
+    	// create DTO
+    	UserDTO actual = TestUtils.createUserDTO();
+    	
+    	// configure mock, the first call stalls and the second answers at once
+    	AtomicInteger calls = new AtomicInteger();
+    	doAnswer(invocation -> {
+    		if(calls.incrementAndGet() == 1) {
+    			Thread.sleep(2000);
+    		}
+    		
+    		return actual;
+    	}).when(restTemplate).getForObject(any(), any(), anyString());
+    	
+    	// find user
+    	long start = System.nanoTime();
+    	UserDTO expected = pricelineFacade.findUserById(UUID.randomUUID().toString());
+    	long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    	
+    	// assert the second call answered without waiting for the first
+    	assertEquals(actual, expected);
+    	assertTrue(elapsed < 1000, "answered after " + elapsed + " ms");
+    	assertEquals(1, userHedger.issuedCount());
+    	assertEquals(1, userHedger.wonCount());
+    }
+    
+    @Test
+    @DisplayName("Get team membership from the roster of a fetched team")
+    public void testGetTeamMembershipFromTheRosterOfAFetchedTeam() {
+    	// create DTO
+    	TeamDTO team = TestUtils.createTeamDTO();
+    	String memberId = team.getTeamMemberIds().get(0);
+    	
+    	// membership is unknown before the team is fetched
+    	assertEquals(TeamRosterIndex.Presence.UNKNOWN, pricelineFacade.findTeamMembership(team.getId(), memberId));
+    	
+    	// fetch team
+    	doReturn(team).when(restTemplate).getForObject(any(), eq(TeamDTO.class), anyString());
+    	pricelineFacade.findTeamById(team.getId());
+    	
+    	// assert the roster answers without calling the user API
+    	assertEquals(TeamRosterIndex.Presence.MEMBER, pricelineFacade.findTeamMembership(team.getId(), memberId));
+    	assertEquals(TeamRosterIndex.Presence.MEMBER, pricelineFacade.findTeamMembership(team.getId(), team.getTeamLeadId()));
+    	assertEquals(TeamRosterIndex.Presence.NOT_MEMBER, pricelineFacade.findTeamMembership(team.getId(), UUID.randomUUID().toString()));
+    	verify(restTemplate, never()).getForObject(any(), eq(UserDTO.class), anyString());
+    	
+    	// assert the roster is dropped with the team
+    	pricelineFacade.invalidateTeam(team.getId());
+    	assertEquals(TeamRosterIndex.Presence.UNKNOWN, pricelineFacade.findTeamMembership(team.getId(), memberId));
+    }
+    
+    private PricelineFacade createFacade(Hedger.Settings hedgingSettings) {
+    	return createFacade(hedgingSettings, 1);
+    }
+    
+    private PricelineFacade createFacade(Hedger.Settings hedgingSettings, int maxConcurrentCalls) {
+    	ExceptionService exceptionService = new ExceptionService(messageService);
+    	userCache = new LookupCache<>("users", 100, Duration.ofMinutes(1), Duration.ofMinutes(1), meterRegistry);
+    	LookupCache<TeamDTO> teamCache = new LookupCache<>("teams", 100, Duration.ofMinutes(1), Duration.ofMinutes(1), meterRegistry);
+    	bulkhead = new Bulkhead("Priceline API", maxConcurrentCalls, 0, Duration.ZERO, Duration.ofSeconds(5), meterRegistry);
+    	CircuitBreaker.Settings settings = new CircuitBreaker.Settings(4, 2, 50, 100, Duration.ofSeconds(1), Duration.ofSeconds(30), 1);
+    	Predicate<RuntimeException> isFailure = exception -> !(exception instanceof HttpClientErrorException) && !(exception instanceof DeadlineExceededException);
+    	userCircuitBreaker = new CircuitBreaker("User API", settings, isFailure, meterRegistry);
+    	CircuitBreaker teamCircuitBreaker = new CircuitBreaker("Team API", settings, isFailure, meterRegistry);
+    	userHedger = new Hedger("User API", hedgingSettings, hedgingExecutor, meterRegistry);
+    	Hedger teamHedger = new Hedger("Team API", hedgingSettings, hedgingExecutor, meterRegistry);
+    	
+    	missingUsers = new RotatingBloomFilter("users", 1000, 0.001, Duration.ofMinutes(1), meterRegistry);
+    	RotatingBloomFilter missingTeams = new RotatingBloomFilter("teams", 1000, 0.001, Duration.ofMinutes(1), meterRegistry);
+    	TeamRosterIndex rosters = new TeamRosterIndex("rosters", 100, Duration.ofMinutes(1), meterRegistry);
+    	
+    	return new PricelineFacade(exceptionService, restTemplate, userCache, teamCache, missingUsers, missingTeams, rosters, bulkhead, userCircuitBreaker, teamCircuitBreaker,
+    			userHedger, teamHedger, meterRegistry, Duration.ofMillis(50), DUMMY_URI, DUMMY_URI);
+    }
+    
+    private TeamDTO findTeamWithin(String teamId, Duration timeout) {
+    	DeadlineContextHolder.set(Deadline.after(timeout));
+    	
+    	try {
+    		return pricelineFacade.findTeamById(teamId);
+    	} finally {
+    		DeadlineContextHolder.reset();
+    	}
+    }
+    
+    private double coalescedTeamCalls() {
+    	return meterRegistry.get("facade.calls.coalesced").tag("name", "teams").counter().count();
+    }
 
 }
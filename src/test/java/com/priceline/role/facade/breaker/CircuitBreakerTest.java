@@ -0,0 +1,172 @@
+package com.priceline.role.facade.breaker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.priceline.role.facade.breaker.CircuitBreaker.State;
+import com.priceline.role.model.exception.CircuitBreakerOpenException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class CircuitBreakerTest {
+	
+	private final CircuitBreaker.Settings SETTINGS = new CircuitBreaker.Settings(10, 4, 50, 80, Duration.ofSeconds(1), Duration.ofSeconds(30), 2);
+	
+	private SimpleMeterRegistry meterRegistry;
+	
+	private AtomicLong now;
+	
+	private CircuitBreaker circuitBreaker;
+	
+	@BeforeEach
+	public void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		now = new AtomicLong();
+		circuitBreaker = new CircuitBreaker("test", SETTINGS, exception -> !(exception instanceof IllegalArgumentException),
+				meterRegistry, now::get);
+	}
+	
+	@Test
+	@DisplayName("Open circuit when the failure rate reaches the threshold")
+	public void testOpenCircuitWhenTheFailureRateReachesTheThreshold() {
+		// two successes and two failures
+		succeed();
+		succeed();
+		fail();
+		assertEquals(State.CLOSED, circuitBreaker.getState());
+		fail();
+		
+		// assert the next call fails fast without running
+		assertEquals(State.OPEN, circuitBreaker.getState());
+		CircuitBreakerOpenException exception = assertThrows(CircuitBreakerOpenException.class, () -> circuitBreaker.execute(() -> {
+			throw new AssertionError("call must not run");
+		}));
+		assertEquals(Duration.ofSeconds(30), exception.getRetryAfter());
+		assertEquals(1, circuitBreaker.rejectedCount());
+		assertEquals(1, transitions(State.CLOSED, State.OPEN));
+	}
+	
+	@Test
+	@DisplayName("Open circuit when the slow call rate reaches the threshold")
+	public void testOpenCircuitWhenTheSlowCallRateReachesTheThreshold() {
+		// four successful but slow calls
+		for(int i = 0; i < 4; i++) {
+			circuitBreaker.execute(() -> now.addAndGet(TimeUnit.SECONDS.toNanos(2)));
+		}
+		
+		// assert
+		assertEquals(State.OPEN, circuitBreaker.getState());
+	}
+	
+	@Test
+	@DisplayName("Keep circuit closed on client errors")
+	public void testKeepCircuitClosedOnClientErrors() {
+		// calls answered with client errors
+		for(int i = 0; i < 10; i++) {
+			assertThrows(IllegalArgumentException.class, () -> circuitBreaker.execute(() -> {
+				throw new IllegalArgumentException("client error");
+			}));
+		}
+		
+		// assert
+		assertEquals(State.CLOSED, circuitBreaker.getState());
+	}
+	
+	@Test
+	@DisplayName("Keep circuit closed below the minimum number of calls")
+	public void testKeepCircuitClosedBelowTheMinimumNumberOfCalls() {
+		fail();
+		fail();
+		fail();
+		
+		// assert
+		assertEquals(State.CLOSED, circuitBreaker.getState());
+	}
+	
+	@Test
+	@DisplayName("Close circuit after successful probes")
+	public void testCloseCircuitAfterSuccessfulProbes() {
+		open();
+		
+		// wait for the open duration and probe
+		now.addAndGet(SETTINGS.openDuration().toNanos());
+		succeed();
+		assertEquals(State.HALF_OPEN, circuitBreaker.getState());
+		succeed();
+		
+		// assert
+		assertEquals(State.CLOSED, circuitBreaker.getState());
+		assertEquals(1, transitions(State.OPEN, State.HALF_OPEN));
+		assertEquals(1, transitions(State.HALF_OPEN, State.CLOSED));
+		
+		// the window starts over after closing
+		fail();
+		assertEquals(State.CLOSED, circuitBreaker.getState());
+	}
+	
+	@Test
+	@DisplayName("Open circuit again after failed probes")
+	public void testOpenCircuitAgainAfterFailedProbes() {
+		open();
+		
+		// wait for the open duration and probe
+		now.addAndGet(SETTINGS.openDuration().toNanos());
+		fail();
+		fail();
+		
+		// assert
+		assertEquals(State.OPEN, circuitBreaker.getState());
+		assertEquals(1, transitions(State.HALF_OPEN, State.OPEN));
+		assertThrows(CircuitBreakerOpenException.class, this::succeed);
+	}
+	
+	@Test
+	@DisplayName("Reject calls beyond the probes while half-open")
+	public void testRejectCallsBeyondTheProbesWhileHalfOpen() {
+		open();
+		now.addAndGet(SETTINGS.openDuration().toNanos());
+		
+		// start both probes without finishing them
+		circuitBreaker.execute(() -> {
+			circuitBreaker.execute(() -> {
+				// assert a third call is rejected while the probes are in flight
+				assertThrows(CircuitBreakerOpenException.class, this::succeed);
+				return null;
+			});
+			return null;
+		});
+		
+		// assert
+		assertEquals(State.CLOSED, circuitBreaker.getState());
+	}
+	
+	private void open() {
+		for(int i = 0; i < SETTINGS.minimumCalls(); i++) {
+			fail();
+		}
+		assertEquals(State.OPEN, circuitBreaker.getState());
+	}
+	
+	private void succeed() {
+		circuitBreaker.execute(() -> "success");
+	}
+	
+	private void fail() {
+		assertThrows(IllegalStateException.class, () -> circuitBreaker.execute(() -> {
+			throw new IllegalStateException("failure");
+		}));
+	}
+	
+	private double transitions(State from, State to) {
+		return meterRegistry.get("facade.circuit.transitions").tag("name", "test").tag("from", from.name()).tag("to", to.name()).counter().count();
+	}
+
+}
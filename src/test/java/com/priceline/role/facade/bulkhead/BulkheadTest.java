@@ -0,0 +1,134 @@
+package com.priceline.role.facade.bulkhead;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.priceline.role.model.exception.ServiceUnavailableException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class BulkheadTest {
+	
+	private final Duration RETRY_AFTER = Duration.ofSeconds(5);
+	
+	private SimpleMeterRegistry meterRegistry;
+	
+	private ExecutorService executor;
+	
+	@BeforeEach
+	public void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		executor = Executors.newCachedThreadPool();
+	}
+	
+	@AfterEach
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+	
+	@Test
+	@DisplayName("Execute call")
+	public void testExecuteCall() {
+		Bulkhead bulkhead = new Bulkhead("test", 1, 0, Duration.ZERO, RETRY_AFTER, meterRegistry);
+		
+		// execute calls one after the other
+		assertEquals("first", bulkhead.execute(() -> "first"));
+		assertEquals("second", bulkhead.execute(() -> "second"));
+		
+		// assert
+		assertEquals(0, bulkhead.rejectedCount());
+	}
+	
+	@Test
+	@DisplayName("Reject call when the bulkhead and its queue are full")
+	public void testRejectCallWhenTheBulkheadAndItsQueueAreFull() throws Exception {
+		Bulkhead bulkhead = new Bulkhead("test", 1, 1, Duration.ofSeconds(5), RETRY_AFTER, meterRegistry);
+		
+		// hold the only slot and queue a second call
+		CountDownLatch release = new CountDownLatch(1);
+		Future<String> running = executor.submit(() -> bulkhead.execute(() -> await(release, "running")));
+		awaitGauge("facade.bulkhead.active", 1);
+		Future<String> queued = executor.submit(() -> bulkhead.execute(() -> "queued"));
+		awaitGauge("facade.bulkhead.queued", 1);
+		
+		// a third call is rejected at once
+		ServiceUnavailableException exception = assertThrows(ServiceUnavailableException.class, () -> bulkhead.execute(() -> "rejected"));
+		
+		// assert
+		assertEquals(RETRY_AFTER, exception.getRetryAfter());
+		assertEquals(1, bulkhead.rejectedCount());
+		
+		// the queued call runs once the slot is released
+		release.countDown();
+		assertEquals("running", running.get(5, TimeUnit.SECONDS));
+		assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+	}
+	
+	@Test
+	@DisplayName("Reject queued call after the maximum wait")
+	public void testRejectQueuedCallAfterTheMaximumWait() throws Exception {
+		Bulkhead bulkhead = new Bulkhead("test", 1, 1, Duration.ofMillis(50), RETRY_AFTER, meterRegistry);
+		
+		// hold the only slot
+		CountDownLatch release = new CountDownLatch(1);
+		Future<String> running = executor.submit(() -> bulkhead.execute(() -> await(release, "running")));
+		awaitGauge("facade.bulkhead.active", 1);
+		
+		// assert the queued call gives up
+		assertThrows(ServiceUnavailableException.class, () -> bulkhead.execute(() -> "queued"));
+		assertEquals(1, bulkhead.rejectedCount());
+		assertEquals(0, gauge("facade.bulkhead.queued"));
+		
+		release.countDown();
+		assertEquals("running", running.get(5, TimeUnit.SECONDS));
+	}
+	
+	@Test
+	@DisplayName("Release slot when the call fails")
+	public void testReleaseSlotWhenTheCallFails() {
+		Bulkhead bulkhead = new Bulkhead("test", 1, 0, Duration.ZERO, RETRY_AFTER, meterRegistry);
+		
+		// execute failing call
+		assertThrows(IllegalStateException.class, () -> bulkhead.execute(() -> {
+			throw new IllegalStateException("failure");
+		}));
+		
+		// assert the slot is free again
+		assertEquals(0, gauge("facade.bulkhead.active"));
+		assertEquals("next", bulkhead.execute(() -> "next"));
+	}
+	
+	private String await(CountDownLatch latch, String value) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+		}
+		
+		return value;
+	}
+	
+	private void awaitGauge(String name, double value) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while(gauge(name) != value && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+	}
+	
+	private double gauge(String name) {
+		return meterRegistry.get(name).tag("name", "test").gauge().value();
+	}
+
+}
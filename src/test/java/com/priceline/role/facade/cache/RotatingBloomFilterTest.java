@@ -0,0 +1,152 @@
+package com.priceline.role.facade.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class RotatingBloomFilterTest {
+	
+	private final Duration ROTATION = Duration.ofSeconds(30);
+	
+	private SimpleMeterRegistry meterRegistry;
+	
+	private AtomicLong now;
+	
+	@BeforeEach
+	public void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		now = new AtomicLong();
+	}
+	
+	@Test
+	@DisplayName("Remember every id added")
+	public void testRememberEveryIdAdded() {
+		RotatingBloomFilter filter = new RotatingBloomFilter("test", 10_000, 0.01, ROTATION, meterRegistry, now::get);
+		
+		// add ids
+		String[] ids = new String[10_000];
+		for(int i = 0; i < ids.length; i++) {
+			ids[i] = UUID.randomUUID().toString();
+			filter.put(ids[i]);
+		}
+		
+		// assert there is no false negative
+		for(String id : ids) {
+			assertTrue(filter.mightContain(id));
+		}
+		assertEquals(ids.length, filter.hitCount());
+	}
+	
+	@Test
+	@DisplayName("Keep false positives within the configured rate")
+	public void testKeepFalsePositivesWithinTheConfiguredRate() {
+		RotatingBloomFilter filter = new RotatingBloomFilter("test", 10_000, 0.01, ROTATION, meterRegistry, now::get);
+		
+		// fill the current generation, then the next one after a rotation
+		for(int i = 0; i < 10_000; i++) {
+			filter.put(UUID.randomUUID().toString());
+		}
+		now.addAndGet(ROTATION.toNanos());
+		for(int i = 0; i < 10_000; i++) {
+			filter.put(UUID.randomUUID().toString());
+		}
+		
+		// look up unseen ids
+		int falsePositives = 0;
+		for(int i = 0; i < 100_000; i++) {
+			if(filter.mightContain(UUID.randomUUID().toString())) {
+				falsePositives++;
+			}
+		}
+		
+		// assert
+		assertTrue(falsePositives < 1_200, falsePositives + " false positives");
+	}
+	
+	@Test
+	@DisplayName("Size generations for the expected ids")
+	public void testSizeGenerationsForTheExpectedIds() {
+		RotatingBloomFilter filter = new RotatingBloomFilter("test", 100_000, 0.001, ROTATION, meterRegistry, now::get);
+		
+		// assert about 16 bits and 11 hashes per id for half the rate
+		assertEquals(1_582_029, filter.bits());
+		assertEquals(11, filter.hashes());
+	}
+	
+	@Test
+	@DisplayName("Forget ids after two rotations")
+	public void testForgetIdsAfterTwoRotations() {
+		RotatingBloomFilter filter = new RotatingBloomFilter("test", 1_000, 0.01, ROTATION, meterRegistry, now::get);
+		filter.put("missing");
+		
+		// still remembered during the next rotation
+		now.addAndGet(ROTATION.toNanos());
+		assertTrue(filter.mightContain("missing"));
+		
+		// forgotten after the following one
+		now.addAndGet(ROTATION.toNanos());
+		assertFalse(filter.mightContain("missing"));
+	}
+	
+	@Test
+	@DisplayName("Forget ids after a long idle period")
+	public void testForgetIdsAfterALongIdlePeriod() {
+		RotatingBloomFilter filter = new RotatingBloomFilter("test", 1_000, 0.01, ROTATION, meterRegistry, now::get);
+		filter.put("missing");
+		
+		// nothing happened for more than two rotations
+		now.addAndGet(ROTATION.multipliedBy(3).toNanos());
+		
+		// assert
+		assertFalse(filter.mightContain("missing"));
+	}
+	
+	@Test
+	@DisplayName("Rotate when the current generation is full")
+	public void testRotateWhenTheCurrentGenerationIsFull() {
+		RotatingBloomFilter filter = new RotatingBloomFilter("test", 100, 0.01, ROTATION, meterRegistry, now::get);
+		
+		// add more ids than a generation holds, without time passing
+		for(int i = 0; i < 1_000; i++) {
+			filter.put(UUID.randomUUID().toString());
+		}
+		
+		// assert only the last two generations are kept
+		assertTrue(filter.size() <= 200, filter.size() + " ids");
+		assertEquals(filter.size(), meterRegistry.get("facade.missing.ids").gauge().value());
+	}
+	
+	@Test
+	@DisplayName("Invalidate id")
+	public void testInvalidateId() {
+		RotatingBloomFilter filter = new RotatingBloomFilter("test", 1_000, 0.01, ROTATION, meterRegistry, now::get);
+		filter.put("missing");
+		
+		// an unknown id leaves the filter untouched
+		filter.invalidate("unknown");
+		assertTrue(filter.mightContain("missing"));
+		
+		// a held id clears the filter
+		filter.invalidate("missing");
+		assertFalse(filter.mightContain("missing"));
+	}
+	
+	@Test
+	@DisplayName("Reject invalid settings")
+	public void testRejectInvalidSettings() {
+		assertThrows(IllegalArgumentException.class, () -> new RotatingBloomFilter("test", 0, 0.01, ROTATION, meterRegistry));
+		assertThrows(IllegalArgumentException.class, () -> new RotatingBloomFilter("test", 1_000, 1, ROTATION, meterRegistry));
+	}
+
+}
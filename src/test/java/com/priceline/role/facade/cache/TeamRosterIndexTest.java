@@ -0,0 +1,78 @@
+package com.priceline.role.facade.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.priceline.role.dto.TeamDTO;
+import com.priceline.role.utils.TestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class TeamRosterIndexTest {
+	
+	private TeamRosterIndex index;
+	
+	@BeforeEach
+	public void setUp() {
+		index = new TeamRosterIndex("test", 100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+	}
+	
+	@Test
+	@DisplayName("Find members and lead of an indexed team")
+	public void testFindMembersAndLeadOfAnIndexedTeam() {
+		TeamDTO team = TestUtils.createTeamDTO();
+		index.put(team);
+		
+		// assert every member and the lead are listed
+		for(String memberId : team.getTeamMemberIds()) {
+			assertEquals(TeamRosterIndex.Presence.MEMBER, index.presence(team.getId(), memberId));
+		}
+		assertEquals(TeamRosterIndex.Presence.MEMBER, index.presence(team.getId(), team.getTeamLeadId()));
+		assertEquals(TeamRosterIndex.Presence.NOT_MEMBER, index.presence(team.getId(), UUID.randomUUID().toString()));
+	}
+	
+	@Test
+	@DisplayName("Report unknown teams")
+	public void testReportUnknownTeams() {
+		assertEquals(TeamRosterIndex.Presence.UNKNOWN, index.presence(UUID.randomUUID().toString(), UUID.randomUUID().toString()));
+	}
+	
+	@Test
+	@DisplayName("Index team without members")
+	public void testIndexTeamWithoutMembers() {
+		TeamDTO team = new TeamDTO();
+		team.setId(UUID.randomUUID().toString());
+		index.put(team);
+		
+		// assert the roster is known and empty
+		assertEquals(TeamRosterIndex.Presence.NOT_MEMBER, index.presence(team.getId(), UUID.randomUUID().toString()));
+		assertFalse(TeamRosterIndex.isMember(team, UUID.randomUUID().toString()));
+	}
+	
+	@Test
+	@DisplayName("Forget invalidated teams")
+	public void testForgetInvalidatedTeams() {
+		TeamDTO team = TestUtils.createTeamDTO();
+		TeamDTO other = TestUtils.createTeamDTO();
+		index.put(team);
+		index.put(other);
+		
+		// invalidate one team, then all of them
+		index.invalidate(team.getId());
+		assertEquals(TeamRosterIndex.Presence.UNKNOWN, index.presence(team.getId(), team.getTeamLeadId()));
+		assertEquals(TeamRosterIndex.Presence.MEMBER, index.presence(other.getId(), other.getTeamLeadId()));
+		
+		index.invalidateAll();
+		assertEquals(TeamRosterIndex.Presence.UNKNOWN, index.presence(other.getId(), other.getTeamLeadId()));
+		assertTrue(TeamRosterIndex.isMember(other, other.getTeamLeadId()));
+	}
+
+}
@@ -0,0 +1,218 @@
+package com.priceline.role.facade.coalescing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class SingleFlightTest {
+
+	private SingleFlight<String> singleFlight;
+
+	@BeforeEach
+	public void setUp() {
+		singleFlight = new SingleFlight<>("test", new SimpleMeterRegistry());
+	}
+
+	@Test
+	@DisplayName("Share exception with concurrent caller")
+	public void testShareExceptionWithConcurrentCaller() throws Exception {
+		IllegalStateException failure = new IllegalStateException("upstream failure");
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger calls = new AtomicInteger();
+
+		// first caller holds the call open until released
+		CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> singleFlight.execute("key", key -> {
+			calls.incrementAndGet();
+			started.countDown();
+			await(release);
+			throw failure;
+		}));
+		started.await(5, TimeUnit.SECONDS);
+
+		// second caller joins the call in flight
+		CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> singleFlight.execute("key", key -> {
+			calls.incrementAndGet();
+			return "unexpected";
+		}));
+		while(singleFlight.coalescedCount() < 1) {
+			Thread.sleep(10);
+		}
+		release.countDown();
+
+		// assert both callers received the same exception from a single call
+		ExecutionException firstException = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+		ExecutionException secondException = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+		assertSame(failure, firstException.getCause());
+		assertSame(failure, secondException.getCause());
+		assertEquals(1, calls.get());
+	}
+
+	@Test
+	@DisplayName("Share error with concurrent caller")
+	public void testShareErrorWithConcurrentCaller() throws Exception {
+		StackOverflowError failure = new StackOverflowError();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		// first caller holds the call open until released
+		CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> singleFlight.execute("key", key -> {
+			started.countDown();
+			await(release);
+			throw failure;
+		}));
+		started.await(5, TimeUnit.SECONDS);
+
+		// second caller joins the call in flight
+		CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> singleFlight.execute("key", key -> "unexpected"));
+		while(singleFlight.coalescedCount() < 1) {
+			Thread.sleep(10);
+		}
+		release.countDown();
+
+		// assert the second caller is released with the same error
+		ExecutionException firstException = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+		ExecutionException secondException = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+		assertSame(failure, firstException.getCause());
+		assertSame(failure, secondException.getCause());
+	}
+
+	@Test
+	@DisplayName("Call again on a failure not shared")
+	public void testCallAgainOnAFailureNotShared() throws Exception {
+		singleFlight = new SingleFlight<>("test", exception -> !(exception instanceof IllegalStateException), new SimpleMeterRegistry());
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger calls = new AtomicInteger();
+
+		// first caller holds the call open until released, then fails for itself only
+		CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> singleFlight.execute("key", key -> {
+			calls.incrementAndGet();
+			started.countDown();
+			await(release);
+			throw new IllegalStateException("caller failure");
+		}));
+		started.await(5, TimeUnit.SECONDS);
+
+		// second caller joins the call in flight
+		CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> singleFlight.execute("key", key -> "value-" + calls.incrementAndGet()));
+		while(singleFlight.coalescedCount() < 1) {
+			Thread.sleep(10);
+		}
+		release.countDown();
+
+		// assert the second caller ran the call itself
+		ExecutionException firstException = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+		assertEquals(IllegalStateException.class, firstException.getCause().getClass());
+		assertEquals("value-2", second.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	@DisplayName("Call again when the first caller is interrupted")
+	public void testCallAgainWhenTheFirstCallerIsInterrupted() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		AtomicInteger calls = new AtomicInteger();
+
+		// first caller waits in the call until interrupted
+		Thread first = new Thread(() -> assertThrows(IllegalStateException.class, () -> singleFlight.execute("key", key -> {
+			calls.incrementAndGet();
+			started.countDown();
+			try {
+				Thread.sleep(5000);
+			} catch (InterruptedException exception) {
+				Thread.currentThread().interrupt();
+			}
+			throw new IllegalStateException("interrupted");
+		})));
+		first.start();
+		started.await(5, TimeUnit.SECONDS);
+
+		// second caller joins the call in flight
+		CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> singleFlight.execute("key", key -> "value-" + calls.incrementAndGet()));
+		while(singleFlight.coalescedCount() < 1) {
+			Thread.sleep(10);
+		}
+		first.interrupt();
+
+		// assert the second caller ran the call itself
+		assertEquals("value-2", second.get(5, TimeUnit.SECONDS));
+		first.join(5000);
+	}
+
+	@Test
+	@DisplayName("Stop waiting when a concurrent caller is interrupted")
+	public void testStopWaitingWhenAConcurrentCallerIsInterrupted() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Throwable> waiterFailure = new CompletableFuture<>();
+		CompletableFuture<Boolean> waiterInterrupted = new CompletableFuture<>();
+
+		// first caller holds the call open until released
+		CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> singleFlight.execute("key", key -> {
+			started.countDown();
+			await(release);
+			return "value";
+		}));
+		started.await(5, TimeUnit.SECONDS);
+
+		// second caller joins the call in flight
+		Thread second = new Thread(() -> {
+			try {
+				singleFlight.execute("key", key -> "unexpected");
+			} catch (Throwable failure) {
+				waiterFailure.complete(failure);
+			}
+			waiterInterrupted.complete(Thread.currentThread().isInterrupted());
+		});
+		second.start();
+		while(singleFlight.coalescedCount() < 1) {
+			Thread.sleep(10);
+		}
+		second.interrupt();
+
+		// assert the second caller stopped waiting while the call is still in flight
+		assertEquals(InterruptedException.class, waiterFailure.get(5, TimeUnit.SECONDS).getCause().getClass());
+		assertTrue(waiterInterrupted.get(5, TimeUnit.SECONDS));
+		assertFalse(first.isDone());
+
+		// assert the first caller still completes the call
+		release.countDown();
+		assertEquals("value", first.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	@DisplayName("Execute again after previous call completed")
+	public void testExecuteAgainAfterPreviousCallCompleted() {
+		AtomicInteger calls = new AtomicInteger();
+
+		singleFlight.execute("key", key -> "value-" + calls.incrementAndGet());
+		String value = singleFlight.execute("key", key -> "value-" + calls.incrementAndGet());
+
+		// assert results are not retained once the call completed
+		assertEquals("value-2", value);
+		assertEquals(0, singleFlight.coalescedCount());
+	}
+
+	private void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
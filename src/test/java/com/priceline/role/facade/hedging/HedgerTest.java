@@ -0,0 +1,326 @@
+package com.priceline.role.facade.hedging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.priceline.role.facade.bulkhead.Bulkhead;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class HedgerTest {
+	
+	private final Hedger.Settings SETTINGS = new Hedger.Settings(true, 95, Duration.ofMillis(10), Duration.ofMillis(50), 100, 10);
+	
+	private SimpleMeterRegistry meterRegistry;
+	
+	private ExecutorService executor;
+	
+	@BeforeEach
+	public void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		executor = Executors.newCachedThreadPool();
+	}
+	
+	@AfterEach
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+	
+	@Test
+	@DisplayName("Run call on the caller thread when disabled")
+	public void testRunCallOnTheCallerThreadWhenDisabled() {
+		Hedger hedger = new Hedger("test", new Hedger.Settings(false, 95, Duration.ofMillis(10), Duration.ofMillis(50), 100, 10),
+				executor, meterRegistry);
+		
+		// execute call
+		Thread caller = hedger.execute(Thread::currentThread);
+		
+		// assert
+		assertSame(Thread.currentThread(), caller);
+	}
+	
+	@Test
+	@DisplayName("Answer fast call without hedging")
+	public void testAnswerFastCallWithoutHedging() {
+		Hedger hedger = new Hedger("test", SETTINGS, executor, meterRegistry);
+		
+		// execute call
+		assertEquals("first", hedger.execute(() -> "first"));
+		
+		// assert
+		assertEquals(0, hedger.issuedCount());
+	}
+	
+	@Test
+	@DisplayName("Hedge slow call and return the first answer")
+	public void testHedgeSlowCallAndReturnTheFirstAnswer() {
+		Hedger hedger = new Hedger("test", SETTINGS, executor, meterRegistry);
+		
+		// the first call stalls until released, the second answers at once
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger calls = new AtomicInteger();
+		
+		String result = hedger.execute(() -> {
+			if(calls.incrementAndGet() == 1) {
+				await(release);
+				return "first";
+			}
+			
+			return "second";
+		});
+		release.countDown();
+		
+		// assert
+		assertEquals("second", result);
+		assertEquals(2, calls.get());
+		assertEquals(1, hedger.issuedCount());
+		assertEquals(1, hedger.wonCount());
+	}
+	
+	@Test
+	@DisplayName("Keep first answer arriving after hedging")
+	public void testKeepFirstAnswerArrivingAfterHedging() {
+		Hedger hedger = new Hedger("test", SETTINGS, executor, meterRegistry);
+		
+		// the first call is slow, the second even slower
+		AtomicInteger calls = new AtomicInteger();
+		
+		String result = hedger.execute(() -> {
+			if(calls.incrementAndGet() == 1) {
+				sleep(100);
+				return "first";
+			}
+			
+			sleep(1000);
+			return "second";
+		});
+		
+		// assert
+		assertEquals("first", result);
+		assertEquals(1, hedger.issuedCount());
+		assertEquals(0, hedger.wonCount());
+	}
+	
+	@Test
+	@DisplayName("Return the answer of the hedge when the first call fails")
+	public void testReturnTheAnswerOfTheHedgeWhenTheFirstCallFails() {
+		Hedger hedger = new Hedger("test", SETTINGS, executor, meterRegistry);
+		
+		// the first call fails after the delay, the second answers
+		AtomicInteger calls = new AtomicInteger();
+		
+		String result = hedger.execute(() -> {
+			if(calls.incrementAndGet() == 1) {
+				sleep(100);
+				throw new IllegalStateException("first");
+			}
+			
+			sleep(200);
+			return "second";
+		});
+		
+		// assert
+		assertEquals("second", result);
+	}
+	
+	@Test
+	@DisplayName("Propagate fast failure without hedging")
+	public void testPropagateFastFailureWithoutHedging() {
+		Hedger hedger = new Hedger("test", SETTINGS, executor, meterRegistry);
+		
+		// execute call
+		IllegalStateException exception = assertThrows(IllegalStateException.class, () -> hedger.execute(() -> {
+			throw new IllegalStateException("failure");
+		}));
+		
+		// assert
+		assertEquals("failure", exception.getMessage());
+		assertEquals(0, hedger.issuedCount());
+	}
+	
+	@Test
+	@DisplayName("Fail when both calls fail")
+	public void testFailWhenBothCallsFail() {
+		Hedger hedger = new Hedger("test", SETTINGS, executor, meterRegistry);
+		
+		// execute call
+		assertThrows(IllegalStateException.class, () -> hedger.execute(() -> {
+			sleep(100);
+			throw new IllegalStateException("failure");
+		}));
+		
+		// assert
+		assertEquals(1, hedger.issuedCount());
+	}
+	
+	@Test
+	@DisplayName("Cap the rate of hedges")
+	public void testCapTheRateOfHedges() {
+		// at most one call out of ten is hedged, with a burst of a single hedge
+		Hedger hedger = new Hedger("test", new Hedger.Settings(true, 95, Duration.ofMillis(1), Duration.ofMillis(1), 10, 10),
+				executor, meterRegistry);
+		
+		// execute slow calls
+		for(int i = 0; i < 30; i++) {
+			hedger.execute(() -> {
+				sleep(10);
+				return "slow";
+			});
+		}
+		
+		// assert
+		assertTrue(hedger.issuedCount() >= 3 && hedger.issuedCount() <= 4, "issued " + hedger.issuedCount());
+	}
+	
+	@Test
+	@DisplayName("Hedge after the percentile of recent latencies")
+	public void testHedgeAfterThePercentileOfRecentLatencies() {
+		AtomicLong now = new AtomicLong();
+		Hedger hedger = new Hedger("test", new Hedger.Settings(true, 90, Duration.ofMillis(1), Duration.ofSeconds(1), 10, 10),
+				executor, meterRegistry, now::get);
+		
+		// the maximum delay applies until the window is filled
+		assertEquals(TimeUnit.SECONDS.toNanos(1), hedger.delayNanos());
+		
+		// execute calls taking from 1 to 10 ms
+		for(int i = 1; i <= 10; i++) {
+			final long latency = TimeUnit.MILLISECONDS.toNanos(i);
+			hedger.execute(() -> now.addAndGet(latency));
+		}
+		
+		// assert
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(9), hedger.delayNanos());
+		
+		// execute calls slower than the maximum delay
+		for(int i = 1; i <= 10; i++) {
+			hedger.execute(() -> now.addAndGet(TimeUnit.SECONDS.toNanos(5)));
+		}
+		
+		// assert
+		assertEquals(TimeUnit.SECONDS.toNanos(1), hedger.delayNanos());
+	}
+	
+	@Test
+	@DisplayName("Hold a slot of the bulkhead per call")
+	public void testHoldASlotOfTheBulkheadPerCall() throws Exception {
+		Hedger hedger = new Hedger("test", SETTINGS, executor, meterRegistry);
+		Bulkhead bulkhead = new Bulkhead("test", 2, 0, Duration.ZERO, Duration.ofSeconds(5), meterRegistry);
+		
+		// the first call stalls until released, the second answers at once
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger calls = new AtomicInteger();
+		
+		String result = hedger.execute(() -> {
+			if(calls.incrementAndGet() == 1) {
+				await(release);
+				return "first";
+			}
+			
+			return "second";
+		}, bulkhead);
+		
+		// assert the losing call still holds its slot
+		assertEquals("second", result);
+		assertEquals(1, activeCalls());
+		
+		// assert the slot is given back once the losing call finishes
+		release.countDown();
+		for(int i = 0; i < 500 && activeCalls() > 0; i++) {
+			sleep(10);
+		}
+		assertEquals(0, activeCalls());
+	}
+	
+	@Test
+	@DisplayName("Skip hedge while the bulkhead is full")
+	public void testSkipHedgeWhileTheBulkheadIsFull() {
+		Hedger hedger = new Hedger("test", SETTINGS, executor, meterRegistry);
+		Bulkhead bulkhead = new Bulkhead("test", 1, 0, Duration.ZERO, Duration.ofSeconds(5), meterRegistry);
+		
+		// the first call is slow and holds the only slot
+		AtomicInteger calls = new AtomicInteger();
+		
+		String result = hedger.execute(() -> {
+			calls.incrementAndGet();
+			sleep(100);
+			return "first";
+		}, bulkhead);
+		
+		// assert
+		assertEquals("first", result);
+		assertEquals(1, calls.get());
+		assertEquals(0, hedger.issuedCount());
+		assertEquals(0, bulkhead.rejectedCount());
+		assertEquals(0, activeCalls());
+	}
+	
+	@Test
+	@DisplayName("Stop waiting when the caller is interrupted")
+	public void testStopWaitingWhenTheCallerIsInterrupted() throws Exception {
+		Hedger hedger = new Hedger("test", SETTINGS, executor, meterRegistry);
+		
+		// both calls stall until released
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch hedged = new CountDownLatch(1);
+		AtomicInteger calls = new AtomicInteger();
+		CompletableFuture<Throwable> failure = new CompletableFuture<>();
+		
+		Thread caller = new Thread(() -> {
+			try {
+				hedger.execute(() -> {
+					if(calls.incrementAndGet() == 2) {
+						hedged.countDown();
+					}
+					await(release);
+					return "late";
+				});
+			} catch (Throwable exception) {
+				failure.complete(exception);
+			}
+		});
+		caller.start();
+		hedged.await(5, TimeUnit.SECONDS);
+		caller.interrupt();
+		
+		// assert the caller stopped waiting while both calls are still in flight
+		assertEquals(InterruptedException.class, failure.get(5, TimeUnit.SECONDS).getCause().getClass());
+		release.countDown();
+	}
+	
+	private double activeCalls() {
+		return meterRegistry.get("facade.bulkhead.active").gauge().value();
+	}
+	
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -8,6 +8,7 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,8 +20,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 
+import com.priceline.role.dto.MembershipRowDTO;
 import com.priceline.role.model.Membership;
 import com.priceline.role.model.Role;
 import com.priceline.role.utils.TestUtils;
@@ -42,7 +46,9 @@ public class MembershipRepositoryTest {
     @BeforeEach
     public void setUp() {
     	if(defaultRole == null) {
-    		defaultRole = roleRepository.save(TestUtils.createRole(true));
+    		// only one default role may exist, reuse it when already there
+    		defaultRole = Optional.ofNullable(roleRepository.findByDefaultRoleTrue())
+    				.orElseGet(() -> roleRepository.save(TestUtils.createRole(true)));
     	}
     }
     
@@ -151,6 +157,41 @@ public class MembershipRepositoryTest {
     	assertFalse(actual.contains(membership3RoleDefault));
     }
     
+    @Test
+    @DisplayName("Get membership rows by role after id")
+    public void testGetMembershipRowsByRoleAfterId() {
+    	// create role2 and memberships
+    	Role role2 = roleRepository.save(TestUtils.createRole(false));
+    	Membership membership1 = membershipRepository.save(TestUtils.createMembership(role2));
+    	Membership membership2 = membershipRepository.save(TestUtils.createMembership(role2));
+    	Membership membership3 = membershipRepository.save(TestUtils.createMembership(role2));
+    	membershipRepository.save(TestUtils.createMembership(defaultRole));
+    	
+    	// fetch rows after membership1
+    	List<MembershipRowDTO> actual = membershipRepository.findRowsByRoleIdAndIdGreaterThan(role2.getId(), membership1.getId(),
+    			PageRequest.of(0, 10, Sort.by("id")));
+    	
+    	// assert only later memberships of role2 were returned
+    	assertEquals(List.of(membership2.getUid(), membership3.getUid()), actual.stream().map(MembershipRowDTO::getUid).toList());
+    }
+    
+    @Test
+    @DisplayName("Get role by membership uid")
+    public void testGetRoleByMembershipUid() {
+    	// create role2 and membership
+    	Role role2 = roleRepository.save(TestUtils.createRole(false));
+    	Membership membership = membershipRepository.save(TestUtils.createMembership(role2));
+    	
+    	// fetch role of membership
+    	Role actual = membershipRepository.findRoleByMembershipUid(membership.getUid()).orElse(null);
+    	
+    	// assert
+    	assertEquals(role2, actual);
+    	
+    	// assert nonexistent membership has no role
+    	assertTrue(membershipRepository.findRoleByMembershipUid(TestUtils.createMembership().getUid()).isEmpty());
+    }
+    
     @Test
     @DisplayName("Delete membership by uid")
     public void testDeletetMembershipByUid() {
@@ -42,8 +42,8 @@ public class RoleRepositoryTest {
     @DisplayName("Get role by name")
     public void testGetRoleByName() {
     	// create roles
-    	Role role1 = roleRepository.save(TestUtils.createRole());
-    	Role role2 = roleRepository.save(TestUtils.createRole());
+    	Role role1 = roleRepository.save(TestUtils.createRole(false));
+    	Role role2 = roleRepository.save(TestUtils.createRole(false));
     	
     	// fetch role1
     	Role actual = roleRepository.findByName(role1.getName());
@@ -64,8 +64,8 @@ public class RoleRepositoryTest {
     @DisplayName("Get role by uid")
     public void testGetRoleByUid() {
     	// create roles
-    	Role role1 = roleRepository.save(TestUtils.createRole());
-    	Role role2 = roleRepository.save(TestUtils.createRole());
+    	Role role1 = roleRepository.save(TestUtils.createRole(false));
+    	Role role2 = roleRepository.save(TestUtils.createRole(false));
     	
     	// fetch role1
     	Role actual = roleRepository.findByUid(role1.getUid());
@@ -121,7 +121,7 @@ public class RoleRepositoryTest {
     @DisplayName("Delete role by uid")
     public void testDeletetRoleByUid() {
     	// create role
-    	Role role = roleRepository.save(TestUtils.createRole());
+    	Role role = roleRepository.save(TestUtils.createRole(false));
     	
     	// fetch role
     	Role actual = roleRepository.findByUid(role.getUid());
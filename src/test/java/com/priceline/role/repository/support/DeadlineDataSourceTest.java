@@ -0,0 +1,107 @@
+package com.priceline.role.repository.support;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.priceline.role.model.deadline.Deadline;
+import com.priceline.role.model.deadline.DeadlineContextHolder;
+import com.priceline.role.model.exception.DeadlineExceededException;
+
+@ExtendWith(MockitoExtension.class)
+public class DeadlineDataSourceTest {
+	
+	private final String SQL = "select 1";
+	
+	@Mock
+	private DataSource targetDataSource;
+	
+	@Mock
+	private Connection connection;
+	
+	@Mock
+	private PreparedStatement statement;
+	
+	private DeadlineDataSource dataSource;
+	
+	@BeforeEach
+	public void setUp() throws Exception {
+		dataSource = new DeadlineDataSource(targetDataSource);
+		doReturn(connection).when(targetDataSource).getConnection();
+	}
+	
+	@AfterEach
+	public void tearDown() {
+		DeadlineContextHolder.reset();
+	}
+	
+	@Test
+	@DisplayName("Apply the time left as query timeout")
+	public void testApplyTheTimeLeftAsQueryTimeout() throws Exception {
+		doReturn(statement).when(connection).prepareStatement(anyString());
+		DeadlineContextHolder.set(Deadline.after(Duration.ofMillis(2500)));
+		
+		// prepare statement
+		dataSource.getConnection().prepareStatement(SQL);
+		
+		// assert the time left is rounded up to whole seconds
+		verify(statement).setQueryTimeout(3);
+	}
+	
+	@Test
+	@DisplayName("Reject statements once the deadline expired")
+	public void testRejectStatementsOnceTheDeadlineExpired() throws Exception {
+		doReturn(statement).when(connection).prepareStatement(anyString());
+		DeadlineContextHolder.set(Deadline.after(Duration.ZERO));
+		
+		// prepare statement
+		Connection proxy = dataSource.getConnection();
+		assertThrows(DeadlineExceededException.class, () -> proxy.prepareStatement(SQL));
+		
+		// assert
+		verify(statement).close();
+		verify(statement, never()).setQueryTimeout(anyInt());
+	}
+	
+	@Test
+	@DisplayName("Leave statements without deadline untouched")
+	public void testLeaveStatementsWithoutDeadlineUntouched() throws Exception {
+		doReturn(statement).when(connection).prepareStatement(anyString());
+		
+		// prepare statement
+		dataSource.getConnection().prepareStatement(SQL);
+		
+		// assert
+		verify(statement, never()).setQueryTimeout(anyInt());
+	}
+	
+	@Test
+	@DisplayName("Delegate other calls to the connection")
+	public void testDelegateOtherCallsToTheConnection() throws Exception {
+		DeadlineContextHolder.set(Deadline.after(Duration.ofSeconds(1)));
+		
+		// close connection
+		dataSource.getConnection().close();
+		
+		// assert
+		verify(connection).close();
+	}
+
+}
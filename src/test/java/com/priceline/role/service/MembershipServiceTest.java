@@ -1,41 +1,72 @@
 package com.priceline.role.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import org.apache.commons.lang3.RandomStringUtils;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.priceline.role.config.MessageConfig;
+import com.priceline.role.constants.DatabaseConstants;
+import com.priceline.role.dto.MembershipBatchResultDTO;
 import com.priceline.role.dto.MembershipDTO;
+import com.priceline.role.dto.MembershipRowDTO;
 import com.priceline.role.dto.TeamDTO;
 import com.priceline.role.dto.UserDTO;
 import com.priceline.role.enums.MessageEnum;
 import com.priceline.role.facade.PricelineFacade;
+import com.priceline.role.facade.cache.TeamRosterIndex;
 import com.priceline.role.model.Membership;
 import com.priceline.role.model.Role;
 import com.priceline.role.model.exception.EntityNotFoundException;
 import com.priceline.role.model.exception.PricelineApiException;
+import com.priceline.role.model.page.Cursor;
+import com.priceline.role.model.page.KeysetPage;
 import com.priceline.role.repository.MembershipRepository;
+import com.priceline.role.service.catalog.ChangeVersions;
+import com.priceline.role.service.catalog.MembershipVersionMonitor;
 import com.priceline.role.service.system.ExceptionService;
 import com.priceline.role.service.system.MessageService;
+import com.priceline.role.service.system.PaginationService;
 import com.priceline.role.service.system.ValidationService;
 import com.priceline.role.utils.TestUtils;
 
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceException;
 
 @ExtendWith(MockitoExtension.class)
@@ -44,6 +75,9 @@ public class MembershipServiceTest {
 	@Mock
 	private MembershipRepository membershipRepository;
 	
+	@Mock
+	private EntityManager entityManager;
+	
 	private MembershipService membershipService;
     
     @Mock
@@ -59,12 +93,24 @@ public class MembershipServiceTest {
     
     private MessageService messageService;
     
+    private ExecutorService validationExecutor;
+    
+    private final long VALIDATION_TIMEOUT = 500;
+    
+    private final int BATCH_MAX_SIZE = 10;
+    
     @BeforeEach
     public void setUp() {
     	messageService = new MessageService(new MessageConfig().messageSource());
     	exceptionService = new ExceptionService(messageService);
     	validationService = new ValidationService(exceptionService);
-    	membershipService = new MembershipServiceImpl(membershipRepository, exceptionService, pricelineFacade, roleService, validationService);
+    	validationExecutor = Executors.newFixedThreadPool(3);
+    	membershipService = createService(false);
+    }
+    
+    @AfterEach
+    public void tearDown() {
+    	validationExecutor.shutdownNow();
     }
     
 	@Test
@@ -143,6 +189,47 @@ public class MembershipServiceTest {
 		assertEquals(actual, expected);
 	}
 	
+	@Test
+	@DisplayName("Get last page of memberships")
+    public void testGetLastPageOfMemberships() {
+		// create memberships
+		Membership membership1 = TestUtils.createMembership();
+		membership1.setId(11L);
+		Membership membership2 = TestUtils.createMembership();
+		membership2.setId(12L);
+		
+		// configure mock, returning no more rows than the page size
+		when(membershipRepository.findByIdGreaterThan(eq(10L), any())).thenReturn(List.of(membership1, membership2));
+
+		// find page after the cursor
+		KeysetPage<Membership> page = membershipService.findPage(Cursor.after(10L).encode(), 2);
+		
+		// assert
+		assertEquals(List.of(membership1, membership2), page.getContent());
+		assertNull(page.getNextCursor());
+		assertEquals(Cursor.before(11L).encode(), page.getPreviousCursor());
+	}
+	
+	@Test
+	@DisplayName("Export all memberships")
+    public void testExportAllMemberships() {
+		// create memberships
+		Membership membership1 = TestUtils.createMembership();
+		Membership membership2 = TestUtils.createMembership();
+		
+		// configure mock
+		when(membershipRepository.streamAll()).thenReturn(Stream.of(membership1, membership2));
+
+		// export memberships
+		List<Membership> actual = new ArrayList<>();
+		membershipService.exportAll(actual::add);
+		
+		// assert each exported membership was detached
+		assertEquals(List.of(membership1, membership2), actual);
+		verify(entityManager).detach(membership1);
+		verify(entityManager).detach(membership2);
+	}
+	
 	@Test
 	@DisplayName("Get role of membership")
     public void testGetRoleOfMembership() {
@@ -150,7 +237,7 @@ public class MembershipServiceTest {
 		Membership membership = TestUtils.createMembership();
 		
 		// configure mock
-		when(membershipRepository.findByUid(any())).thenReturn(membership);
+		when(membershipRepository.findRoleByMembershipUid(membership.getUid())).thenReturn(Optional.of(membership.getRole()));
 
 		// find role of membership
 		Role actual = membershipService.findRoleOfMembership(membership.getUid());
@@ -158,6 +245,26 @@ public class MembershipServiceTest {
 		// assert
 		assertEquals(actual, membership.getRole());
 	}
+	
+	@Test
+	@DisplayName("Get role of nonexistent membership")
+    public void testGetRoleOfNonexistentMembership() {
+		// create random uid
+		String uid = UUID.randomUUID().toString();
+		
+		// configure mock
+		when(membershipRepository.findRoleByMembershipUid(uid)).thenReturn(Optional.empty());
+
+		// find role of membership
+		PricelineApiException exception = assertThrows(PricelineApiException.class, () -> {
+			membershipService.findRoleOfMembership(uid);
+	    });
+		
+		// assert
+		String message = messageService.getMessage(MessageEnum.EXCEPTION_ENTITY_NOT_FOUND_ERR, uid);
+		assertEquals(exception.getMessage(), message);
+		assertEquals(HttpStatus.NOT_FOUND, exception.getStatus());
+	}
 
 	@Test
 	@DisplayName("Get all memberships of role")
@@ -181,6 +288,30 @@ public class MembershipServiceTest {
 		assertEquals(actual, expected);
 	}
 
+	@Test
+	@DisplayName("Get page of memberships of role")
+    public void testGetPageOfMembershipsOfRole() {
+		// create role
+		Role role = TestUtils.createRole(false);
+		role.setId(7L);
+		
+		// create rows
+		MembershipRowDTO row1 = new MembershipRowDTO(1L, UUID.randomUUID().toString(), UUID.randomUUID().toString(), UUID.randomUUID().toString());
+		MembershipRowDTO row2 = new MembershipRowDTO(2L, UUID.randomUUID().toString(), UUID.randomUUID().toString(), UUID.randomUUID().toString());
+		
+		// configure mock
+		when(roleService.findByUid(role.getUid())).thenReturn(role);
+		when(membershipRepository.findRowsByRoleIdAndIdGreaterThan(eq(7L), eq(0L), any())).thenReturn(List.of(row1, row2));
+
+		// find first page
+		KeysetPage<Membership> page = membershipService.findMembershipsOfRole(role.getUid(), null, 2);
+		
+		// assert rows were converted and share the role
+		assertEquals(List.of(row1.toMembership(role), row2.toMembership(role)), page.getContent());
+		assertNull(page.getNextCursor());
+		assertNull(page.getPreviousCursor());
+	}
+
 	@Test
 	@DisplayName("Save membership")
     public void testSaveMembership() {
@@ -199,7 +330,7 @@ public class MembershipServiceTest {
 		teamDTO.setId(dto.getTeamId());
 
 		// configure mock
-		when(membershipRepository.save(any())).thenReturn(expected);
+		when(membershipRepository.saveAndFlush(any())).thenReturn(expected);
 		when(pricelineFacade.findUserById(any())).thenReturn(userDTO);
 		when(pricelineFacade.findTeamById(any())).thenReturn(teamDTO);
 		
@@ -233,7 +364,7 @@ public class MembershipServiceTest {
 		teamDTO.setId(dto.getTeamId());
 
 		// configure mock
-		when(membershipRepository.save(any())).thenReturn(expected);
+		when(membershipRepository.saveAndFlush(any())).thenReturn(expected);
 		when(pricelineFacade.findUserById(any())).thenReturn(userDTO);
 		when(pricelineFacade.findTeamById(any())).thenReturn(teamDTO);
 		when(roleService.findDefaultRole()).thenReturn(role);
@@ -245,6 +376,134 @@ public class MembershipServiceTest {
 		assertEquals(expected,  actual);
 	}
 
+	@Test
+	@DisplayName("Save memberships in batch")
+	@SuppressWarnings("unchecked")
+    public void testSaveMembershipsInBatch() {
+		// create DTOs of a single team and role
+		Role role = TestUtils.createRole(false);
+		MembershipDTO valid = TestUtils.createMembershipDTO(role);
+		String teamId = valid.getTeamId();
+		
+		MembershipDTO duplicated = TestUtils.createMembershipDTO(role);
+		duplicated.setUserId(valid.getUserId());
+		duplicated.setTeamId(teamId);
+		
+		MembershipDTO existing = TestUtils.createMembershipDTO(role);
+		existing.setTeamId(teamId);
+		
+		MembershipDTO nonexistentUser = TestUtils.createMembershipDTO(role);
+		nonexistentUser.setTeamId(teamId);
+		
+		MembershipDTO withoutTeamId = TestUtils.createMembershipDTO(role);
+		withoutTeamId.setTeamId(null);
+		
+		// create membership that already exists in database
+		Membership persisted = existing.toMembership();
+		persisted.setUid(UUID.randomUUID().toString());
+		
+		// create team DTO
+		TeamDTO teamDTO = new TeamDTO();
+		teamDTO.setId(teamId);
+		
+		// configure mock
+		when(pricelineFacade.findUserById(anyString())).thenAnswer(invocation -> {
+			return nonexistentUser.getUserId().equals(invocation.getArgument(0)) ? null : new UserDTO();
+		});
+		when(pricelineFacade.findTeamById(teamId)).thenReturn(teamDTO);
+		when(roleService.findByUid(role.getUid())).thenReturn(role);
+		when(membershipRepository.findByUserIdInAndTeamIdIn(any(), any())).thenReturn(List.of(persisted));
+		
+		// save memberships
+		List<MembershipBatchResultDTO> results = membershipService.saveAll(List.of(valid, duplicated, existing, nonexistentUser, withoutTeamId));
+		
+		// assert results keep the order of the request
+		assertEquals(5, results.size());
+		assertEquals(HttpStatus.CREATED.value(), results.get(0).getStatus());
+		assertEquals(valid.getUserId(), results.get(0).getMembership().getUserId());
+		
+		String uniqueness = messageService.getMessage(MessageEnum.VALIDATION_FAILURE_UNIQUENESS_ERR);
+		assertEquals(HttpStatus.BAD_REQUEST.value(), results.get(1).getStatus());
+		assertEquals(uniqueness, results.get(1).getError().getErrorMessage());
+		assertEquals(uniqueness, results.get(2).getError().getErrorMessage());
+		assertEquals(messageService.getMessage(MessageEnum.USER_API_USER_NOT_FOUND_HELP, nonexistentUser.getUserId()),
+				results.get(3).getError().getErrorMessage());
+		assertEquals(messageService.getMessage(MessageEnum.VALIDATION_FAILURE_REQUIRED_ERR, "teamId"),
+				results.get(4).getError().getErrorMessage());
+		
+		// assert shared lookups were done once, and only the valid membership was inserted
+		verify(pricelineFacade, times(1)).findTeamById(teamId);
+		verify(roleService, times(1)).findByUid(role.getUid());
+		
+		ArgumentCaptor<Collection<Membership>> inserted = ArgumentCaptor.forClass(Collection.class);
+		verify(membershipRepository).saveAll(inserted.capture());
+		assertEquals(List.of(results.get(0).getMembership()), new ArrayList<>(inserted.getValue()));
+	}
+	
+	@Test
+	@DisplayName("Save memberships in batch racing a concurrent insert")
+	public void testSaveMembershipsInBatchRacingAConcurrentInsert() {
+		// create DTOs of a single team and role
+		Role role = TestUtils.createRole(false);
+		MembershipDTO valid = TestUtils.createMembershipDTO(role);
+		
+		MembershipDTO inserted = TestUtils.createMembershipDTO(role);
+		inserted.setTeamId(valid.getTeamId());
+		
+		MembershipDTO withoutUserId = TestUtils.createMembershipDTO(role);
+		withoutUserId.setUserId(null);
+		
+		// create team DTO
+		TeamDTO teamDTO = new TeamDTO();
+		teamDTO.setId(valid.getTeamId());
+		
+		// configure mock, the second membership is inserted by another request once the existing ones were read
+		DataIntegrityViolationException violation = integrityViolation("membership." + DatabaseConstants.UK_MEMBERSHIP_USER_TEAM_ROLE);
+		when(pricelineFacade.findUserById(anyString())).thenReturn(new UserDTO());
+		when(pricelineFacade.findTeamById(valid.getTeamId())).thenReturn(teamDTO);
+		when(roleService.findByUid(role.getUid())).thenReturn(role);
+		when(membershipRepository.saveAll(any())).thenThrow(violation);
+		when(membershipRepository.saveAndFlush(any())).thenAnswer(invocation -> {
+			Membership membership = invocation.getArgument(0);
+			if(inserted.getUserId().equals(membership.getUserId())) {
+				throw violation;
+			}
+			
+			return membership;
+		});
+		
+		// save memberships
+		List<MembershipBatchResultDTO> results = membershipService.saveAll(List.of(valid, inserted, withoutUserId));
+		
+		// assert only the duplicate was rejected, and the results of the other items were kept
+		assertEquals(3, results.size());
+		assertEquals(HttpStatus.CREATED.value(), results.get(0).getStatus());
+		assertEquals(valid.getUserId(), results.get(0).getMembership().getUserId());
+		assertEquals(HttpStatus.BAD_REQUEST.value(), results.get(1).getStatus());
+		assertEquals(messageService.getMessage(MessageEnum.VALIDATION_FAILURE_UNIQUENESS_ERR), results.get(1).getError().getErrorMessage());
+		assertEquals(messageService.getMessage(MessageEnum.VALIDATION_FAILURE_REQUIRED_ERR, "userId"),
+				results.get(2).getError().getErrorMessage());
+	}
+	
+	@Test
+	@DisplayName("Save memberships in batch that exceeds max size")
+    public void testSaveMembershipsInBatchThatExceedsMaxSize() {
+		// create DTOs
+		List<MembershipDTO> dtos = new ArrayList<>();
+		for(int i = 0; i <= BATCH_MAX_SIZE; i++) {
+			dtos.add(TestUtils.createMembershipDTO());
+		}
+		
+		// save memberships
+		PricelineApiException exception = assertThrows(PricelineApiException.class, () -> {
+			membershipService.saveAll(dtos);
+	    });
+		
+		// assert
+		String message = messageService.getMessage(MessageEnum.VALIDATION_FAILURE_BATCH_SIZE_ERR, BATCH_MAX_SIZE);
+		assertEquals(exception.getMessage(), message);
+	}
+
 	@Test
 	@DisplayName("Delete membership")
 	@Transactional
@@ -442,8 +701,186 @@ public class MembershipServiceTest {
 	}
 	
 	@Test
-	@DisplayName("Validate dto with membership that already exists")
-	public void testValidateDTOWithMembershipThatAlreadyExists() {
+	@DisplayName("Validate dto with nonexistent role in the language of the client")
+	public void testValidateDTOWithNonexistentRoleInTheLanguageOfTheClient() {
+		// create DTO
+		MembershipDTO dto = TestUtils.createMembershipDTO();
+		String roleUid = dto.getRole().getUid();
+		
+		// configure mock, the role is looked up on the executor
+		when(pricelineFacade.findUserById(any())).thenReturn(new UserDTO());
+		when(pricelineFacade.findTeamById(any())).thenReturn(new TeamDTO());
+		when(roleService.findByUid(anyString())).thenAnswer(invocation -> {
+			throw exceptionService.throwRuntimeException(new PersistenceException(), MessageEnum.ROLE_ERROR_FIND_BY_ID_HELP, roleUid);
+		});
+		
+		// validate as a client asking for Portuguese
+		LocaleContextHolder.setLocale(new Locale("pt"));
+		try {
+			PricelineApiException exception = assertThrows(PricelineApiException.class, () -> {
+				membershipService.validate(dto);
+			});
+			
+			// assert
+			assertEquals(messageService.getMessage(MessageEnum.ROLE_ERROR_FIND_BY_ID_HELP, roleUid), exception.getHelp());
+		} finally {
+			LocaleContextHolder.resetLocaleContext();
+		}
+	}
+	
+	@Test
+	@DisplayName("Save membership that already exists")
+	public void testSaveMembershipThatAlreadyExists() {
+		// create DTO
+		MembershipDTO dto = TestUtils.createMembershipDTO();
+		
+		// configure mock, the insert is rejected by the unique key
+		mockLookups(dto);
+		when(membershipRepository.saveAndFlush(any())).thenThrow(integrityViolation("membership." + DatabaseConstants.UK_MEMBERSHIP_USER_TEAM_ROLE));
+
+		// save membership
+		PricelineApiException exception = assertThrows(PricelineApiException.class, () -> {
+			membershipService.save(dto);
+	    });
+		
+		// assert
+		String message = messageService.getMessage(MessageEnum.VALIDATION_FAILURE_UNIQUENESS_ERR);
+		assertEquals(exception.getMessage(), message);
+		assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+	}
+	
+	@Test
+	@DisplayName("Save membership violating another constraint")
+	public void testSaveMembershipViolatingAnotherConstraint() {
+		// create DTO
+		MembershipDTO dto = TestUtils.createMembershipDTO();
+		
+		// configure mock, the role was deleted in the meantime
+		mockLookups(dto);
+		when(membershipRepository.saveAndFlush(any())).thenThrow(integrityViolation("FK_membership_role"));
+
+		// save membership
+		PricelineApiException exception = assertThrows(PricelineApiException.class, () -> {
+			membershipService.save(dto);
+	    });
+		
+		// assert
+		String message = messageService.getMessage(MessageEnum.MEMBERSHIP_ERROR_SAVE_HELP);
+		assertEquals(exception.getHelp(), message);
+		assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, exception.getStatus());
+	}
+	
+	@Test
+	@DisplayName("Validate dto with lookups that exceed the deadline")
+	public void testValidateDTOWithLookupsThatExceedTheDeadline() {
+		// create DTO
+		MembershipDTO dto = TestUtils.createMembershipDTO();
+		
+		// configure mock
+		when(pricelineFacade.findUserById(any())).thenAnswer(invocation -> {
+			Thread.sleep(VALIDATION_TIMEOUT * 4);
+			return new UserDTO();
+		});
+		
+		// validate
+		PricelineApiException exception = assertThrows(PricelineApiException.class, () -> {
+			membershipService.validate(dto);
+	    });
+		
+		// assert
+		String message = messageService.getMessage(MessageEnum.EXCEPTION_LOOKUP_TIMEOUT_ERR, "Membership validation", String.valueOf(VALIDATION_TIMEOUT));
+		assertEquals(exception.getMessage(), message);
+		assertEquals(HttpStatus.GATEWAY_TIMEOUT, exception.getStatus());
+	}
+	
+	@Test
+	@DisplayName("Validate dto interrupting lookups no longer needed")
+	public void testValidateDTOInterruptingLookupsNoLongerNeeded() throws Exception {
+		// create DTO
+		MembershipDTO dto = TestUtils.createMembershipDTO();
+		
+		// configure mock, the user is found missing once the team lookup runs, which waits until interrupted
+		CountDownLatch teamLookupStarted = new CountDownLatch(1);
+		CountDownLatch interrupted = new CountDownLatch(1);
+		when(pricelineFacade.findUserById(any())).thenAnswer(invocation -> {
+			teamLookupStarted.await(VALIDATION_TIMEOUT, TimeUnit.MILLISECONDS);
+			return null;
+		});
+		when(pricelineFacade.findTeamById(any())).thenAnswer(invocation -> {
+			teamLookupStarted.countDown();
+			try {
+				Thread.sleep(VALIDATION_TIMEOUT * 4);
+			} catch (InterruptedException exception) {
+				interrupted.countDown();
+			}
+			
+			return new TeamDTO();
+		});
+		
+		// validate
+		assertThrows(PricelineApiException.class, () -> {
+			membershipService.validate(dto);
+	    });
+		
+		// assert the team lookup was interrupted once the user was found missing
+		assertTrue(interrupted.await(VALIDATION_TIMEOUT, TimeUnit.MILLISECONDS));
+	}
+	
+	@Test
+	@DisplayName("Save membership of a user listed in the team")
+	public void testSaveMembershipOfAUserListedInTheTeam() {
+		// create DTO
+		MembershipDTO dto = TestUtils.createMembershipDTO();
+		Membership expected = dto.toMembership();
+		
+		// create team DTO
+		TeamDTO teamDTO = new TeamDTO();
+		teamDTO.setId(dto.getTeamId());
+		teamDTO.setTeamMemberIds(List.of(dto.getUserId()));
+		
+		// configure mock, the roster of the team already lists the user
+		when(pricelineFacade.findTeamMembership(dto.getTeamId(), dto.getUserId())).thenReturn(TeamRosterIndex.Presence.MEMBER);
+		when(pricelineFacade.findTeamById(any())).thenReturn(teamDTO);
+		when(roleService.findByUid(anyString())).thenReturn(dto.getRole());
+		when(membershipRepository.saveAndFlush(any())).thenReturn(expected);
+		
+		// save membership
+		Membership actual = membershipService.save(dto);
+		
+		// assert the user was not looked up
+		assertEquals(expected, actual);
+		verify(pricelineFacade, never()).findUserById(any());
+	}
+	
+	@Test
+	@DisplayName("Validate dto with user not listed in the team")
+	public void testValidateDTOWithUserNotListedInTheTeam() {
+		membershipService = createService(true);
+		
+		// create DTO
+		MembershipDTO dto = TestUtils.createMembershipDTO();
+		
+		// configure mock, the roster of the team is known and does not list the user
+		when(pricelineFacade.findTeamMembership(dto.getTeamId(), dto.getUserId())).thenReturn(TeamRosterIndex.Presence.NOT_MEMBER);
+		
+		// validate
+		PricelineApiException exception = assertThrows(PricelineApiException.class, () -> {
+			membershipService.validate(dto);
+	    });
+		
+		// assert the user was rejected without any lookup
+		String message = messageService.getMessage(MessageEnum.VALIDATION_FAILURE_TEAM_MEMBER_ERR, dto.getUserId(), dto.getTeamId());
+		assertEquals(exception.getMessage(), message);
+		assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+		verify(pricelineFacade, never()).findUserById(any());
+		verify(pricelineFacade, never()).findTeamById(any());
+	}
+	
+	@Test
+	@DisplayName("Validate dto with user missing from the fetched team")
+	public void testValidateDTOWithUserMissingFromTheFetchedTeam() {
+		membershipService = createService(true);
+		
 		// create DTO
 		MembershipDTO dto = TestUtils.createMembershipDTO();
 		
@@ -451,24 +888,47 @@ public class MembershipServiceTest {
 		UserDTO userDTO = new UserDTO();
 		userDTO.setId(dto.getUserId());
 		
-		// create team DTO
-		TeamDTO teamDTO = new TeamDTO();
+		// create team DTO of other members
+		TeamDTO teamDTO = TestUtils.createTeamDTO();
 		teamDTO.setId(dto.getTeamId());
-				
-		// configure mock
+		
+		// configure mock, the roster of the team is not known yet
 		when(pricelineFacade.findUserById(any())).thenReturn(userDTO);
 		when(pricelineFacade.findTeamById(any())).thenReturn(teamDTO);
-		when(roleService.findByUid(anyString())).thenReturn(dto.getRole());
-		when(membershipRepository.findByUserIdAndTeamIdAndRole(anyString(), anyString(), any())).thenReturn(dto.toMembership());
-
+		
 		// validate
 		PricelineApiException exception = assertThrows(PricelineApiException.class, () -> {
 			membershipService.validate(dto);
 	    });
 		
 		// assert
-		String message = messageService.getMessage(MessageEnum.VALIDATION_FAILURE_UNIQUENESS_ERR);
+		String message = messageService.getMessage(MessageEnum.VALIDATION_FAILURE_TEAM_MEMBER_ERR, dto.getUserId(), dto.getTeamId());
 		assertEquals(exception.getMessage(), message);
 	}
+	
+	private MembershipService createService(boolean requireTeamMember) {
+		PaginationService paginationService = new PaginationService(exceptionService, 2, 10);
+		return new MembershipServiceImpl(membershipRepository, entityManager, exceptionService, pricelineFacade, roleService, validationService,
+    			paginationService, new MembershipVersionMonitor(membershipRepository, new ChangeVersions()), validationExecutor, VALIDATION_TIMEOUT, BATCH_MAX_SIZE, requireTeamMember);
+	}
+	
+	private void mockLookups(MembershipDTO dto) {
+		// create user DTO
+		UserDTO userDTO = new UserDTO();
+		userDTO.setId(dto.getUserId());
+		
+		// create team DTO
+		TeamDTO teamDTO = new TeamDTO();
+		teamDTO.setId(dto.getTeamId());
+		
+		when(pricelineFacade.findUserById(any())).thenReturn(userDTO);
+		when(pricelineFacade.findTeamById(any())).thenReturn(teamDTO);
+		when(roleService.findByUid(anyString())).thenReturn(dto.getRole());
+	}
+	
+	private DataIntegrityViolationException integrityViolation(String constraintName) {
+		ConstraintViolationException cause = new ConstraintViolationException("could not execute statement", new SQLException(), constraintName);
+		return new DataIntegrityViolationException(cause.getMessage(), cause);
+	}
 
 }
@@ -1,10 +1,17 @@
 package com.priceline.role.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
@@ -17,6 +24,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.priceline.role.config.MessageConfig;
@@ -26,9 +34,14 @@ import com.priceline.role.model.Role;
 import com.priceline.role.model.exception.DefaultRoleNotFoundException;
 import com.priceline.role.model.exception.EntityNotFoundException;
 import com.priceline.role.model.exception.PricelineApiException;
+import com.priceline.role.model.page.Cursor;
+import com.priceline.role.model.page.KeysetPage;
 import com.priceline.role.repository.RoleRepository;
+import com.priceline.role.service.catalog.ChangeVersions;
+import com.priceline.role.service.catalog.RoleCatalog;
 import com.priceline.role.service.system.ExceptionService;
 import com.priceline.role.service.system.MessageService;
+import com.priceline.role.service.system.PaginationService;
 import com.priceline.role.service.system.ValidationService;
 import com.priceline.role.utils.TestUtils;
 
@@ -48,13 +61,16 @@ public class RoleServiceTest {
 	private MessageService messageService;
 
 	private ValidationService validationService;	
+	
+	private final int PAGE_MAX_SIZE = 10;
     
     @BeforeEach
     public void setUp() {
     	messageService = new MessageService(new MessageConfig().messageSource());
     	exceptionService = new ExceptionService(messageService);
     	validationService = new ValidationService(exceptionService);
-    	roleService = new RoleServiceImpl(roleRepository, exceptionService, validationService);
+    	PaginationService paginationService = new PaginationService(exceptionService, 2, PAGE_MAX_SIZE);
+    	roleService = new RoleServiceImpl(roleRepository, new RoleCatalog(roleRepository, new ChangeVersions()), exceptionService, validationService, paginationService);
     }
     
 	@Test
@@ -64,13 +80,33 @@ public class RoleServiceTest {
 		Role expected = TestUtils.createRole(true);
 		
 		// configure mock
-		when(roleRepository.findByUid(anyString())).thenReturn(expected);
+		when(roleRepository.findAll()).thenReturn(List.of(expected));
 		
 		// find by uid
 		Role actual = roleService.findByUid(expected.getUid());
 		
-		// assert
+		// assert role was served by the catalog
 		assertEquals(expected, actual);
+		verify(roleRepository, never()).findByUid(anyString());
+	}
+	
+	@Test
+	@DisplayName("Get role by uid missing from catalog")
+    public void testGetRoleByUidMissingFromCatalog() {
+		// create role
+		Role expected = TestUtils.createRole(true);
+		
+		// configure mock, the role is only found after the catalog was loaded
+		when(roleRepository.findAll()).thenReturn(List.of()).thenReturn(List.of(expected));
+		when(roleRepository.findByUid(expected.getUid())).thenReturn(expected);
+		
+		// find by uid twice
+		Role actual = roleService.findByUid(expected.getUid());
+		roleService.findByUid(expected.getUid());
+		
+		// assert database was queried only on the first call
+		assertEquals(expected, actual);
+		verify(roleRepository).findByUid(expected.getUid());
 	}
 	
 	@Test
@@ -133,6 +169,72 @@ public class RoleServiceTest {
 		assertEquals(actual, expected);
 	}
 	
+	@Test
+	@DisplayName("Get first page of roles")
+    public void testGetFirstPageOfRoles() {
+		// create roles
+		Role role1 = createRole(1L);
+		Role role2 = createRole(2L);
+		Role role3 = createRole(3L);
+		
+		// configure mock, returning one row more than the page size
+		when(roleRepository.findByIdGreaterThan(eq(0L), any())).thenReturn(List.of(role1, role2, role3));
+
+		// find first page
+		KeysetPage<Role> page = roleService.findPage(null, null);
+		
+		// assert
+		assertEquals(List.of(role1, role2), page.getContent());
+		assertEquals(Cursor.after(2L).encode(), page.getNextCursor());
+		assertNull(page.getPreviousCursor());
+	}
+	
+	@Test
+	@DisplayName("Get previous page of roles")
+    public void testGetPreviousPageOfRoles() {
+		// create roles
+		Role role2 = createRole(2L);
+		Role role3 = createRole(3L);
+		Role role4 = createRole(4L);
+		
+		// configure mock, returning rows before the cursor in descending order
+		when(roleRepository.findByIdLessThan(eq(5L), any())).thenReturn(List.of(role4, role3, role2));
+
+		// find previous page
+		KeysetPage<Role> page = roleService.findPage(Cursor.before(5L).encode(), 2);
+		
+		// assert
+		assertEquals(List.of(role3, role4), page.getContent());
+		assertEquals(Cursor.after(4L).encode(), page.getNextCursor());
+		assertEquals(Cursor.before(3L).encode(), page.getPreviousCursor());
+	}
+	
+	@Test
+	@DisplayName("Get page of roles with invalid cursor")
+    public void testGetPageOfRolesWithInvalidCursor() {
+		// find page
+		PricelineApiException exception = assertThrows(PricelineApiException.class, () -> {
+			roleService.findPage("invalid", null);
+	    });
+		
+		// assert
+		String message = messageService.getMessage(MessageEnum.VALIDATION_FAILURE_CURSOR_ERR);
+		assertEquals(exception.getMessage(), message);
+	}
+	
+	@Test
+	@DisplayName("Get page of roles that exceeds max size")
+    public void testGetPageOfRolesThatExceedsMaxSize() {
+		// find page
+		PricelineApiException exception = assertThrows(PricelineApiException.class, () -> {
+			roleService.findPage(null, PAGE_MAX_SIZE + 1);
+	    });
+		
+		// assert
+		String message = messageService.getMessage(MessageEnum.VALIDATION_FAILURE_PAGE_SIZE_ERR, PAGE_MAX_SIZE);
+		assertEquals(exception.getMessage(), message);
+	}
+	
 	@Test
 	@DisplayName("Get default role")
     public void testGetDefaultRole() {
@@ -140,13 +242,14 @@ public class RoleServiceTest {
 		Role expected = TestUtils.createRole(true);
 		
 		// configure mock
-		when(roleRepository.findByDefaultRoleTrue()).thenReturn(expected);
+		when(roleRepository.findAll()).thenReturn(List.of(TestUtils.createRole(false), expected));
 
 		// find default role
 		Role actual = roleService.findDefaultRole();
 
 		// assert
 		assertEquals(expected, actual);
+		verify(roleRepository, never()).findByDefaultRoleTrue();
 	}
 	
 	@Test
@@ -173,7 +276,6 @@ public class RoleServiceTest {
 		
 		// create role
 		Role expected = dto.toRole();
-		expected.setDefaultRole(true);
 
 		// configure mock
 		when(roleRepository.count()).thenReturn(0L);
@@ -182,8 +284,10 @@ public class RoleServiceTest {
 		// save role
 		Role actual = roleService.save(dto);
 				
-		// assert
+		// assert first role was made default
 		assertEquals(expected,  actual);
+		assertTrue(actual.isDefaultRole());
+		verify(roleRepository).updateDefaultRole(expected.getUid());
 	}
 	
 	@Test
@@ -204,6 +308,8 @@ public class RoleServiceTest {
 				
 		// assert
 		assertEquals(expected,  actual);
+		assertFalse(actual.isDefaultRole());
+		verify(roleRepository, never()).updateDefaultRole(anyString());
 	}
 	
 	@Test
@@ -214,20 +320,19 @@ public class RoleServiceTest {
 		
 		// create role
 		Role expected = dto.toRole();
-		
-		// create previous default role
-		Role oldDefaultRole = TestUtils.createRole(true);
+		expected.setUid(UUID.randomUUID().toString());
 
 		// configure mock
-		when(roleRepository.count()).thenReturn(1L);
-		when(roleRepository.findByDefaultRoleTrue()).thenReturn(oldDefaultRole);
-		when(roleRepository.save(any())).thenReturn(oldDefaultRole).thenReturn(expected);
+		when(roleRepository.save(any())).thenReturn(expected);
 				
 		// save role
 		Role actual = roleService.save(dto);
 				
-		// assert
+		// assert role was inserted as a regular role and then switched to default
 		assertEquals(expected,  actual);
+		assertTrue(actual.isDefaultRole());
+		verify(roleRepository).save(argThat(role -> !role.isDefaultRole()));
+		verify(roleRepository).updateDefaultRole(expected.getUid());
 	}
 
 	@Test
@@ -288,29 +393,33 @@ public class RoleServiceTest {
 	@Test
 	@DisplayName("Update default role")
     public void testUpdateDefaultRole() {
-		// create role
+		// create roles
 		Role role1 = TestUtils.createRole(true);
+		Role role2 = TestUtils.createRole(false);
+		
+		// roles as stored after the switch
+		Role switched1 = TestUtils.createRole(false);
+		switched1.setUid(role1.getUid());
+		Role switched2 = TestUtils.createRole(true);
+		switched2.setUid(role2.getUid());
 		
 		// configure mock
-		when(roleRepository.findByDefaultRoleTrue()).thenReturn(role1);
+		when(roleRepository.findAll()).thenReturn(List.of(role1, role2)).thenReturn(List.of(switched1, switched2));
+		when(roleRepository.updateDefaultRole(role2.getUid())).thenReturn(2);
 				
 		// get default role
 		Role defaultRole = roleService.findDefaultRole();
 		
 		// assert
 		assertEquals(role1, defaultRole);
-
-		// create role2
-		Role role2 = TestUtils.createRole(false);
 		
-		// configure mock
-		when(roleRepository.findByUid(role2.getUid())).thenReturn(role2);
-		
-		// update default role to role3
+		// update default role to role2
 		defaultRole = roleService.updateDefaultRole(role2.getUid());
 		
 		// assert
-		assertEquals(role2, defaultRole);
+		assertEquals(role2.getUid(), defaultRole.getUid());
+		assertTrue(defaultRole.isDefaultRole());
+		assertEquals(switched2, roleService.findDefaultRole());
 	}
 	
 	@Test
@@ -320,7 +429,8 @@ public class RoleServiceTest {
 		Role role = TestUtils.createRole(true);
 
 		// configure mock
-		when(roleRepository.findByDefaultRoleTrue()).thenReturn(role);
+		when(roleRepository.findAll()).thenReturn(List.of(role));
+		when(roleRepository.updateDefaultRole(role.getUid())).thenReturn(1);
 				
 		// get default role
 		Role defaultRole = roleService.findDefaultRole();
@@ -328,12 +438,32 @@ public class RoleServiceTest {
 		// assert
 		assertEquals(role, defaultRole);
 		
-		// update default role to role3
+		// update default role to the same role
 		defaultRole = roleService.updateDefaultRole(role.getUid());
 		
 		// assert
 		assertEquals(role, defaultRole);
 	}
+	
+	@Test
+	@DisplayName("Update default role to nonexistent role")
+    public void testUpdateDefaultRoleToNonexistentRole() {
+		// create random uid
+		String uid = UUID.randomUUID().toString();
+		
+		// configure mock, no row matched
+		when(roleRepository.updateDefaultRole(uid)).thenReturn(0);
+		
+		// update default role
+		PricelineApiException exception = assertThrows(PricelineApiException.class, () -> {
+			roleService.updateDefaultRole(uid);
+	    });
+		
+		// assert
+		String message = messageService.getMessage(MessageEnum.EXCEPTION_ENTITY_NOT_FOUND_ERR, uid);
+		assertEquals(exception.getMessage(), message);
+		assertEquals(HttpStatus.NOT_FOUND, exception.getStatus());
+	}
 
 	@Test
 	@DisplayName("Delete role")
@@ -396,9 +526,10 @@ public class RoleServiceTest {
 			roleService.validate(dto);
 	    });
 		
-		// assert
+		// assert, validation failures carry no stack trace
 		String message = messageService.getMessage(MessageEnum.VALIDATION_FAILURE_REQUIRED_ERR, "name");
 		assertEquals(exception.getMessage(), message);
+		assertEquals(0, exception.getStackTrace().length);
 	}
 	
 	@Test
@@ -430,7 +561,7 @@ public class RoleServiceTest {
 		dto.setName(role.getName());
 		
 		// configure mock
-		when(roleRepository.findByName(role.getName())).thenReturn(role);
+		when(roleRepository.findAll()).thenReturn(List.of(role));
 		
 		// validate
 		PricelineApiException exception = assertThrows(PricelineApiException.class, () -> {
@@ -455,7 +586,7 @@ public class RoleServiceTest {
 		dto.setName(role1.getName());
 
 		// configure mock
-		when(roleRepository.findByName(role1.getName())).thenReturn(role1);
+		when(roleRepository.findAll()).thenReturn(List.of(role1, role2));
 		
 		// validate
 		PricelineApiException exception = assertThrows(PricelineApiException.class, () -> {
@@ -467,4 +598,11 @@ public class RoleServiceTest {
 		assertEquals(exception.getMessage(), message);
 	}
 	
+	private Role createRole(Long id) {
+		Role role = TestUtils.createRole(false);
+		role.setId(id);
+		
+		return role;
+	}
+
 }
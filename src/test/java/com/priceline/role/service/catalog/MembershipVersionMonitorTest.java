@@ -0,0 +1,71 @@
+package com.priceline.role.service.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import com.priceline.role.repository.MembershipRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class MembershipVersionMonitorTest {
+
+	@Mock
+	private MembershipRepository membershipRepository;
+
+	private ChangeVersions changeVersions;
+
+	private MembershipVersionMonitor membershipVersionMonitor;
+
+	@BeforeEach
+	public void setUp() {
+		changeVersions = new ChangeVersions();
+		changeVersions.updateRoles("3f2a");
+		membershipVersionMonitor = new MembershipVersionMonitor(membershipRepository, changeVersions);
+	}
+
+	@Test
+	@DisplayName("Change membership version after a write of another instance")
+	public void testChangeMembershipVersionAfterAWriteOfAnotherInstance() {
+		// configure mock
+		when(membershipRepository.findVersion())
+			.thenReturn("4.12.20261018101500000000")
+			.thenReturn("4.12.20261018101500000000")
+			.thenReturn("4.13.20261018101600000000");
+
+		// refresh without changes
+		membershipVersionMonitor.refresh();
+		String token = changeVersions.membershipToken();
+		membershipVersionMonitor.refresh();
+		assertEquals(token, changeVersions.membershipToken());
+
+		// refresh after a membership was deleted and another one inserted
+		membershipVersionMonitor.refresh();
+		assertNotEquals(token, changeVersions.membershipToken());
+	}
+
+	@Test
+	@DisplayName("Keep membership version when the database is not available")
+	public void testKeepMembershipVersionWhenTheDatabaseIsNotAvailable() {
+		// configure mock
+		when(membershipRepository.findVersion())
+			.thenReturn("4.12.20261018101500000000")
+			.thenThrow(new DataAccessResourceFailureException("unavailable"));
+
+		// refresh and fail
+		membershipVersionMonitor.refresh();
+		String token = changeVersions.membershipToken();
+		membershipVersionMonitor.refresh();
+
+		// assert
+		assertEquals(token, changeVersions.membershipToken());
+	}
+
+}
@@ -0,0 +1,142 @@
+package com.priceline.role.service.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.priceline.role.model.Role;
+import com.priceline.role.repository.RoleRepository;
+import com.priceline.role.utils.TestUtils;
+
+@ExtendWith(MockitoExtension.class)
+public class RoleCatalogTest {
+
+	@Mock
+	private RoleRepository roleRepository;
+
+	private ChangeVersions changeVersions;
+
+	private RoleCatalog roleCatalog;
+
+	@BeforeEach
+	public void setUp() {
+		changeVersions = new ChangeVersions();
+		roleCatalog = new RoleCatalog(roleRepository, changeVersions);
+	}
+
+	@Test
+	@DisplayName("Find roles by uid, name and default flag")
+	public void testFindRoles() {
+		// create roles
+		Role role1 = createRole(2L, true);
+		Role role2 = createRole(1L, false);
+
+		// configure mock
+		when(roleRepository.findAll()).thenReturn(List.of(role1, role2));
+
+		// assert
+		assertEquals(role2, roleCatalog.findByUid(role2.getUid()));
+		assertEquals(role2, roleCatalog.findByName(role2.getName()));
+		assertEquals(role1, roleCatalog.findDefaultRole());
+		assertEquals(List.of(role2, role1), roleCatalog.findAll());
+		assertNull(roleCatalog.findByUid("unknown"));
+
+		// assert table was loaded only once
+		verify(roleRepository, times(1)).findAll();
+	}
+
+	@Test
+	@DisplayName("Modify role returned by the catalog")
+	public void testModifyRoleReturnedByTheCatalog() {
+		// create role
+		Role role = createRole(1L, true);
+		String name = role.getName();
+
+		// configure mock
+		when(roleRepository.findAll()).thenReturn(List.of(role));
+
+		// modify returned copy
+		roleCatalog.findByUid(role.getUid()).setName("changed");
+
+		// assert snapshot was not modified
+		assertEquals(name, roleCatalog.findByUid(role.getUid()).getName());
+	}
+
+	@Test
+	@DisplayName("Refresh catalog")
+	public void testRefreshCatalog() {
+		// create roles
+		Role role1 = createRole(1L, true);
+		Role role2 = createRole(2L, false);
+
+		// configure mock
+		when(roleRepository.findAll()).thenReturn(List.of(role1)).thenReturn(List.of(role1, role2));
+
+		// load and refresh
+		assertNull(roleCatalog.findByUid(role2.getUid()));
+		roleCatalog.refresh();
+
+		// assert
+		assertEquals(role2, roleCatalog.findByUid(role2.getUid()));
+	}
+
+	@Test
+	@DisplayName("Change role version when the catalog changes")
+	public void testChangeRoleVersionWhenTheCatalogChanges() {
+		// create roles
+		Role role1 = createRole(1L, true);
+		Role role2 = createRole(2L, false);
+
+		// configure mock
+		when(roleRepository.findAll()).thenReturn(List.of(role1)).thenReturn(List.of(role1)).thenReturn(List.of(role1, role2));
+
+		// load and refresh without changes
+		roleCatalog.refresh();
+		String token = changeVersions.roleToken();
+		roleCatalog.refresh();
+		assertEquals(token, changeVersions.roleToken());
+
+		// refresh with a new role
+		roleCatalog.refresh();
+		assertNotEquals(token, changeVersions.roleToken());
+	}
+
+	@Test
+	@DisplayName("Share role version between instances")
+	public void testShareRoleVersionBetweenInstances() {
+		// create roles
+		Role role1 = createRole(1L, true);
+		Role role2 = createRole(2L, false);
+
+		// configure mock, rows may come in any order
+		when(roleRepository.findAll()).thenReturn(List.of(role1, role2)).thenReturn(List.of(role2, role1));
+
+		// load the catalog of two instances
+		ChangeVersions otherVersions = new ChangeVersions();
+		roleCatalog.refresh();
+		new RoleCatalog(roleRepository, otherVersions).refresh();
+
+		// assert
+		assertEquals(changeVersions.roleToken(), otherVersions.roleToken());
+	}
+
+	private Role createRole(Long id, boolean defaultRole) {
+		Role role = TestUtils.createRole(defaultRole);
+		role.setId(id);
+
+		return role;
+	}
+
+}
@@ -0,0 +1,111 @@
+package com.priceline.role.service.system;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.context.support.StaticMessageSource;
+
+import com.priceline.role.config.MessageConfig;
+import com.priceline.role.enums.MessageEnum;
+
+public class MessageServiceTest {
+
+	private final List<Locale> LOCALES = List.of(Locale.ENGLISH, Locale.US, Locale.forLanguageTag("pt"), Locale.forLanguageTag("pt-BR"), Locale.FRENCH);
+
+	private ResourceBundleMessageSource messageSource;
+
+	private MessageService messageService;
+
+	@BeforeEach
+	public void setUp() {
+		messageSource = new MessageConfig().messageSource();
+		messageService = new MessageService(messageSource);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		LocaleContextHolder.resetLocaleContext();
+	}
+
+	@Test
+	@DisplayName("Get every message as resolved by the message source")
+	public void testGetEveryMessage() {
+		for(Locale locale : LOCALES) {
+			LocaleContextHolder.setLocale(locale);
+
+			for(MessageEnum messageEnum : MessageEnum.values()) {
+				// string arguments are substituted, numbers are formatted by MessageFormat
+				assertMessage(messageEnum, locale);
+				assertMessage(messageEnum, locale, "name", "team", "user");
+				if(!locale.equals(Locale.FRENCH)) {
+					assertMessage(messageEnum, locale, "name", 1500);
+				}
+			}
+		}
+	}
+
+	@Test
+	@DisplayName("Get message with quotes and typed placeholders")
+	public void testGetMessageWithQuotesAndTypedPlaceholders() {
+		// register every message, overriding two of them
+		StaticMessageSource source = createStaticMessageSource();
+		addMessage(source, MessageEnum.UNKNOWN_ERROR_DESCRIPTION, "It''s '{literal}' and ''{0}''");
+		addMessage(source, MessageEnum.VALIDATION_FAILURE_DESCRIPTION, "{0} has {1,number,#} items");
+
+		MessageService service = new MessageService(source);
+		LocaleContextHolder.setLocale(Locale.ENGLISH);
+
+		// assert
+		assertEquals("It's {literal} and 'x'", service.getMessage(MessageEnum.UNKNOWN_ERROR_DESCRIPTION, "x"));
+		assertEquals("It''s '{literal}' and ''{0}''", service.getMessage(MessageEnum.UNKNOWN_ERROR_DESCRIPTION));
+		assertEquals("list has 1500 items", service.getMessage(MessageEnum.VALIDATION_FAILURE_DESCRIPTION, "list", 1500));
+	}
+
+	@Test
+	@DisplayName("Create service with a missing message")
+	public void testCreateServiceWithAMissingMessage() {
+		// register every message but one
+		StaticMessageSource source = new StaticMessageSource();
+		for(MessageEnum messageEnum : MessageEnum.values()) {
+			if(messageEnum != MessageEnum.ROLE_ERROR_DELETE_HELP) {
+				addMessage(source, messageEnum, messageEnum.name());
+			}
+		}
+
+		// create service
+		IllegalStateException exception = assertThrows(IllegalStateException.class, () -> new MessageService(source));
+
+		// assert
+		assertEquals("Message '" + MessageEnum.ROLE_ERROR_DELETE_HELP.getCode() + "' cannot be resolved for locale 'en'", exception.getMessage());
+	}
+
+	private void assertMessage(MessageEnum messageEnum, Locale locale, Object... args) {
+		assertEquals(messageSource.getMessage(messageEnum.getCode(), args, locale), messageService.getMessage(messageEnum, args),
+				messageEnum + " in " + locale);
+	}
+
+	private StaticMessageSource createStaticMessageSource() {
+		StaticMessageSource source = new StaticMessageSource();
+		for(MessageEnum messageEnum : MessageEnum.values()) {
+			addMessage(source, messageEnum, messageEnum.name());
+		}
+
+		return source;
+	}
+
+	private void addMessage(StaticMessageSource source, MessageEnum messageEnum, String pattern) {
+		for(Locale locale : MessageConfig.SUPPORTED_LOCALES) {
+			source.addMessage(messageEnum.getCode(), locale, pattern);
+		}
+	}
+
+}
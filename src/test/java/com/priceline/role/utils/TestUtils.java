@@ -165,6 +165,23 @@ public class TestUtils {
         return list;
     }
 	
+	public static List<String> getLinkRelations(String response) {
+		List<String> relations = new ArrayList<>();
+		parseToJson(response).getAsJsonArray("links").forEach(link -> relations.add(link.getAsJsonObject().get("rel").getAsString()));
+		
+		return relations;
+	}
+	
+	public static String getLink(String response, String relation) {
+		for(JsonElement link : parseToJson(response).getAsJsonArray("links")) {
+			if(relation.equals(link.getAsJsonObject().get("rel").getAsString())) {
+				return link.getAsJsonObject().get("href").getAsString();
+			}
+		}
+		
+		return null;
+	}
+	
 	private static final Gson localDateTimeGson = new GsonBuilder()
         .registerTypeAdapter(LocalDateTime.class, new JsonDeserializer<LocalDateTime>() {
             @Override